@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+#
+# Builds an AppCDS archive for the packaged application.
+# The jar is unpacked so classes load from plain jar files on the class path, which CDS
+# can archive, then a training run starts the Spring context and exits right after refresh.
+#
+# Usage: scripts/cds-archive.sh [jar] [output-dir]
+# Run:   java -XX:SharedArchiveFile=<output-dir>/app.jsa -cp "$(cat <output-dir>/classpath)" com.example.demo.DemoApplication
+set -euo pipefail
+
+JAR=${1:-target/simple-spring-boot-app-1.0.0.jar}
+OUT=${2:-target/cds}
+
+rm -rf "$OUT"
+mkdir -p "$OUT/app"
+(cd "$OUT/app" && jar -xf "$(cd - > /dev/null && realpath "$JAR")")
+
+# CDS only archives classes loaded from jar files, so the application classes get their own jar
+jar -cf "$OUT/application.jar" -C "$OUT/app/BOOT-INF/classes" .
+
+# Keep the exact dependency order recorded by the Spring Boot plugin
+CLASSPATH_ENTRIES="$OUT/application.jar"
+while read -r line; do
+  entry=${line#- }
+  entry=${entry//\"/}
+  CLASSPATH_ENTRIES="$CLASSPATH_ENTRIES:$OUT/app/$entry"
+done < "$OUT/app/BOOT-INF/classpath.idx"
+echo "$CLASSPATH_ENTRIES" > "$OUT/classpath"
+
+java -XX:ArchiveClassesAtExit="$OUT/app.jsa" -Xlog:cds=error \
+  -Dspring.context.exit=onRefresh \
+  -cp "$CLASSPATH_ENTRIES" com.example.demo.DemoApplication --server.port=0 "${@:3}"
+
+echo "CDS archive written to $OUT/app.jsa"
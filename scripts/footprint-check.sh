@@ -0,0 +1,106 @@
+#!/usr/bin/env bash
+#
+# Checks the estimates of GET /api/admin/memory against the heap.
+# Boots the packaged application empty, imports a generated catalog through the bulk job
+# API and reads it once so every product has its JSON snapshot. Around that it takes class
+# histograms with jcmd, each after a full GC, and compares the growth of the live heap with
+# the growth of the estimated structure bytes. Fails if they differ by more than the tolerance,
+# so it can gate releases against memory regressions and stale estimates.
+#
+# Usage: scripts/footprint-check.sh [products]
+# Environment:
+#   TOLERANCE  Allowed difference in percent (default 15)
+#   PORT       Port for the application (default 18384)
+#   JAVA_OPTS  JVM options for the application; estimates assume compressed references
+#   HISTO_DIR  If set, the class histograms are also written there as before.txt and after.txt
+set -euo pipefail
+
+PRODUCTS=${1:-50000}
+TOLERANCE=${TOLERANCE:-15}
+PORT=${PORT:-18384}
+JAR=target/simple-spring-boot-app-1.0.0.jar
+DATA_DIR=target/loadtest
+BASE_URL=http://localhost:$PORT
+
+[ -f "$JAR" ] || { echo "Build first: mvn package" >&2; exit 2; }
+command -v jcmd > /dev/null || { echo "Needs jcmd from a JDK" >&2; exit 2; }
+mkdir -p "$DATA_DIR"
+PRODUCTS_FILE=$DATA_DIR/products-$PRODUCTS.json
+[ -f "$PRODUCTS_FILE" ] || awk -v rows="$PRODUCTS" 'BEGIN {
+  srand(42)
+  printf "["
+  for (i = 1; i <= rows; i++) {
+    printf "%s{\"name\":\"Product %d\",\"description\":\"Generated product %d, batch %d\",\"price\":%.2f,\"stock\":%d}",
+      (i > 1 ? "," : ""), i, i, i % 100, 1 + rand() * 999, int(rand() * 200)
+  }
+  print "]"
+}' > "$PRODUCTS_FILE"
+
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" \
+  --app.repository.sample-data=false --management.endpoint.health.probes.enabled=true \
+  --app.admission.enabled=false --app.jobs.max-items-per-second=1000000000 \
+  > "$DATA_DIR/footprint-app.log" 2>&1 &
+APP_PID=$!
+trap 'kill "$APP_PID" 2>/dev/null; wait "$APP_PID" 2>/dev/null || true' EXIT
+
+until curl -sf "$BASE_URL/actuator/health/readiness" > /dev/null; do
+  if ! kill -0 "$APP_PID" 2>/dev/null; then
+    echo "Application exited during startup, see $DATA_DIR/footprint-app.log" >&2
+    exit 2
+  fi
+  sleep 0.5
+done
+
+# Live heap bytes per the class histogram's total line; the histogram forces a full GC
+live_heap() {
+  jcmd "$APP_PID" GC.class_histogram | awk '$1 == "Total" { print $3 }'
+}
+
+estimated_heap() {
+  curl -sf "$BASE_URL/api/admin/memory" | grep -o '"estimatedHeapBytes":[0-9]*' | cut -d: -f2
+}
+
+# Warm up request handling first, so its one-time allocations fall before the baseline
+for _ in 1 2 3; do curl -s -o /dev/null "$BASE_URL/api/products"; estimated_heap > /dev/null; done
+[ -n "${HISTO_DIR:-}" ] && jcmd "$APP_PID" GC.class_histogram > "$HISTO_DIR/before.txt"
+heap_before=$(live_heap)
+estimate_before=$(estimated_heap)
+
+location=$(curl -sf -D - -o /dev/null -H 'Content-Type: application/json' \
+  --data-binary "@$PRODUCTS_FILE" "$BASE_URL/api/jobs/products" | tr -d '\r' | awk 'tolower($1) == "location:" { print $2 }')
+until curl -sf "$BASE_URL$location" | grep -q '"state":"SUCCEEDED"'; do
+  if curl -sf "$BASE_URL$location" | grep -Eq '"state":"(FAILED|CANCELLED)"'; then
+    echo "Import did not succeed: $(curl -s "$BASE_URL$location")" >&2
+    exit 2
+  fi
+  sleep 0.5
+done
+curl -s -o /dev/null "$BASE_URL/api/products"
+# The write pipeline indexes behind the import; measure once it has drained
+until curl -sf "$BASE_URL/actuator/metrics/app.pipeline.queue.depth" | grep -q '"value":0.0'; do
+  sleep 0.5
+done
+sleep 1
+
+[ -n "${HISTO_DIR:-}" ] && jcmd "$APP_PID" GC.class_histogram > "$HISTO_DIR/after.txt"
+heap_after=$(live_heap)
+estimate_after=$(estimated_heap)
+
+curl -s "$BASE_URL/api/admin/memory" | tr '{' '\n' | grep '"name"' | \
+  sed -E 's/.*"name":"([^"]*)","entries":([0-9]*),"retainedBytes":([0-9]*),"bytesPerEntry":([0-9]*).*/\1 \2 \3 \4/' | \
+  awk 'BEGIN { printf "%-28s %10s %14s %10s\n", "structure", "entries", "bytes", "bytes/entry" }
+       { printf "%-28s %10d %14d %10d\n", $1, $2, $3, $4 }'
+
+measured=$((heap_after - heap_before))
+estimated=$((estimate_after - estimate_before))
+error=$(awk -v m="$measured" -v e="$estimated" 'BEGIN { printf "%.1f", (e - m) * 100 / m }')
+echo
+echo "products:               $PRODUCTS"
+echo "live heap growth:       $measured bytes"
+echo "estimated growth:       $estimated bytes"
+echo "estimate error:         $error%"
+awk -v e="$error" -v t="$TOLERANCE" 'BEGIN { exit (e < -t || e > t) ? 1 : 0 }' || {
+  echo "Estimate is off by more than $TOLERANCE%" >&2
+  exit 1
+}
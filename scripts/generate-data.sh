@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+#
+# Writes synthetic CSV input for the bulk loader.
+#
+# Usage: scripts/generate-data.sh products|users <rows> > file.csv
+set -euo pipefail
+
+KIND=${1:?products or users}
+ROWS=${2:-1000000}
+
+case "$KIND" in
+  products)
+    awk -v rows="$ROWS" 'BEGIN {
+      print "id,name,description,price,stock"
+      srand(42)
+      for (i = 1; i <= rows; i++) {
+        printf "%d,Product %d,\"Generated product %d, batch %d\",%.2f,%d\n", i, i, i, i % 100, 1 + rand() * 999, int(rand() * 200)
+      }
+    }'
+    ;;
+  users)
+    awk -v rows="$ROWS" 'BEGIN {
+      print "id,name,email,role"
+      for (i = 1; i <= rows; i++) {
+        printf "%d,User %d,user%d@example.com,%s\n", i, i, i, (i % 50 == 0 ? "ADMIN" : "USER")
+      }
+    }'
+    ;;
+  *)
+    echo "Unknown kind: $KIND" >&2
+    exit 1
+    ;;
+esac
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+#
+# End-to-end load test against a local instance.
+# Generates a seeded dataset, boots the packaged application with the bulk loader, waits
+# until it reports ready, runs scripts/loadtest/LoadGenerator.java against it and shuts
+# it down again. The exit status is the generator's: 1 when an SLO is violated.
+#
+# Usage: scripts/load-test.sh [generator options...]
+#   e.g. scripts/load-test.sh --rate 1000 --duration 60 --slo all.p99<=50 --slo all.errors<=0.001
+# Environment:
+#   PRODUCTS, USERS  Dataset size (default 10000 each)
+#   PORT             Port for the application (default 18282)
+#   APP_ARGS         Extra application arguments, e.g. "--app.admission.enabled=false"
+# Admission control is enabled and keyed on the generator's X-Client-Id header, so each
+# simulated client gets its own rate limit although all requests come from one address.
+#   JAVA_OPTS        JVM options for the application
+set -euo pipefail
+
+PRODUCTS=${PRODUCTS:-10000}
+USERS=${USERS:-10000}
+PORT=${PORT:-18282}
+JAR=target/simple-spring-boot-app-1.0.0.jar
+DATA_DIR=target/loadtest
+
+[ -f "$JAR" ] || { echo "Build first: mvn package" >&2; exit 2; }
+mkdir -p "$DATA_DIR"
+PRODUCTS_FILE=$DATA_DIR/products-$PRODUCTS.csv
+USERS_FILE=$DATA_DIR/users-$USERS.csv
+[ -f "$PRODUCTS_FILE" ] || scripts/generate-data.sh products "$PRODUCTS" > "$PRODUCTS_FILE"
+[ -f "$USERS_FILE" ] || scripts/generate-data.sh users "$USERS" > "$USERS_FILE"
+
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" \
+  --app.repository.sample-data=false --management.endpoint.health.probes.enabled=true \
+  --app.repository.initial-capacity="$(( PRODUCTS > USERS ? PRODUCTS : USERS ))" \
+  --app.loader.products-file="$PRODUCTS_FILE" --app.loader.users-file="$USERS_FILE" \
+  --app.admission.enabled=true --app.admission.client-header=X-Client-Id \
+  ${APP_ARGS:-} > "$DATA_DIR/app.log" 2>&1 &
+APP_PID=$!
+trap 'kill "$APP_PID" 2>/dev/null; wait "$APP_PID" 2>/dev/null || true' EXIT
+
+# Readiness only turns UP once the bulk load has finished
+until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+  if ! kill -0 "$APP_PID" 2>/dev/null; then
+    echo "Application exited during startup, see $DATA_DIR/app.log" >&2
+    exit 2
+  fi
+  sleep 0.5
+done
+
+java scripts/loadtest/LoadGenerator.java --base-url "http://localhost:$PORT" \
+  --products "$PRODUCTS" --users "$USERS" "$@"
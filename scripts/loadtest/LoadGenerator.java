@@ -0,0 +1,476 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Open-model HTTP load generator for the demo API.
+ * Requests are scheduled at a constant arrival rate, independent of how fast the server
+ * answers, and each one picks a scenario by weight. Latency is measured from the time a
+ * request was scheduled to go out, not from when it was actually sent, so a stalled server
+ * (or a stalled generator) shows up in the percentiles instead of silently lowering the
+ * request rate. This is the usual correction for coordinated omission. The uncorrected
+ * service time is reported alongside for comparison.
+ *
+ * <p>Runs with the source launcher and needs nothing but a JDK:
+ * <pre>java scripts/loadtest/LoadGenerator.java --base-url http://localhost:8080 --rate 500</pre>
+ * Exits with 1 if any {@code --slo} is violated and 2 on invalid arguments.
+ */
+public class LoadGenerator {
+
+    private static final List<String> SCENARIOS = List.of("list", "search", "stock", "email", "stats");
+
+    private static final String USAGE = """
+            Usage: java scripts/loadtest/LoadGenerator.java [options]
+              --base-url URL       Server to load (default http://localhost:8080)
+              --rate N             Requests per second over all scenarios (default 200)
+              --duration S         Measured seconds (default 30)
+              --warmup S           Seconds of load before measuring (default 10)
+              --mix NAME=W,...     Scenario weights (default list=1,search=3,stock=3,email=5,stats=1)
+              --products N         Product ids 1..N exist in the dataset (default 10000)
+              --users N            Users user1..userN@example.com exist (default 10000)
+              --clients N          Distinct X-Client-Id values to spread requests over (default 1000)
+              --max-in-flight N    Outstanding requests before new ones queue (default 512)
+              --timeout-ms N       Per-request timeout (default 5000)
+              --seed N             Random seed (default 42)
+              --slo SPEC           Fail unless SPEC holds; repeatable. SPEC is SCOPE.METRIC<=VALUE where
+                                   SCOPE is a scenario or 'all', METRIC is p50|p90|p99|p999|max (ms)
+                                   or errors (fraction of requests), e.g. all.p99<=100 stock.errors<=0.001
+            Scenarios: list, search, stock, email, stats
+            """;
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        boolean passed = new LoadGenerator(options).run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    private final Options options;
+    private final HttpClient client;
+    private final ExecutorService completions = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()), daemon("load-completion"));
+    private final Semaphore inFlight;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    LoadGenerator(Options options) {
+        this.options = options;
+        this.inFlight = new Semaphore(options.maxInFlight);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(options.timeoutMillis))
+                .executor(completions)
+                .build();
+    }
+
+    boolean run() throws InterruptedException {
+        List<Scenario> scenarios = scenarios();
+        for (Scenario scenario : scenarios) {
+            stats.put(scenario.name, new Stats());
+        }
+        System.out.printf(Locale.ROOT, "Load: %s at %.0f req/s, %ds warm-up, %ds measured, mix %s%n",
+                options.baseUrl, options.rate, options.warmupSeconds, options.durationSeconds, options.mix);
+
+        long intervalNanos = (long) (1_000_000_000L / options.rate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+        SplittableRandom random = new SplittableRandom(options.seed);
+        double totalWeight = scenarios.stream().mapToDouble(s -> s.weight).sum();
+
+        boolean measuring = false;
+        for (long n = 0; ; n++) {
+            long intended = start + n * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            measuring |= intended >= measureFrom;
+            // Blocking here delays the send but not the intended time, so the wait is counted
+            inFlight.acquire();
+            send(pick(scenarios, totalWeight, random), random, intended, measuring);
+        }
+
+        // Let outstanding requests finish or time out
+        inFlight.acquire(options.maxInFlight);
+        long measuredNanos = end - measureFrom;
+        completions.shutdown();
+        return report(scenarios, measuredNanos);
+    }
+
+    private void send(Scenario scenario, SplittableRandom random, long intended, boolean measured) {
+        HttpRequest request = scenario.request.apply(random);
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    long done = System.nanoTime();
+                    if (measured) {
+                        int status = failure == null ? response.statusCode() : 0;
+                        stats.get(scenario.name).record(done - intended, done - sent, status);
+                    }
+                    inFlight.release();
+                });
+    }
+
+    private static Scenario pick(List<Scenario> scenarios, double totalWeight, SplittableRandom random) {
+        double r = random.nextDouble() * totalWeight;
+        for (Scenario scenario : scenarios) {
+            r -= scenario.weight;
+            if (r < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private List<Scenario> scenarios() {
+        Map<String, Function<SplittableRandom, HttpRequest.Builder>> all = new LinkedHashMap<>();
+        all.put("list", random -> get("/api/products"));
+        all.put("search", random -> get("/api/products/search?name="
+                + encode("Product " + (1 + random.nextInt(options.products)))));
+        all.put("stock", random -> HttpRequest.newBuilder(uri("/api/products/"
+                        + (1 + random.nextInt(options.products)) + "/stock?quantity=1"))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+        all.put("email", random -> get("/api/users/search/email?email="
+                + encode("user" + (1 + random.nextInt(options.users)) + "@example.com")));
+        all.put("stats", random -> get("/api/stats"));
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : options.mix.entrySet()) {
+            Function<SplittableRandom, HttpRequest.Builder> builder = all.get(entry.getKey());
+            if (entry.getValue() > 0) {
+                scenarios.add(new Scenario(entry.getKey(), entry.getValue(), random -> builder.apply(random)
+                        .header("X-Client-Id", "load-" + random.nextInt(options.clients))
+                        .timeout(Duration.ofMillis(options.timeoutMillis))
+                        .build()));
+            }
+        }
+        return scenarios;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private URI uri(String path) {
+        return URI.create(options.baseUrl + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private boolean report(List<Scenario> scenarios, long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        Stats total = new Stats();
+        System.out.printf(Locale.ROOT, "%n%-8s %9s %8s %9s %9s %9s %9s %9s %9s %12s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "svc p99 ms");
+        for (Scenario scenario : scenarios) {
+            Stats s = stats.get(scenario.name);
+            print(scenario.name, s, seconds);
+            total.add(s);
+        }
+        print("all", total, seconds);
+        for (Scenario scenario : scenarios) {
+            String codes = stats.get(scenario.name).errorCodes();
+            if (!codes.isEmpty()) {
+                System.out.println("  " + scenario.name + " errors by status (0 = no response): " + codes);
+            }
+        }
+
+        boolean passed = true;
+        if (!options.slos.isEmpty()) {
+            System.out.println();
+        }
+        for (Slo slo : options.slos) {
+            Stats s = slo.scope.equals("all") ? total : stats.get(slo.scope);
+            if (s == null) {
+                System.out.println("SLO " + slo + ": FAIL (scenario not in mix)");
+                passed = false;
+                continue;
+            }
+            double actual = slo.measure(s);
+            boolean ok = actual <= slo.limit;
+            passed &= ok;
+            System.out.printf(Locale.ROOT, "SLO %s: %s (actual %.4f)%n", slo, ok ? "PASS" : "FAIL", actual);
+        }
+        if (total.count() == 0) {
+            System.out.println("No requests completed in the measured window");
+            passed = false;
+        }
+        return passed;
+    }
+
+    private static void print(String name, Stats s, double seconds) {
+        System.out.printf(Locale.ROOT, "%-8s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %12.2f%n",
+                name, s.count(), s.errors.sum(), s.count() / seconds,
+                s.latency.percentileMillis(0.50), s.latency.percentileMillis(0.90),
+                s.latency.percentileMillis(0.99), s.latency.percentileMillis(0.999),
+                s.latency.maxMillis(), s.service.percentileMillis(0.99));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Scenario(String name, double weight, Function<SplittableRandom, HttpRequest> request) {
+    }
+
+    /**
+     * Results of one scenario: corrected latency, service time and failures by status.
+     */
+    static final class Stats {
+        final Histogram latency = new Histogram();
+        final Histogram service = new Histogram();
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+
+        void record(long latencyNanos, long serviceNanos, int status) {
+            latency.record(latencyNanos);
+            service.record(serviceNanos);
+            if (status < 200 || status >= 300) {
+                errors.increment();
+                errorsByStatus.computeIfAbsent(status, k -> new LongAdder()).increment();
+            }
+        }
+
+        long count() {
+            return latency.count();
+        }
+
+        double errorRate() {
+            long count = count();
+            return count == 0 ? 0 : (double) errors.sum() / count;
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            service.add(other.service);
+            errors.add(other.errors.sum());
+        }
+
+        String errorCodes() {
+            StringBuilder codes = new StringBuilder();
+            errorsByStatus.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> codes.append(codes.length() == 0 ? "" : ", ")
+                            .append(e.getKey()).append('=').append(e.getValue().sum()));
+            return codes.toString();
+        }
+    }
+
+    /**
+     * Log-linear histogram of microseconds with 32 sub-buckets per power of two, so any
+     * reported percentile is within about 3% of the recorded value.
+     */
+    static final class Histogram {
+        private static final int SUB_BITS = 5;
+        private static final int SUB_BUCKETS = 1 << SUB_BITS;
+        private static final int LINEAR = SUB_BUCKETS * 2;
+
+        private final AtomicLongArray counts = new AtomicLongArray(LINEAR + 64 * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(index(micros));
+            total.increment();
+            max.accumulateAndGet(micros, Math::max);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.addAndGet(i, other.counts.get(i));
+            }
+            total.add(other.total.sum());
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+
+        long count() {
+            return total.sum();
+        }
+
+        double maxMillis() {
+            return max.get() / 1000.0;
+        }
+
+        double percentileMillis(double quantile) {
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max.get()) / 1000.0;
+                }
+            }
+            return maxMillis();
+        }
+
+        private static int index(long micros) {
+            if (micros < LINEAR) {
+                return (int) micros;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+            return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (micros >>> shift) - SUB_BUCKETS;
+        }
+
+        private static long highestValue(int index) {
+            if (index < LINEAR) {
+                return index;
+            }
+            int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+            long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+            return ((sub + 1) << shift) - 1;
+        }
+    }
+
+    private record Slo(String scope, String metric, double limit) {
+
+        static Slo parse(String spec) {
+            int dot = spec.indexOf('.');
+            int le = spec.indexOf("<=");
+            if (dot < 0 || le < dot) {
+                throw new IllegalArgumentException("Invalid SLO: " + spec);
+            }
+            String metric = spec.substring(dot + 1, le);
+            if (!List.of("p50", "p90", "p99", "p999", "max", "errors").contains(metric)) {
+                throw new IllegalArgumentException("Unknown SLO metric: " + metric);
+            }
+            try {
+                return new Slo(spec.substring(0, dot), metric, Double.parseDouble(spec.substring(le + 2)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid SLO limit: " + spec);
+            }
+        }
+
+        double measure(Stats stats) {
+            return switch (metric) {
+                case "p50" -> stats.latency.percentileMillis(0.50);
+                case "p90" -> stats.latency.percentileMillis(0.90);
+                case "p99" -> stats.latency.percentileMillis(0.99);
+                case "p999" -> stats.latency.percentileMillis(0.999);
+                case "max" -> stats.latency.maxMillis();
+                default -> stats.errorRate();
+            };
+        }
+
+        @Override
+        public String toString() {
+            return scope + "." + metric + "<=" + limit;
+        }
+    }
+
+    static final class Options {
+        String baseUrl = "http://localhost:8080";
+        double rate = 200;
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        Map<String, Double> mix = parseMix("list=1,search=3,stock=3,email=5,stats=1");
+        int products = 10_000;
+        int users = 10_000;
+        int clients = 1000;
+        int maxInFlight = 512;
+        int timeoutMillis = 5000;
+        long seed = 42;
+        List<Slo> slos = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if (name.equals("--help")) {
+                    throw new IllegalArgumentException("");
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + name);
+                }
+                String value = args[++i];
+                try {
+                    switch (name) {
+                        case "--base-url" -> options.baseUrl = value.replaceAll("/+$", "");
+                        case "--rate" -> options.rate = positive(name, Double.parseDouble(value));
+                        case "--duration" -> options.durationSeconds = (int) positive(name, Integer.parseInt(value));
+                        case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                        case "--mix" -> options.mix = parseMix(value);
+                        case "--products" -> options.products = (int) positive(name, Integer.parseInt(value));
+                        case "--users" -> options.users = (int) positive(name, Integer.parseInt(value));
+                        case "--clients" -> options.clients = (int) positive(name, Integer.parseInt(value));
+                        case "--max-in-flight" -> options.maxInFlight = (int) positive(name, Integer.parseInt(value));
+                        case "--timeout-ms" -> options.timeoutMillis = (int) positive(name, Integer.parseInt(value));
+                        case "--seed" -> options.seed = Long.parseLong(value);
+                        case "--slo" -> options.slos.add(Slo.parse(value));
+                        default -> throw new IllegalArgumentException("Unknown option: " + name);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number for " + name + ": " + value);
+                }
+            }
+            return options;
+        }
+
+        private static double positive(String name, double value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+
+        private static Map<String, Double> parseMix(String spec) {
+            Map<String, Double> mix = new LinkedHashMap<>();
+            for (String part : spec.split(",")) {
+                String[] pair = part.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid mix entry: " + part);
+                }
+                String scenario = pair[0].trim();
+                if (!SCENARIOS.contains(scenario)) {
+                    throw new IllegalArgumentException("Unknown scenario: " + scenario);
+                }
+                mix.put(scenario, Double.parseDouble(pair[1].trim()));
+            }
+            if (mix.values().stream().noneMatch(weight -> weight > 0)) {
+                throw new IllegalArgumentException("Mix has no scenario with a positive weight");
+            }
+            return mix;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+#
+# Runs the JMH benchmarks under src/test/java:
+#   LongMapBenchmark      primitive-keyed maps against ConcurrentHashMap and HashMap
+#                         (nanoseconds per 4096 gets or puts, milliseconds per full iteration)
+#   CompressionBenchmark  gzip on product list bodies (microseconds per body)
+#   CodecBenchmark        JSON, Smile and CBOR encoding (microseconds per list)
+#
+# Usage: scripts/map-benchmark.sh [JMH options...]
+#   e.g. scripts/map-benchmark.sh LongMapBenchmark -p size=1000000 -prof gc
+#   Without options, runs LongMapBenchmark.
+set -euo pipefail
+
+CLASSPATH_FILE=target/benchmark-classpath
+
+mvn -B -q test-compile dependency:build-classpath -Dmdep.includeScope=test \
+  -Dmdep.outputFile="$CLASSPATH_FILE"
+
+if [ $# -eq 0 ]; then
+  set -- LongMapBenchmark
+fi
+java -cp "target/test-classes:target/classes:$(cat "$CLASSPATH_FILE")" org.openjdk.jmh.Main "$@"
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# Measures what sparse fieldsets save on the product list.
+# Boots the packaged application with a generated catalog, then fetches GET /api/products
+# repeatedly for each field set and records the uncompressed payload size, the mean
+# client-observed time and the server CPU time per request (from /proc, so Linux only).
+#
+# Usage: scripts/projection-benchmark.sh [requests] [field sets...]
+#   e.g. scripts/projection-benchmark.sh 200 "" id,price,stock id
+#   An empty field set requests full products. Default field sets: "" id,price,stock id
+# Environment:
+#   PRODUCTS   Catalog size (default 10000)
+#   PORT       Port for the application (default 18383)
+#   JAVA_OPTS  JVM options for the application
+set -euo pipefail
+
+REQUESTS=${1:-200}
+shift || true
+if [ $# -gt 0 ]; then
+  FIELD_SETS=("$@")
+else
+  FIELD_SETS=("" "id,price,stock" "id")
+fi
+PRODUCTS=${PRODUCTS:-10000}
+PORT=${PORT:-18383}
+JAR=target/simple-spring-boot-app-1.0.0.jar
+DATA_DIR=target/loadtest
+BASE_URL=http://localhost:$PORT/api/products
+
+[ -f "$JAR" ] || { echo "Build first: mvn package" >&2; exit 2; }
+[ -r /proc/self/stat ] || { echo "Needs /proc to read process CPU time" >&2; exit 2; }
+mkdir -p "$DATA_DIR"
+PRODUCTS_FILE=$DATA_DIR/products-$PRODUCTS.csv
+[ -f "$PRODUCTS_FILE" ] || scripts/generate-data.sh products "$PRODUCTS" > "$PRODUCTS_FILE"
+
+# Admission control would throttle the back-to-back requests of a single client
+# shellcheck disable=SC2086
+java ${JAVA_OPTS:-} -jar "$JAR" --server.port="$PORT" \
+  --app.repository.sample-data=false --management.endpoint.health.probes.enabled=true \
+  --app.admission.enabled=false --app.loader.products-file="$PRODUCTS_FILE" \
+  > "$DATA_DIR/projection-app.log" 2>&1 &
+APP_PID=$!
+trap 'kill "$APP_PID" 2>/dev/null; wait "$APP_PID" 2>/dev/null || true' EXIT
+
+until curl -sf "http://localhost:$PORT/actuator/health/readiness" > /dev/null; do
+  if ! kill -0 "$APP_PID" 2>/dev/null; then
+    echo "Application exited during startup, see $DATA_DIR/projection-app.log" >&2
+    exit 2
+  fi
+  sleep 0.5
+done
+
+TICKS_PER_SECOND=$(getconf CLK_TCK)
+
+# User plus system CPU time of the application in clock ticks
+cpu_ticks() {
+  awk '{ print $14 + $15 }' "/proc/$APP_PID/stat"
+}
+
+url_for() {
+  if [ -z "$1" ]; then echo "$BASE_URL"; else echo "$BASE_URL?fields=$1"; fi
+}
+
+# One warm-up pass per field set so the JIT and the projection cache are hot
+for fields in "${FIELD_SETS[@]}"; do
+  url=$(url_for "$fields")
+  for ((i = 0; i < REQUESTS; i++)); do curl -s -o /dev/null "$url"; done
+done
+
+printf '%-20s %12s %12s %16s\n' fields "bytes/resp" "ms/resp" "server CPU ms/resp"
+for fields in "${FIELD_SETS[@]}"; do
+  url=$(url_for "$fields")
+  bytes=$(curl -s -o /dev/null -w '%{size_download}' "$url")
+  ticks_before=$(cpu_ticks)
+  seconds=0
+  for ((i = 0; i < REQUESTS; i++)); do
+    took=$(curl -s -o /dev/null -w '%{time_total}' "$url")
+    seconds=$(awk -v a="$seconds" -v b="$took" 'BEGIN { print a + b }')
+  done
+  ticks=$(( $(cpu_ticks) - ticks_before ))
+  printf '%-20s %12d %12.2f %16.2f\n' "${fields:-(all)}" "$bytes" \
+    "$(awk -v s="$seconds" -v n="$REQUESTS" 'BEGIN { print s * 1000 / n }')" \
+    "$(awk -v t="$ticks" -v hz="$TICKS_PER_SECOND" -v n="$REQUESTS" 'BEGIN { print t * 1000 / hz / n }')"
+done
@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# Compares startup across launch modes.
+# For each mode the application is started several times and two numbers are recorded:
+# the time Spring reports in "Started DemoApplication in ..." and the wall-clock time from
+# process launch until the first successful GET /api/products.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [modes...]
+# Modes: jvm faststart cds aot native (default: every mode whose artifacts exist)
+#   jvm        java -jar on the regular build
+#   faststart  java -jar with the faststart profile (lazy initialization)
+#   cds        unpacked class path with the archive from scripts/cds-archive.sh
+#   aot        like cds, plus -Dspring.aot.enabled=true (build with mvn -Paot package first)
+#   native     target/simple-spring-boot-app (build with mvn -Pnative native:compile)
+set -uo pipefail
+
+RUNS=${1:-5}
+shift || true
+JAR=target/simple-spring-boot-app-1.0.0.jar
+CDS_DIR=target/cds
+NATIVE=target/simple-spring-boot-app
+PORT=${PORT:-18181}
+
+if [ $# -gt 0 ]; then
+  MODES=("$@")
+else
+  MODES=(jvm faststart)
+  [ -f "$CDS_DIR/app.jsa" ] && MODES+=(cds)
+  [ -f "$CDS_DIR/app.jsa" ] && [ -d "$CDS_DIR/app/BOOT-INF/classes/META-INF/native-image" ] && MODES+=(aot)
+  [ -x "$NATIVE" ] && MODES+=(native)
+fi
+
+command_for() {
+  case "$1" in
+    jvm) echo "java -jar $JAR" ;;
+    faststart) echo "java -jar $JAR --spring.profiles.active=faststart" ;;
+    cds) echo "java -XX:SharedArchiveFile=$CDS_DIR/app.jsa -Xlog:cds=off -cp $(cat "$CDS_DIR/classpath") com.example.demo.DemoApplication" ;;
+    aot) echo "java -Dspring.aot.enabled=true -XX:SharedArchiveFile=$CDS_DIR/app.jsa -Xlog:cds=off -cp $(cat "$CDS_DIR/classpath") com.example.demo.DemoApplication" ;;
+    native) echo "$NATIVE" ;;
+    *) echo "Unknown mode: $1" >&2; return 1 ;;
+  esac
+}
+
+now_millis() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+printf '%-10s %5s %14s %20s\n' mode runs "started (s)" "first response (ms)"
+for mode in "${MODES[@]}"; do
+  cmd=$(command_for "$mode") || exit 1
+  started_total=0
+  ready_total=0
+  for ((run = 1; run <= RUNS; run++)); do
+    log=$(mktemp)
+    launched=$(now_millis)
+    $cmd --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/products"; do
+      if ! kill -0 "$pid" 2> /dev/null; then
+        echo "$mode: application exited, see $log" >&2
+        exit 1
+      fi
+      sleep 0.01
+    done
+    ready=$(( $(now_millis) - launched ))
+    kill "$pid"
+    wait "$pid" 2> /dev/null
+    started=$(grep -o 'Started DemoApplication in [0-9.]*' "$log" | awk '{print $4}')
+    rm -f "$log"
+    started_total=$(awk -v a="$started_total" -v b="${started:-0}" 'BEGIN { print a + b }')
+    ready_total=$(( ready_total + ready ))
+  done
+  printf '%-10s %5d %14.3f %20d\n' "$mode" "$RUNS" "$(awk -v a="$started_total" -v n="$RUNS" 'BEGIN { print a / n }')" $(( ready_total / RUNS ))
+done
@@ -1,5 +1,6 @@
 package com.example.demo;
 
+import com.example.demo.model.ReservationSummary;
 import com.example.demo.service.UserService;
 import com.example.demo.service.ProductService;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -44,6 +45,9 @@ public class HelloController {
         stats.put("totalUsers", userService.getUserCount());
         stats.put("totalProducts", productService.getProductCount());
         stats.put("productsInStock", productService.getInStockProducts().size());
+        ReservationSummary reservations = productService.getReservationSummary();
+        stats.put("activeReservations", reservations.activeReservations());
+        stats.put("reservedUnits", reservations.reservedUnits());
         stats.put("message", "Application statistics retrieved successfully");
         return stats;
     }
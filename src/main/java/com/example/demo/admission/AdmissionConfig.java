@@ -0,0 +1,104 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Admission control for the product and user APIs, enabled with {@code app.admission.enabled=true}.
+ * Full-scan searches form the {@code search} class with a low per-client rate and a small
+ * concurrency limit. Unfiltered listings ({@code GET} on {@code app.admission.scan.paths}
+ * without {@code ids}) form the {@code scan} class, so their latency does not shrink the
+ * limit of point reads. Every other product and user endpoint forms the {@code standard} class.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    private static final String MULTI_GET_PARAMETER = "ids";
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Bean
+    public ClientIdentity admissionClientIdentity(
+            @Value("${app.admission.client-header:}") String clientHeader,
+            @Value("${app.admission.forwarded-header:}") String forwardedHeader) {
+        return new ClientIdentity(clientHeader, forwardedHeader);
+    }
+
+    @Bean
+    @Order(1)
+    public AdmissionControlInterceptor searchAdmission(
+            MeterRegistry meterRegistry,
+            ClientIdentity clientIdentity,
+            @Value("${app.admission.search.paths:/api/products/search,/api/users/search/**}") List<String> paths,
+            @Value("${app.admission.max-clients:10000}") int maxClients,
+            @Value("${app.admission.search.rate:5}") double rate,
+            @Value("${app.admission.search.burst:10}") int burst,
+            @Value("${app.admission.search.initial-concurrency:8}") int initialConcurrency,
+            @Value("${app.admission.search.max-concurrency:32}") int maxConcurrency,
+            @Value("${app.admission.search.target-latency-ms:250}") long targetLatencyMillis) {
+        return new AdmissionControlInterceptor("search", paths, List.of(), request -> true, clientIdentity,
+                new ClientRateLimiter(rate, burst, maxClients),
+                new AimdConcurrencyLimiter(initialConcurrency, 1, maxConcurrency,
+                        TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)),
+                meterRegistry);
+    }
+
+    @Bean
+    @Order(2)
+    public AdmissionControlInterceptor scanAdmission(
+            MeterRegistry meterRegistry,
+            ClientIdentity clientIdentity,
+            @Value("${app.admission.scan.paths:/api/products,/api/products/instock,/api/users}") List<String> paths,
+            @Value("${app.admission.max-clients:10000}") int maxClients,
+            @Value("${app.admission.scan.rate:50}") double rate,
+            @Value("${app.admission.scan.burst:100}") int burst,
+            @Value("${app.admission.scan.initial-concurrency:16}") int initialConcurrency,
+            @Value("${app.admission.scan.max-concurrency:128}") int maxConcurrency,
+            @Value("${app.admission.scan.target-latency-ms:500}") long targetLatencyMillis) {
+        return new AdmissionControlInterceptor("scan", paths, List.of(), scans(paths), clientIdentity,
+                new ClientRateLimiter(rate, burst, maxClients),
+                new AimdConcurrencyLimiter(initialConcurrency, 2, maxConcurrency,
+                        TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)),
+                meterRegistry);
+    }
+
+    @Bean
+    @Order(3)
+    public AdmissionControlInterceptor standardAdmission(
+            MeterRegistry meterRegistry,
+            ClientIdentity clientIdentity,
+            @Value("${app.admission.search.paths:/api/products/search,/api/users/search/**}") List<String> searchPaths,
+            @Value("${app.admission.scan.paths:/api/products,/api/products/instock,/api/users}") List<String> scanPaths,
+            @Value("${app.admission.max-clients:10000}") int maxClients,
+            @Value("${app.admission.standard.rate:500}") double rate,
+            @Value("${app.admission.standard.burst:1000}") int burst,
+            @Value("${app.admission.standard.initial-concurrency:256}") int initialConcurrency,
+            @Value("${app.admission.standard.max-concurrency:2048}") int maxConcurrency,
+            @Value("${app.admission.standard.target-latency-ms:50}") long targetLatencyMillis) {
+        return new AdmissionControlInterceptor("standard", List.of("/api/products/**", "/api/users/**"),
+                searchPaths, scans(scanPaths).negate(), clientIdentity,
+                new ClientRateLimiter(rate, burst, maxClients),
+                new AimdConcurrencyLimiter(initialConcurrency, 16, maxConcurrency,
+                        TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis)),
+                meterRegistry);
+    }
+
+    /**
+     * Matches listings: GETs on the scan paths, except multi-gets by id on the same path.
+     */
+    private static Predicate<HttpServletRequest> scans(List<String> paths) {
+        return request -> "GET".equals(request.getMethod())
+                && request.getParameter(MULTI_GET_PARAMETER) == null
+                && paths.stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, request.getRequestURI()));
+    }
+}
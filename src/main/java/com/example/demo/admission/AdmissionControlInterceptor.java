@@ -0,0 +1,131 @@
+package com.example.demo.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Admission control for one class of API endpoints.
+ * Each client first takes a token from its own bucket and gets 429 when it runs dry; the
+ * request then needs a slot under the class's adaptive concurrency limit and gets 503 when
+ * the class is saturated. Both rejections carry Retry-After and are answered before the
+ * controller runs. Endpoint classes are limited independently, so expensive searches cannot
+ * use up the capacity of cheap lookups. Requests on the class's paths that the selector
+ * declines pass through untouched, for another class to limit.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private final String endpointClass;
+    private final String admittedAtAttribute;
+    private final List<String> pathPatterns;
+    private final List<String> excludedPathPatterns;
+    private final Predicate<HttpServletRequest> selector;
+    private final ClientIdentity clientIdentity;
+    private final ClientRateLimiter rateLimiter;
+    private final AimdConcurrencyLimiter concurrencyLimiter;
+    private final byte[] rateLimited;
+    private final byte[] overloaded;
+    private final Counter rateRejections;
+    private final Counter overloadRejections;
+
+    AdmissionControlInterceptor(String endpointClass,
+                                List<String> pathPatterns,
+                                List<String> excludedPathPatterns,
+                                Predicate<HttpServletRequest> selector,
+                                ClientIdentity clientIdentity,
+                                ClientRateLimiter rateLimiter,
+                                AimdConcurrencyLimiter concurrencyLimiter,
+                                MeterRegistry meterRegistry) {
+        this.endpointClass = endpointClass;
+        this.admittedAtAttribute = AdmissionControlInterceptor.class.getName() + "." + endpointClass;
+        this.pathPatterns = pathPatterns;
+        this.excludedPathPatterns = excludedPathPatterns;
+        this.selector = selector;
+        this.clientIdentity = clientIdentity;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimited = ("{\"error\":\"Rate limit exceeded for " + endpointClass + " requests\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        this.overloaded = ("{\"error\":\"Too many concurrent " + endpointClass + " requests\"}")
+                .getBytes(StandardCharsets.UTF_8);
+
+        this.rateRejections = Counter.builder("app.admission.rejected")
+                .tag("class", endpointClass).tag("reason", "rate")
+                .register(meterRegistry);
+        this.overloadRejections = Counter.builder("app.admission.rejected")
+                .tag("class", endpointClass).tag("reason", "concurrency")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.concurrency.limit", concurrencyLimiter, AimdConcurrencyLimiter::limit)
+                .tag("class", endpointClass).register(meterRegistry);
+        Gauge.builder("app.admission.in-flight", concurrencyLimiter, AimdConcurrencyLimiter::inFlight)
+                .tag("class", endpointClass).register(meterRegistry);
+        Gauge.builder("app.admission.clients", rateLimiter, ClientRateLimiter::clients)
+                .tag("class", endpointClass).register(meterRegistry);
+    }
+
+    public String endpointClass() {
+        return endpointClass;
+    }
+
+    public List<String> pathPatterns() {
+        return pathPatterns;
+    }
+
+    public List<String> excludedPathPatterns() {
+        return excludedPathPatterns;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!selector.test(request)) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long waitNanos = rateLimiter.tryAcquire(clientIdentity.of(request), now);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            // Round up so a client retrying right on time finds a token
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS.value(), seconds, rateLimited);
+            return false;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            overloadRejections.increment();
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, overloaded);
+            return false;
+        }
+        request.setAttribute(admittedAtAttribute, now);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(admittedAtAttribute) instanceof Long admittedAt) {
+            request.removeAttribute(admittedAtAttribute);
+            concurrencyLimiter.release(System.nanoTime() - admittedAt,
+                    ex == null && response.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, long retryAfterSeconds, byte[] body)
+            throws Exception {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
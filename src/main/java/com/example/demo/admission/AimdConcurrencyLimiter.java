@@ -0,0 +1,76 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Adaptive concurrency limit using additive increase, multiplicative decrease.
+ * While requests finish within the target latency and the limit is actually in use, it grows
+ * by one per limit's worth of requests; a slow or failed request shrinks it by the backoff
+ * factor. In-flight requests are counted in a striped {@link LongAdder}, so admission never
+ * contends on a single counter; the check against the limit is therefore approximate
+ * under races, which is fine for load shedding.
+ */
+final class AimdConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private final LongAdder inFlight = new LongAdder();
+    // Current limit as double bits, updated by CAS
+    private final AtomicLong limitBits;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(
+                Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    /**
+     * Claim a slot for a request.
+     *
+     * @return true if admitted; the caller must then call {@link #release}
+     */
+    boolean tryAcquire() {
+        inFlight.increment();
+        if (inFlight.sum() > limit()) {
+            inFlight.decrement();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Return a slot and feed the request's outcome into the limit.
+     *
+     * @param latencyNanos Time the request took
+     * @param succeeded    False for server errors, which count like slow requests
+     */
+    void release(long latencyNanos, boolean succeeded) {
+        long current = inFlight.sum();
+        inFlight.decrement();
+        if (!succeeded || latencyNanos > targetLatencyNanos) {
+            update(limit -> Math.max(minLimit, limit * BACKOFF));
+        } else if (current * 2 >= limit()) {
+            // Only grow a limit that is being used, otherwise it drifts up while idle
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    long inFlight() {
+        return inFlight.sum();
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        limitBits.updateAndGet(bits -> Double.doubleToRawLongBits(change.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
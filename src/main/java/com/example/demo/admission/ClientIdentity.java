@@ -0,0 +1,43 @@
+package com.example.demo.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identifies the client a request is rate limited as.
+ * By default that is the remote address. Behind a reverse proxy, {@code forwardedHeader}
+ * names the header the proxy sets, such as {@code X-Forwarded-For}; its last entry is the
+ * address the proxy saw, so earlier entries supplied by the caller are ignored. A gateway
+ * that authenticates callers can pass their identity in {@code clientHeader}. Both headers
+ * are off by default, because any caller can set them when nothing in front of the
+ * application overwrites them.
+ */
+public final class ClientIdentity {
+
+    private final String clientHeader;
+    private final String forwardedHeader;
+
+    /**
+     * @param clientHeader    Header with an authenticated client id, or empty to ignore it
+     * @param forwardedHeader Header with the proxy-appended client address, or empty to ignore it
+     */
+    public ClientIdentity(String clientHeader, String forwardedHeader) {
+        this.clientHeader = clientHeader == null ? "" : clientHeader.trim();
+        this.forwardedHeader = forwardedHeader == null ? "" : forwardedHeader.trim();
+    }
+
+    String of(HttpServletRequest request) {
+        if (!clientHeader.isEmpty()) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return "id:" + client.trim();
+            }
+        }
+        if (!forwardedHeader.isEmpty()) {
+            String forwarded = request.getHeader(forwardedHeader);
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
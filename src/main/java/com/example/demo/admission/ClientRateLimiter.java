@@ -0,0 +1,86 @@
+package com.example.demo.admission;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TokenBucket} per client, for at most {@code maxClients} clients.
+ * Known clients are admitted without locking. New clients are added under a lock, and once
+ * the table is full each one evicts another in CLOCK order: a bucket that has refilled
+ * completely, or that was not used since the clock hand last passed it, is dropped; a
+ * recently used one gets a second chance. Eviction is amortized O(1) per new client.
+ */
+final class ClientRateLimiter {
+
+    private final double ratePerSecond;
+    private final int burst;
+    private final int maxClients;
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    // Guarded by this
+    private final ArrayDeque<Client> clock = new ArrayDeque<>();
+
+    ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.maxClients = Math.max(1, maxClients);
+    }
+
+    /**
+     * Take one token from the client's bucket.
+     *
+     * @param client   Client identifier
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if admitted, otherwise nanoseconds until the client may retry
+     */
+    long tryAcquire(String client, long nowNanos) {
+        Client known = clients.get(client);
+        if (known == null) {
+            known = admit(client, nowNanos);
+        } else if (!known.referenced) {
+            // Written only when clear, so busy clients do not dirty the cache line on every request
+            known.referenced = true;
+        }
+        return known.bucket.tryAcquire(nowNanos);
+    }
+
+    int clients() {
+        return clients.size();
+    }
+
+    private synchronized Client admit(String key, long nowNanos) {
+        Client client = clients.get(key);
+        if (client != null) {
+            return client;
+        }
+        while (clients.size() >= maxClients) {
+            evictOne(nowNanos);
+        }
+        client = new Client(key, new TokenBucket(ratePerSecond, burst, nowNanos));
+        clients.put(key, client);
+        clock.addLast(client);
+        return client;
+    }
+
+    private void evictOne(long nowNanos) {
+        Client candidate = clock.pollFirst();
+        if (candidate.referenced && !candidate.bucket.isIdle(nowNanos)) {
+            candidate.referenced = false;
+            clock.addLast(candidate);
+        } else {
+            clients.remove(candidate.key);
+        }
+    }
+
+    private static final class Client {
+
+        final String key;
+        final TokenBucket bucket;
+        volatile boolean referenced;
+
+        Client(String key, TokenBucket bucket) {
+            this.key = key;
+            this.bucket = bucket;
+        }
+    }
+}
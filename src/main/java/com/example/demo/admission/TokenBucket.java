@@ -0,0 +1,57 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its virtual scheduling form (GCRA).
+ * The whole state is the theoretical arrival time of the next request in one atomic long:
+ * each admitted request pushes it one emission interval into the future, and a request is
+ * rejected when that would put it more than the burst ahead of now.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond Sustained requests per second
+     * @param burst         Requests that may arrive at once after an idle period
+     * @param nowNanos      Current {@link System#nanoTime()}
+     */
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if admitted, otherwise nanoseconds until a token is available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long wait = start - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Check whether the bucket has refilled completely, so dropping it loses no state.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return true if the bucket is full
+     */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
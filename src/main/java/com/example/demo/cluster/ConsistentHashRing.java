@@ -0,0 +1,56 @@
+package com.example.demo.cluster;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring mapping entity IDs to nodes.
+ * Every node is placed on the ring at several virtual positions so ownership stays
+ * balanced and only about 1/N of the IDs move when a node joins or leaves.
+ */
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final List<String> nodes;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("Hash ring needs at least one node");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.put(mix((node + '#' + replica).hashCode() * 0x9E3779B97F4A7C15L), node);
+            }
+        }
+    }
+
+    /**
+     * Get the node owning an ID.
+     *
+     * @param id Entity ID
+     * @return Node URL
+     */
+    public String ownerOf(long id) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(mix(id));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * Get all nodes of the ring.
+     *
+     * @return Node URLs in configuration order
+     */
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    // Stafford variant 13 of the MurmurHash3 finalizer, spreads sequential IDs over the ring
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
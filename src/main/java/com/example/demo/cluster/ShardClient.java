@@ -0,0 +1,187 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationSummary;
+import com.example.demo.repository.SearchHit;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * HTTP client for the internal shard endpoints of peer nodes.
+ * Payloads travel as Smile to keep scatter-gather traffic compact; client errors of the
+ * peer surface as {@link IllegalArgumentException} carrying the peer's error message,
+ * like the local service would throw, and conflicts as {@link IllegalStateException}.
+ */
+public class ShardClient {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final ParameterizedTypeReference<List<Product>> PRODUCT_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    private static final ParameterizedTypeReference<List<SearchHit<Product>>> HIT_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestClient restClient;
+    private final ObjectMapper smileErrorReader = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper jsonErrorReader = new ObjectMapper();
+
+    public ShardClient(int connectTimeoutMillis, int readTimeoutMillis) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMillis));
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .defaultHeaders(headers -> headers.setAccept(List.of(SMILE, MediaType.APPLICATION_JSON)))
+                .defaultStatusHandler(HttpStatusCode::is4xxClientError, this::throwClientError)
+                .build();
+    }
+
+    public List<Product> findAll(String node) {
+        return restClient.get().uri(node + ShardController.BASE_PATH).retrieve().body(PRODUCT_LIST);
+    }
+
+    public Optional<Product> findById(String node, long id) {
+        try {
+            return Optional.ofNullable(restClient.get()
+                    .uri(node + ShardController.BASE_PATH + "/{id}", id)
+                    .retrieve()
+                    .body(Product.class));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public List<Product> findAllById(String node, List<Long> ids) {
+        return restClient.post().uri(node + ShardController.BASE_PATH + "/batch-get")
+                .contentType(SMILE).body(ids)
+                .retrieve().body(PRODUCT_LIST);
+    }
+
+    public List<Product> searchByName(String node, String name) {
+        return restClient.get()
+                .uri(node + ShardController.BASE_PATH + "/search?name={name}", name)
+                .retrieve().body(PRODUCT_LIST);
+    }
+
+    public List<SearchHit<Product>> search(String node, String query, int limit) {
+        return restClient.get()
+                .uri(node + ShardController.BASE_PATH + "/search/ranked?q={q}&limit={limit}", query, limit)
+                .retrieve().body(HIT_LIST);
+    }
+
+    public List<Product> findByPriceRange(String node, BigDecimal minPrice, BigDecimal maxPrice) {
+        return restClient.get()
+                .uri(node + ShardController.BASE_PATH + "/price?minPrice={min}&maxPrice={max}", minPrice, maxPrice)
+                .retrieve().body(PRODUCT_LIST);
+    }
+
+    public List<Product> findInStock(String node) {
+        return restClient.get().uri(node + ShardController.BASE_PATH + "/instock").retrieve().body(PRODUCT_LIST);
+    }
+
+    public long count(String node) {
+        Long count = restClient.get().uri(node + ShardController.BASE_PATH + "/count").retrieve().body(Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public Product create(String node, Product product) {
+        return restClient.post().uri(node + ShardController.BASE_PATH)
+                .contentType(SMILE).body(product)
+                .retrieve().body(Product.class);
+    }
+
+    public Product update(String node, long id, Product product) {
+        return restClient.put().uri(node + ShardController.BASE_PATH + "/{id}", id)
+                .contentType(SMILE).body(product)
+                .retrieve().body(Product.class);
+    }
+
+    public Product updateStock(String node, long id, int quantity) {
+        return restClient.patch().uri(node + ShardController.BASE_PATH + "/{id}/stock?quantity={quantity}", id, quantity)
+                .retrieve().body(Product.class);
+    }
+
+    public Reservation reserve(String node, long productId, int quantity, Long ttlSeconds) {
+        return restClient.post()
+                .uri(node + ShardController.BASE_PATH + "/{id}/reservations?quantity={quantity}"
+                        + (ttlSeconds == null ? "" : "&ttlSeconds=" + ttlSeconds), productId, quantity)
+                .retrieve().body(Reservation.class);
+    }
+
+    public Optional<Reservation> findReservation(String node, long productId, long reservationId) {
+        try {
+            return Optional.ofNullable(restClient.get()
+                    .uri(node + ShardController.BASE_PATH + "/{id}/reservations/{reservationId}", productId, reservationId)
+                    .retrieve()
+                    .body(Reservation.class));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Reservation confirmReservation(String node, long productId, long reservationId) {
+        return restClient.post()
+                .uri(node + ShardController.BASE_PATH + "/{id}/reservations/{reservationId}/confirm",
+                        productId, reservationId)
+                .retrieve().body(Reservation.class);
+    }
+
+    public Reservation releaseReservation(String node, long productId, long reservationId) {
+        return restClient.post()
+                .uri(node + ShardController.BASE_PATH + "/{id}/reservations/{reservationId}/release",
+                        productId, reservationId)
+                .retrieve().body(Reservation.class);
+    }
+
+    public ReservationSummary reservationSummary(String node) {
+        return restClient.get().uri(node + ShardController.BASE_PATH + "/reservations/summary")
+                .retrieve().body(ReservationSummary.class);
+    }
+
+    public boolean delete(String node, long id) {
+        Boolean deleted = restClient.delete().uri(node + ShardController.BASE_PATH + "/{id}", id)
+                .retrieve().body(Boolean.class);
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    private void throwClientError(HttpRequest request, ClientHttpResponse response)
+            throws IOException {
+        byte[] body = response.getBody().readAllBytes();
+        String message = response.getStatusText();
+        try {
+            MediaType contentType = response.getHeaders().getContentType();
+            JsonNode error = SMILE.includes(contentType)
+                    ? smileErrorReader.readTree(body)
+                    : jsonErrorReader.readTree(body);
+            if (error != null && error.hasNonNull("error")) {
+                message = error.get("error").asText();
+            }
+        } catch (IOException e) {
+            // Keep the status text when the peer sent no readable error body
+        }
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT)) {
+            throw new IllegalStateException(message);
+        }
+        throw new IllegalArgumentException(message);
+    }
+}
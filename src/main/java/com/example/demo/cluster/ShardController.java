@@ -0,0 +1,155 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationSummary;
+import com.example.demo.repository.SearchHit;
+import com.example.demo.service.ProductServiceImpl;
+import com.example.demo.service.QueryInterruptedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal REST Controller answering peer requests from this node's own partition.
+ * Always uses the local service, so forwarded requests are never forwarded again.
+ */
+@RestController
+@RequestMapping(ShardController.BASE_PATH)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardController {
+
+    static final String BASE_PATH = "/internal/shard/products";
+
+    private final ProductServiceImpl localProductService;
+
+    // Constructor-based dependency injection
+    public ShardController(ProductServiceImpl localProductService) {
+        this.localProductService = localProductService;
+    }
+
+    @GetMapping
+    public List<Product> getAllProducts() {
+        return localProductService.getAllProducts();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getProductById(@PathVariable Long id) {
+        return localProductService.getProductById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Product not found with id: " + id)));
+    }
+
+    @PostMapping("/batch-get")
+    public List<Product> getProductsByIds(@RequestBody List<Long> ids) {
+        return localProductService.getProductsByIds(ids);
+    }
+
+    @GetMapping("/search")
+    public List<Product> searchProducts(@RequestParam String name) {
+        return localProductService.searchProductsByName(name);
+    }
+
+    @GetMapping("/search/ranked")
+    public List<SearchHit<Product>> searchProductsRanked(@RequestParam String q, @RequestParam int limit) {
+        return localProductService.searchProducts(q, limit);
+    }
+
+    @GetMapping("/price")
+    public List<Product> getProductsByPriceRange(@RequestParam BigDecimal minPrice, @RequestParam BigDecimal maxPrice) {
+        return localProductService.getProductsByPriceRange(minPrice, maxPrice);
+    }
+
+    @GetMapping("/instock")
+    public List<Product> getInStockProducts() {
+        return localProductService.getInStockProducts();
+    }
+
+    @GetMapping("/count")
+    public long getProductCount() {
+        return localProductService.getProductCount();
+    }
+
+    @PostMapping
+    public Product createProduct(@RequestBody Product product) {
+        return localProductService.createProduct(product);
+    }
+
+    @PutMapping("/{id}")
+    public Product updateProduct(@PathVariable Long id, @RequestBody Product product) {
+        return localProductService.updateProduct(id, product);
+    }
+
+    @PatchMapping("/{id}/stock")
+    public Product updateStock(@PathVariable Long id, @RequestParam int quantity) {
+        return localProductService.updateStock(id, quantity);
+    }
+
+    @PostMapping("/{id}/reservations")
+    public Reservation reserveStock(@PathVariable Long id, @RequestParam int quantity,
+                                    @RequestParam(required = false) Long ttlSeconds) {
+        return localProductService.reserveStock(id, quantity, ttlSeconds);
+    }
+
+    @GetMapping("/{id}/reservations/{reservationId}")
+    public ResponseEntity<?> getReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        return localProductService.getReservation(id, reservationId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Reservation not found with id: " + reservationId)));
+    }
+
+    @PostMapping("/{id}/reservations/{reservationId}/confirm")
+    public Reservation confirmReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        return localProductService.confirmReservation(id, reservationId);
+    }
+
+    @PostMapping("/{id}/reservations/{reservationId}/release")
+    public Reservation releaseReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        return localProductService.releaseReservation(id, reservationId);
+    }
+
+    @GetMapping("/reservations/summary")
+    public ReservationSummary getReservationSummary() {
+        return localProductService.getReservationSummary();
+    }
+
+    @DeleteMapping("/{id}")
+    public boolean deleteProduct(@PathVariable Long id) {
+        return localProductService.deleteProduct(id);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(createErrorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalState(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(createErrorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(QueryInterruptedException.class)
+    public ResponseEntity<Map<String, String>> handleQueryInterrupted(QueryInterruptedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse(e.getMessage()));
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
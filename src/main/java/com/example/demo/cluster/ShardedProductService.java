@@ -0,0 +1,363 @@
+package com.example.demo.cluster;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationSummary;
+import com.example.demo.repository.ChangeSet;
+import com.example.demo.repository.SearchHit;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.ProductServiceImpl;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Product service for the sharded catalog.
+ * Product IDs are assigned to nodes by consistent hashing: single-product operations run
+ * on the owning node, either locally or forwarded to the peer, and queries are scattered
+ * to every node and merged into one sorted result capped at {@code app.sharding.max-results}.
+ * A capped result is a {@link TruncatedList}, which {@link TruncatedResultsAdvice} reports
+ * to the client in response headers.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardedProductService implements ProductService {
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+    private static final Comparator<Product> BY_PRICE = Comparator.comparing(Product::getPrice).thenComparing(BY_ID);
+    private static final Comparator<SearchHit<Product>> BY_SCORE = Comparator
+            .comparingDouble((SearchHit<Product> hit) -> -hit.score())
+            .thenComparing(SearchHit::item, BY_ID);
+
+    private final ProductServiceImpl localProductService;
+    private final ConsistentHashRing ring;
+    private final ShardClient shardClient;
+    private final String self;
+    private final int maxResults;
+    private final int maxBatchIds;
+    private final int nodeIndex;
+    // Time-seeded so IDs assigned by this node stay unique across restarts
+    private final AtomicLong idSequence = new AtomicLong(System.currentTimeMillis());
+    private final ExecutorService scatterExecutor;
+
+    // Constructor-based dependency injection
+    public ShardedProductService(ProductServiceImpl localProductService,
+                                 ConsistentHashRing ring,
+                                 ShardClient shardClient,
+                                 @Value("${app.sharding.self}") String self,
+                                 @Value("${app.sharding.max-results:10000}") int maxResults,
+                                 @Value("${app.batch.max-ids:1000}") int maxBatchIds) {
+        this.localProductService = localProductService;
+        this.ring = ring;
+        this.shardClient = shardClient;
+        this.self = self;
+        this.maxResults = maxResults;
+        this.maxBatchIds = maxBatchIds;
+        this.nodeIndex = ring.nodes().indexOf(self);
+        this.scatterExecutor = Executors.newFixedThreadPool(Math.max(2, ring.nodes().size() * 4), runnable -> {
+            Thread thread = new Thread(runnable, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return scatterGather(ProductService::getAllProducts, shardClient::findAll, BY_ID);
+    }
+
+    @Override
+    public Optional<Product> getProductById(Long id) {
+        String owner = ring.ownerOf(id);
+        return isSelf(owner) ? localProductService.getProductById(id) : shardClient.findById(owner, id);
+    }
+
+    @Override
+    public Product findProductById(long id) {
+        String owner = ring.ownerOf(id);
+        return isSelf(owner) ? localProductService.findProductById(id) : shardClient.findById(owner, id).orElse(null);
+    }
+
+    /**
+     * IDs are grouped by owning node, each group is fetched in one call per node and the
+     * results are put back into request order.
+     */
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids can be fetched at once");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Ids cannot contain null");
+        }
+        Map<String, List<Integer>> positionsByOwner = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positionsByOwner.computeIfAbsent(ring.ownerOf(ids.get(i)), node -> new ArrayList<>()).add(i);
+        }
+        List<String> owners = new ArrayList<>(positionsByOwner.keySet());
+        List<CompletableFuture<List<Product>>> partials = new ArrayList<>(owners.size());
+        for (String owner : owners) {
+            List<Long> ownedIds = new ArrayList<>();
+            for (int position : positionsByOwner.get(owner)) {
+                ownedIds.add(ids.get(position));
+            }
+            partials.add(isSelf(owner)
+                    ? CompletableFuture.completedFuture(localProductService.getProductsByIds(ownedIds))
+                    : CompletableFuture.supplyAsync(() -> shardClient.findAllById(owner, ownedIds), scatterExecutor));
+        }
+        List<List<Product>> results = join(partials);
+        List<Product> products = new ArrayList<>(Collections.nCopies(ids.size(), (Product) null));
+        for (int i = 0; i < owners.size(); i++) {
+            List<Integer> positions = positionsByOwner.get(owners.get(i));
+            List<Product> found = results.get(i);
+            for (int j = 0; j < positions.size(); j++) {
+                products.set(positions.get(j), found.get(j));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> searchProductsByName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return getAllProducts();
+        }
+        return scatterGather(local -> local.searchProductsByName(name),
+                node -> shardClient.searchByName(node, name), BY_ID);
+    }
+
+    /**
+     * Each node ranks its own partition with its own term statistics; the merged result
+     * orders hits by score, then by ID.
+     */
+    @Override
+    public List<SearchHit<Product>> searchProducts(String query, int limit) {
+        List<CompletableFuture<List<SearchHit<Product>>>> partials = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            if (!isSelf(node)) {
+                partials.add(CompletableFuture.supplyAsync(() -> shardClient.search(node, query, limit), scatterExecutor));
+            }
+        }
+        partials.add(CompletableFuture.completedFuture(localProductService.searchProducts(query, limit)));
+        List<SearchHit<Product>> merged = new ArrayList<>();
+        for (List<SearchHit<Product>> partial : join(partials)) {
+            merged.addAll(partial);
+        }
+        merged.sort(BY_SCORE);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @Override
+    public List<Product> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        BigDecimal min = minPrice == null ? BigDecimal.ZERO : minPrice;
+        BigDecimal max = maxPrice == null ? new BigDecimal("999999.99") : maxPrice;
+        if (min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        }
+        return scatterGather(local -> local.getProductsByPriceRange(min, max),
+                node -> shardClient.findByPriceRange(node, min, max), BY_PRICE);
+    }
+
+    @Override
+    public List<Product> getInStockProducts() {
+        return scatterGather(ProductService::getInStockProducts, shardClient::findInStock, BY_ID);
+    }
+
+    @Override
+    public Product createProduct(Product product) {
+        if (product.getId() == null) {
+            product.setId(idSequence.getAndIncrement() * ring.nodes().size() + nodeIndex + 1);
+        }
+        String owner = ring.ownerOf(product.getId());
+        return isSelf(owner) ? localProductService.createProduct(product) : shardClient.create(owner, product);
+    }
+
+    @Override
+    public Product updateProduct(Long id, Product product) {
+        String owner = ring.ownerOf(id);
+        return isSelf(owner) ? localProductService.updateProduct(id, product) : shardClient.update(owner, id, product);
+    }
+
+    @Override
+    public boolean deleteProduct(Long id) {
+        String owner = ring.ownerOf(id);
+        return isSelf(owner) ? localProductService.deleteProduct(id) : shardClient.delete(owner, id);
+    }
+
+    @Override
+    public Product updateStock(Long id, int quantity) {
+        String owner = ring.ownerOf(id);
+        return isSelf(owner) ? localProductService.updateStock(id, quantity)
+                : shardClient.updateStock(owner, id, quantity);
+    }
+
+    /**
+     * Reservations live on the node owning their product, and their IDs are only unique
+     * there, so every reservation call is routed by product ID.
+     */
+    @Override
+    public Reservation reserveStock(Long productId, int quantity, Long ttlSeconds) {
+        String owner = ring.ownerOf(productId);
+        return isSelf(owner) ? localProductService.reserveStock(productId, quantity, ttlSeconds)
+                : shardClient.reserve(owner, productId, quantity, ttlSeconds);
+    }
+
+    @Override
+    public Optional<Reservation> getReservation(Long productId, long reservationId) {
+        String owner = ring.ownerOf(productId);
+        return isSelf(owner) ? localProductService.getReservation(productId, reservationId)
+                : shardClient.findReservation(owner, productId, reservationId);
+    }
+
+    @Override
+    public Reservation confirmReservation(Long productId, long reservationId) {
+        String owner = ring.ownerOf(productId);
+        return isSelf(owner) ? localProductService.confirmReservation(productId, reservationId)
+                : shardClient.confirmReservation(owner, productId, reservationId);
+    }
+
+    @Override
+    public Reservation releaseReservation(Long productId, long reservationId) {
+        String owner = ring.ownerOf(productId);
+        return isSelf(owner) ? localProductService.releaseReservation(productId, reservationId)
+                : shardClient.releaseReservation(owner, productId, reservationId);
+    }
+
+    @Override
+    public ReservationSummary getReservationSummary() {
+        List<CompletableFuture<ReservationSummary>> summaries = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            summaries.add(isSelf(node)
+                    ? CompletableFuture.completedFuture(localProductService.getReservationSummary())
+                    : CompletableFuture.supplyAsync(() -> shardClient.reservationSummary(node), scatterExecutor));
+        }
+        long active = 0;
+        long units = 0;
+        for (ReservationSummary summary : join(summaries)) {
+            active += summary.activeReservations();
+            units += summary.reservedUnits();
+        }
+        return new ReservationSummary(active, units);
+    }
+
+    /**
+     * Modification sequences are per node, so delta sync covers this node's partition only.
+     */
+    @Override
+    public ChangeSet<Product> getProductChangesSince(long since, int limit) {
+        return localProductService.getProductChangesSince(since, limit);
+    }
+
+    @Override
+    public long getProductCount() {
+        List<CompletableFuture<Long>> counts = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            counts.add(isSelf(node)
+                    ? CompletableFuture.completedFuture(localProductService.getProductCount())
+                    : CompletableFuture.supplyAsync(() -> shardClient.count(node), scatterExecutor));
+        }
+        return join(counts).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scatterExecutor.shutdownNow();
+    }
+
+    private boolean isSelf(String node) {
+        return self.equals(node);
+    }
+
+    private List<Product> scatterGather(Function<ProductService, List<Product>> localQuery,
+                                        Function<String, List<Product>> remoteQuery,
+                                        Comparator<Product> order) {
+        List<CompletableFuture<List<Product>>> partials = new ArrayList<>();
+        for (String node : ring.nodes()) {
+            if (!isSelf(node)) {
+                partials.add(CompletableFuture.supplyAsync(() -> sorted(remoteQuery.apply(node), order), scatterExecutor));
+            }
+        }
+        // Query the local partition on the calling thread while peers work
+        partials.add(CompletableFuture.completedFuture(sorted(localQuery.apply(localProductService), order)));
+        return mergeTopK(join(partials), order, maxResults);
+    }
+
+    private static List<Product> sorted(List<Product> products, Comparator<Product> order) {
+        List<Product> copy = new ArrayList<>(products);
+        copy.sort(order);
+        return copy;
+    }
+
+    /**
+     * K-way merge of sorted partitions, stopping after {@code limit} products.
+     *
+     * @return The merged products, as a {@link TruncatedList} if products were left over
+     */
+    private static List<Product> mergeTopK(List<List<Product>> partitions, Comparator<Product> order, int limit) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> order.compare(a.head, b.head));
+        for (List<Product> partition : partitions) {
+            Iterator<Product> iterator = partition.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Cursor(iterator.next(), iterator));
+            }
+        }
+        List<Product> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head);
+            if (cursor.rest.hasNext()) {
+                cursor.head = cursor.rest.next();
+                heads.add(cursor);
+            }
+        }
+        return heads.isEmpty() ? merged : new TruncatedList<>(merged, limit);
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    private static final class Cursor {
+        private Product head;
+        private final Iterator<Product> rest;
+
+        private Cursor(Product head, Iterator<Product> rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+    }
+}
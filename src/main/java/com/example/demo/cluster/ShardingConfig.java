@@ -0,0 +1,34 @@
+package com.example.demo.cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration of the sharded product catalog.
+ * Active only with {@code app.sharding.enabled=true}; every node lists the same
+ * {@code app.sharding.nodes} and names itself in {@code app.sharding.self}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ConsistentHashRing consistentHashRing(@Value("${app.sharding.nodes}") List<String> nodes,
+                                                 @Value("${app.sharding.self}") String self,
+                                                 @Value("${app.sharding.virtual-nodes:128}") int virtualNodes) {
+        if (!nodes.contains(self)) {
+            throw new IllegalStateException("app.sharding.self must be one of app.sharding.nodes: " + self);
+        }
+        return new ConsistentHashRing(nodes, virtualNodes);
+    }
+
+    @Bean
+    public ShardClient shardClient(@Value("${app.sharding.connect-timeout-ms:1000}") int connectTimeoutMillis,
+                                   @Value("${app.sharding.read-timeout-ms:5000}") int readTimeoutMillis) {
+        return new ShardClient(connectTimeoutMillis, readTimeoutMillis);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.cluster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Merged query result that was cut off at a limit, with more matches left on the nodes.
+ */
+public class TruncatedList<E> extends ArrayList<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int limit;
+
+    TruncatedList(Collection<? extends E> items, int limit) {
+        super(items);
+        this.limit = limit;
+    }
+
+    /**
+     * @return Maximum number of items the result was cut off at
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks responses whose merged product list was capped at {@code app.sharding.max-results}
+ * with {@code X-Results-Truncated: true} and the cap in {@code X-Results-Limit}.
+ * Runs before other advice, which may wrap the list.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class TruncatedResultsAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String TRUNCATED_HEADER = "X-Results-Truncated";
+    static final String LIMIT_HEADER = "X-Results-Limit";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof TruncatedList<?> truncated) {
+            response.getHeaders().set(TRUNCATED_HEADER, "true");
+            response.getHeaders().set(LIMIT_HEADER, Integer.toString(truncated.getLimit()));
+        }
+        return body;
+    }
+}
@@ -1,16 +1,59 @@
 package com.example.demo.config;
 
+import com.example.demo.admission.AdmissionControlInterceptor;
+import com.example.demo.events.EntityChange;
+import com.example.demo.replication.ReplicaReadOnlyInterceptor;
+import com.example.demo.replication.ReplicationFrame;
+import com.example.demo.replication.ReplicationReplica;
+import com.example.demo.repository.ChangeSet;
+import com.example.demo.web.CompressedResponseCacheFilter;
+import com.example.demo.web.CompressedResponseCacheInterceptor;
+import com.example.demo.web.PreSerializedJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * Application configuration class.
  * Demonstrates the use of @Configuration annotation.
+ * Types serialized outside of controller signatures are registered for reflection
+ * so they survive AOT processing and native images.
  */
 @Configuration
+@RegisterReflectionForBinding({EntityChange.class, ChangeSet.class, ReplicationFrame.class})
 public class AppConfig implements WebMvcConfigurer {
 
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+    private final ObjectProvider<ReplicationReplica> replica;
+    private final ObjectProvider<AdmissionControlInterceptor> admissionControl;
+    private final ObjectProvider<CompressedResponseCacheFilter> compressedResponseCache;
+
+    // Constructor-based dependency injection
+    public AppConfig(ObjectMapper objectMapper,
+                     ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders,
+                     ObjectProvider<ReplicationReplica> replica,
+                     ObjectProvider<AdmissionControlInterceptor> admissionControl,
+                     ObjectProvider<CompressedResponseCacheFilter> compressedResponseCache) {
+        this.objectMapper = objectMapper;
+        this.objectMapperBuilders = objectMapperBuilders;
+        this.replica = replica;
+        this.admissionControl = admissionControl;
+        this.compressedResponseCache = compressedResponseCache;
+    }
+
     /**
      * Configure CORS for the application.
      * Allows cross-origin requests from any origin for development purposes.
@@ -24,4 +67,40 @@ public class AppConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .maxAge(3600);
     }
+
+    /**
+     * Shed excess load per endpoint class first, then, on a read replica, reject writes
+     * and stale reads of the API. Only requests that pass both are answered from the
+     * compressed response cache.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        admissionControl.orderedStream().forEach(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns(interceptor.pathPatterns())
+                .excludePathPatterns(interceptor.excludedPathPatterns()));
+        replica.ifAvailable(node -> registry.addInterceptor(new ReplicaReadOnlyInterceptor(node))
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/replication/**", "/api/admin/**", "/api/standing-queries/**", "/api/hello"));
+        compressedResponseCache.ifAvailable(cache -> registry.addInterceptor(new CompressedResponseCacheInterceptor(cache))
+                .addPathPatterns("/api/**"));
+    }
+
+    /**
+     * Serve products and users from their pre-serialized JSON form.
+     * Registered first so it takes precedence over the reflective Jackson converter.
+     * Smile and CBOR are negotiated through the Accept header for service-to-service
+     * callers; their mappers are built from the application's Jackson builder so they
+     * share the JSON mapper's configuration.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new PreSerializedJsonHttpMessageConverter(objectMapper));
+
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new SmileFactory()).build()));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new CBORFactory()).build()));
+    }
 }
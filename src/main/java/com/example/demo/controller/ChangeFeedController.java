@@ -0,0 +1,128 @@
+package com.example.demo.controller;
+
+import com.example.demo.events.ChangeFeed;
+import com.example.demo.events.EntityChange;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * REST Controller streaming repository mutations as Server-Sent Events.
+ * Each event carries its feed sequence as the event id, so clients resume with
+ * {@code Last-Event-ID} (or {@code since}) instead of re-pulling the catalog.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long POLL_MILLIS = 1000;
+
+    private final ChangeFeed changeFeed;
+    private final long streamTimeoutMillis;
+    private final Semaphore subscriberSlots;
+    private final ExecutorService streamExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor-based dependency injection
+    public ChangeFeedController(ChangeFeed changeFeed,
+                                @Value("${app.changefeed.stream-timeout-ms:300000}") long streamTimeoutMillis,
+                                @Value("${app.changefeed.max-subscribers:64}") int maxSubscribers) {
+        this.changeFeed = changeFeed;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.subscriberSlots = new Semaphore(maxSubscribers);
+    }
+
+    /**
+     * GET /api/changes?since={sequence} - Stream changes after a sequence number.
+     * Without a starting point only changes published from now on are sent.
+     * A "reset" event signals that the requested changes were already overwritten
+     * and the client must resynchronize from a full read.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        if (!subscriberSlots.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+
+        long start = lastEventId != null ? lastEventId : since != null ? since : changeFeed.headSequence();
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+
+        streamExecutor.execute(() -> {
+            try {
+                stream(emitter, open, start);
+            } finally {
+                subscriberSlots.release();
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean open, long start) {
+        long cursor = start;
+        try {
+            while (open.get()) {
+                ChangeFeed.ChangeBatch batch = changeFeed.read(cursor, BATCH_SIZE);
+                if (batch.truncated()) {
+                    emitter.send(SseEmitter.event().name("reset")
+                            .data(createResetEvent(cursor, changeFeed.headSequence())));
+                }
+                for (EntityChange change : batch.changes()) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.sequence()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                    cursor = change.sequence();
+                }
+                if (batch.changes().isEmpty()) {
+                    changeFeed.awaitAfter(cursor, POLL_MILLIS);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * Helper method to create the payload of a reset event
+     */
+    private Map<String, Object> createResetEvent(long requestedSequence, long headSequence) {
+        Map<String, Object> reset = new HashMap<>();
+        reset.put("message", "Changes after the requested sequence are no longer available");
+        reset.put("requestedSequence", requestedSequence);
+        reset.put("headSequence", headSequence);
+        return reset;
+    }
+}
@@ -1,12 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.JsonCacheable;
+import com.example.demo.model.NotFound;
 import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.repository.ChangeSet;
+import com.example.demo.repository.SearchHit;
 import com.example.demo.service.ProductService;
+import com.example.demo.service.QueryInterruptedException;
+import com.example.demo.web.SparseFieldsets;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,9 +26,16 @@ import java.util.Map;
  * Demonstrates constructor-based dependency injection.
  */
 @RestController
+@SparseFieldsets(Product.class)
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_CHANGES_LIMIT = 10000;
+
+    // Immutable response shared by every malformed by-ID request
+    private static final ResponseEntity<?> INVALID_PRODUCT_ID = ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(Map.of("error", "Product id must be a number"));
+
     private final ProductService productService;
 
     // Constructor-based dependency injection
@@ -35,25 +52,78 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET /api/products?ids=1,2,3 - Get many products by ID, in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<JsonCacheable>> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(NotFound.markMissing(ids, productService.getProductsByIds(ids)));
+    }
+
+    /**
+     * POST /api/products/batch-get - Get many products by ID from a JSON array body, in request order
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<JsonCacheable>> batchGetProducts(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(NotFound.markMissing(ids, productService.getProductsByIds(ids)));
+    }
+
     /**
      * GET /api/products/{id} - Get product by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(createErrorResponse("Product not found with id: " + id)));
+    public ResponseEntity<?> getProductById(@PathVariable String id) {
+        // Parsed here rather than bound as Long to keep the lookup free of boxing
+        long productId;
+        try {
+            productId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return INVALID_PRODUCT_ID;
+        }
+        Product product = productService.findProductById(productId);
+        if (product == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Product not found with id: " + productId));
+        }
+        return ResponseEntity.ok(product);
+    }
+
+    /**
+     * GET /api/products/changes?since={sequence} - Get products changed after a sequence
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getProductChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            ChangeSet<Product> changes = productService.getProductChangesSince(since, Math.min(limit, MAX_CHANGES_LIMIT));
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        }
     }
 
     /**
      * GET /api/products/search?name={name} - Search products by name
+     * GET /api/products/search?q={terms} - Full-text search, most relevant first
      */
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProducts(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        // A full-text query ranks name and description matches by relevance
+        if (q != null) {
+            List<Product> products = new ArrayList<>();
+            for (SearchHit<Product> hit : productService.searchProducts(q, limit)) {
+                products.add(hit.item());
+            }
+            return ResponseEntity.ok(products);
+        }
 
         // If price range is specified, search by price
         if (minPrice != null || maxPrice != null) {
@@ -117,6 +187,66 @@ public class ProductController {
         }
     }
 
+    /**
+     * POST /api/products/{id}/reservations - Hold stock for a checkout
+     */
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<?> reserveStock(@PathVariable Long id,
+                                          @RequestParam int quantity,
+                                          @RequestParam(required = false) Long ttlSeconds) {
+        try {
+            Reservation reservation = productService.reserveStock(id, quantity, ttlSeconds);
+            return ResponseEntity.created(URI.create("/api/products/" + id + "/reservations/" + reservation.id()))
+                    .body(reservation);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/products/{id}/reservations/{reservationId} - Get reservation status
+     */
+    @GetMapping("/{id}/reservations/{reservationId}")
+    public ResponseEntity<?> getReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        return productService.getReservation(id, reservationId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Reservation not found with id: " + reservationId)));
+    }
+
+    /**
+     * POST /api/products/{id}/reservations/{reservationId}/confirm - Sell the held stock
+     */
+    @PostMapping("/{id}/reservations/{reservationId}/confirm")
+    public ResponseEntity<?> confirmReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        try {
+            return ResponseEntity.ok(productService.confirmReservation(id, reservationId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/products/{id}/reservations/{reservationId}/release - Return the held stock
+     */
+    @PostMapping("/{id}/reservations/{reservationId}/release")
+    public ResponseEntity<?> releaseReservation(@PathVariable Long id, @PathVariable long reservationId) {
+        try {
+            return ResponseEntity.ok(productService.releaseReservation(id, reservationId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * DELETE /api/products/{id} - Delete a product
      */
@@ -134,6 +264,25 @@ public class ProductController {
         }
     }
 
+    /**
+     * Invalid arguments to list endpoints, which keep a typed List signature so their
+     * bodies are written from the cached entity JSON
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(createErrorResponse(e.getMessage()));
+    }
+
+    /**
+     * A request interrupted while waiting for a coalesced query; nothing failed, so it can be retried
+     */
+    @ExceptionHandler(QueryInterruptedException.class)
+    public ResponseEntity<Map<String, String>> handleQueryInterrupted(QueryInterruptedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse(e.getMessage()));
+    }
+
     /**
      * Helper method to create error response
      */
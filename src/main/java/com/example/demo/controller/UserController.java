@@ -1,7 +1,13 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.JsonCacheable;
+import com.example.demo.model.NotFound;
 import com.example.demo.model.User;
+import com.example.demo.repository.ChangeSet;
+import com.example.demo.service.QueryInterruptedException;
 import com.example.demo.service.UserService;
+import com.example.demo.web.SparseFieldsets;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,9 +21,16 @@ import java.util.Map;
  * Demonstrates constructor-based dependency injection.
  */
 @RestController
+@SparseFieldsets(User.class)
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int MAX_CHANGES_LIMIT = 10000;
+
+    // Immutable response shared by every malformed by-ID request
+    private static final ResponseEntity<?> INVALID_USER_ID = ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body(Map.of("error", "User id must be a number"));
+
     private final UserService userService;
 
     // Constructor-based dependency injection
@@ -34,15 +47,56 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/users?ids=1,2,3 - Get many users by ID, in request order
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<JsonCacheable>> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(NotFound.markMissing(ids, userService.getUsersByIds(ids)));
+    }
+
+    /**
+     * POST /api/users/batch-get - Get many users by ID from a JSON array body, in request order
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<JsonCacheable>> batchGetUsers(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(NotFound.markMissing(ids, userService.getUsersByIds(ids)));
+    }
+
     /**
      * GET /api/users/{id} - Get user by ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable Long id) {
-        return userService.getUserById(id)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(createErrorResponse("User not found with id: " + id)));
+    public ResponseEntity<?> getUserById(@PathVariable String id) {
+        // Parsed here rather than bound as Long to keep the lookup free of boxing
+        long userId;
+        try {
+            userId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return INVALID_USER_ID;
+        }
+        User user = userService.findUserById(userId);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("User not found with id: " + userId));
+        }
+        return ResponseEntity.ok(user);
+    }
+
+    /**
+     * GET /api/users/changes?since={sequence} - Get users changed after a sequence
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getUserChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            ChangeSet<User> changes = userService.getUserChangesSince(since, Math.min(limit, MAX_CHANGES_LIMIT));
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        }
     }
 
     /**
@@ -110,6 +164,25 @@ public class UserController {
         }
     }
 
+    /**
+     * Invalid arguments to list endpoints, which keep a typed List signature so their
+     * bodies are written from the cached entity JSON
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(createErrorResponse(e.getMessage()));
+    }
+
+    /**
+     * A request interrupted while waiting for a coalesced query; nothing failed, so it can be retried
+     */
+    @ExceptionHandler(QueryInterruptedException.class)
+    public ResponseEntity<Map<String, String>> handleQueryInterrupted(QueryInterruptedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createErrorResponse(e.getMessage()));
+    }
+
     /**
      * Helper method to create error response
      */
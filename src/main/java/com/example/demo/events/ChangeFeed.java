@@ -0,0 +1,152 @@
+package com.example.demo.events;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.MemoryFootprintSource;
+import com.example.demo.footprint.StructureFootprint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process feed of repository mutations backed by a lock-free ring buffer.
+ * Producers claim a sequence number with a single atomic increment and publish into the
+ * matching slot; readers walk forward from a sequence and stop at the first slot not yet
+ * published. The buffer keeps the most recent {@code capacity} changes, older ones are
+ * overwritten and reported to readers as a gap.
+ */
+@Component
+public class ChangeFeed implements MemoryFootprintSource {
+
+    // EntityChange with its boxed ID
+    private static final long CHANGE_BYTES = MemoryEstimates.object(Long.BYTES + 4 * MemoryEstimates.REFERENCE)
+            + MemoryEstimates.object(Long.BYTES);
+
+    private final AtomicReferenceArray<EntityChange> slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final Object signal = new Object();
+
+    public ChangeFeed(@Value("${app.changefeed.capacity:65536}") int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Publish a mutation.
+     *
+     * @param entityType Type of the mutated entity
+     * @param type       Upsert or delete
+     * @param id         Entity ID
+     * @param entity     Entity after the mutation, or null when deleted
+     * @return Published change with its assigned sequence number
+     */
+    public EntityChange publish(EntityType entityType, ChangeType type, Long id, Object entity) {
+        long sequence = cursor.incrementAndGet();
+        EntityChange change = new EntityChange(sequence, entityType, type, id, entity);
+        slots.set(index(sequence), change);
+        if (waiters.get() > 0) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+        return change;
+    }
+
+    /**
+     * Read published changes following a sequence number.
+     *
+     * @param afterSequence Last sequence already seen by the reader, 0 to start from the beginning
+     * @param maxChanges    Maximum number of changes to return
+     * @return Batch of consecutive changes, flagged as truncated if some were already overwritten
+     */
+    public ChangeBatch read(long afterSequence, int maxChanges) {
+        long head = cursor.get();
+        long oldest = Math.max(1, head - slots.length() + 1);
+        boolean truncated = afterSequence + 1 < oldest;
+        long next = truncated ? oldest : afterSequence + 1;
+
+        List<EntityChange> changes = new ArrayList<>((int) Math.min(maxChanges, Math.max(0, head - next + 1)));
+        while (next <= head && changes.size() < maxChanges) {
+            EntityChange change = slots.get(index(next));
+            if (change == null || change.sequence() < next) {
+                // Claimed but not yet published
+                break;
+            }
+            if (change.sequence() > next) {
+                // Overwritten by a producer that lapped us while reading
+                return read(afterSequence, maxChanges);
+            }
+            changes.add(change);
+            next++;
+        }
+        return new ChangeBatch(truncated, changes);
+    }
+
+    /**
+     * Wait until a change following the given sequence is claimed or the timeout elapses.
+     *
+     * @param afterSequence Last sequence already seen by the caller
+     * @param timeoutMillis Maximum time to wait
+     * @return true if newer changes exist
+     */
+    public boolean awaitAfter(long afterSequence, long timeoutMillis) throws InterruptedException {
+        if (cursor.get() > afterSequence) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (signal) {
+            waiters.incrementAndGet();
+            try {
+                long remaining = timeoutMillis;
+                while (cursor.get() <= afterSequence && remaining > 0) {
+                    signal.wait(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+        return cursor.get() > afterSequence;
+    }
+
+    /**
+     * Get the sequence number of the most recently claimed change.
+     *
+     * @return Head sequence, 0 if nothing was published
+     */
+    public long headSequence() {
+        return cursor.get();
+    }
+
+    /**
+     * The ring and the changes in it. Entities referenced by changes are counted with their
+     * repository; an entity deleted or replaced since stays reachable until its slot is reused.
+     */
+    @Override
+    public List<StructureFootprint> footprint() {
+        long filled = Math.min(cursor.get(), slots.length());
+        long bytes = MemoryEstimates.object(MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(slots.length(), MemoryEstimates.REFERENCE) + filled * CHANGE_BYTES;
+        return List.of(StructureFootprint.heap("change-feed", filled, bytes, (double) filled / slots.length()));
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    /**
+     * Result of a feed read.
+     *
+     * @param truncated True if changes right after the requested sequence were already overwritten
+     * @param changes   Consecutive changes in sequence order
+     */
+    public record ChangeBatch(boolean truncated, List<EntityChange> changes) {
+    }
+}
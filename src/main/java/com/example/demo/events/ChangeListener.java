@@ -0,0 +1,19 @@
+package com.example.demo.events;
+
+import java.util.List;
+
+/**
+ * Receives batches of repository changes from the write pipeline.
+ * Beans implementing this interface are registered automatically. Callbacks run on the
+ * pipeline's single writer thread, in sequence order, so implementations need no locking
+ * for their own state but must not block.
+ */
+public interface ChangeListener {
+
+    /**
+     * Handle a batch of changes.
+     *
+     * @param changes Changes in sequence order
+     */
+    void onChanges(List<EntityChange> changes);
+}
@@ -0,0 +1,9 @@
+package com.example.demo.events;
+
+/**
+ * Kind of mutation recorded in the change feed.
+ */
+public enum ChangeType {
+    UPSERT,
+    DELETE
+}
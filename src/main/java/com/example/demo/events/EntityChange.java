@@ -0,0 +1,15 @@
+package com.example.demo.events;
+
+/**
+ * A single mutation published to the change feed.
+ * The entity is the live instance, so consumers observe a state at least as new as the change;
+ * it is null for deletions.
+ *
+ * @param sequence   Position in the feed, strictly increasing
+ * @param entityType Type of the mutated entity
+ * @param type       Upsert or delete
+ * @param id         Entity ID
+ * @param entity     Entity after the mutation, or null when deleted
+ */
+public record EntityChange(long sequence, EntityType entityType, ChangeType type, Long id, Object entity) {
+}
@@ -0,0 +1,9 @@
+package com.example.demo.events;
+
+/**
+ * Entity types whose mutations are published to the change feed.
+ */
+public enum EntityType {
+    PRODUCT,
+    USER
+}
@@ -0,0 +1,216 @@
+package com.example.demo.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Write-behind pipeline for everything derived from repository mutations.
+ * Request threads apply the authoritative change to the repository map and then only
+ * enqueue the entity id. A single writer thread drains the bounded queue in batches,
+ * re-reads the current state of each id, publishes it to the {@link ChangeFeed} and hands
+ * the batch to every {@link ChangeListener}. Because state is re-read at apply time, the
+ * derived structures converge on the repository contents regardless of enqueue order, and
+ * repeated writes to one id within a batch collapse into a single change.
+ * Producers block when the queue is full.
+ */
+@Component
+@Lazy(false)
+public class MutationPipeline implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(MutationPipeline.class);
+
+    private final ChangeFeed changeFeed;
+    private final ObjectProvider<ChangeListener> beanListeners;
+    private final BlockingQueue<Mutation> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    // Repositories may register after the writer started when beans are initialized lazily
+    private final Map<EntityType, Function<Long, Object>> resolvers = new ConcurrentHashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final Counter batches;
+    private final Counter applied;
+    private final Counter stalls;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public MutationPipeline(ChangeFeed changeFeed,
+                            ObjectProvider<ChangeListener> beanListeners,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.pipeline.queue-capacity:65536}") int queueCapacity,
+                            @Value("${app.pipeline.batch-size:256}") int batchSize,
+                            @Value("${app.pipeline.linger-ms:2}") long lingerMillis) {
+        this.changeFeed = changeFeed;
+        this.beanListeners = beanListeners;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+
+        Gauge.builder("app.pipeline.queue.depth", queue, BlockingQueue::size)
+                .description("Mutations waiting for the write pipeline")
+                .register(meterRegistry);
+        Gauge.builder("app.pipeline.queue.capacity", queue, q -> q.size() + q.remainingCapacity())
+                .register(meterRegistry);
+        this.batches = Counter.builder("app.pipeline.batches").register(meterRegistry);
+        this.applied = Counter.builder("app.pipeline.changes").register(meterRegistry);
+        this.stalls = Counter.builder("app.pipeline.backpressure.stalls")
+                .description("Enqueue attempts that had to wait for free capacity")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::run, "mutation-pipeline");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Register how the writer thread reads the current state of an entity type.
+     *
+     * @param entityType Entity type owned by the caller
+     * @param resolver   Lookup returning the current entity, or null if deleted
+     */
+    public void registerResolver(EntityType entityType, Function<Long, Object> resolver) {
+        resolvers.put(entityType, resolver);
+    }
+
+    /**
+     * Register a listener that is not a Spring bean, such as a repository's own index.
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Enqueue a mutation that has already been applied to the repository.
+     * Blocks while the queue is full.
+     *
+     * @param entityType Type of the mutated entity
+     * @param id         Entity ID
+     */
+    public void submit(EntityType entityType, Long id) {
+        Mutation mutation = new Mutation(entityType, id);
+        if (queue.offer(mutation)) {
+            return;
+        }
+        stalls.increment();
+        try {
+            queue.put(mutation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write pipeline", e);
+        }
+    }
+
+    /**
+     * Get the number of mutations waiting to be applied.
+     *
+     * @return Queue depth
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Start the writer once all singletons exist, so bean listeners see every change,
+     * including the sample data saved by repository constructors. The pipeline is never
+     * lazy, otherwise this callback would not run.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        beanListeners.orderedStream().forEach(listeners::add);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void run() {
+        List<Mutation> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Mutation first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+            } catch (InterruptedException e) {
+                // Shutdown requested: drain what is left without lingering
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                apply(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fill(List<Mutation> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Mutation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void apply(List<Mutation> batch) {
+        // Collapse repeated writes to the same entity, keeping the latest position
+        Map<Mutation, Boolean> distinct = new LinkedHashMap<>();
+        for (Mutation mutation : batch) {
+            distinct.remove(mutation);
+            distinct.put(mutation, Boolean.TRUE);
+        }
+
+        List<EntityChange> changes = new ArrayList<>(distinct.size());
+        for (Mutation mutation : distinct.keySet()) {
+            Object entity = resolvers.get(mutation.entityType()).apply(mutation.id());
+            ChangeType type = entity == null ? ChangeType.DELETE : ChangeType.UPSERT;
+            changes.add(changeFeed.publish(mutation.entityType(), type, mutation.id(), entity));
+        }
+
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChanges(changes);
+            } catch (RuntimeException e) {
+                log.error("Change listener {} failed", listener, e);
+            }
+        }
+        batches.increment();
+        applied.increment(changes.size());
+    }
+
+    private record Mutation(EntityType entityType, Long id) {
+    }
+}
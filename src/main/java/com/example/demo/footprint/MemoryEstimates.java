@@ -0,0 +1,105 @@
+package com.example.demo.footprint;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+
+import java.math.BigDecimal;
+
+/**
+ * Shallow and entity sizes for a 64-bit JVM with compressed references: 12-byte object
+ * headers, 16-byte array headers, 4-byte references and 8-byte alignment, the defaults
+ * for heaps under 32 GB. Strings are assumed compact, one byte per Latin-1 character.
+ * Entity sizes include the entity's JSON snapshot, which is built on its first read.
+ */
+public final class MemoryEstimates {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+
+    private static final long BOXED_INT = object(Integer.BYTES);
+    private static final long BOXED_LONG = object(Long.BYTES);
+    // CachedJson, its snapshot record and the snapshot's array header
+    private static final long CACHED_JSON = object(REFERENCE + 4) + object(REFERENCE + 4);
+    // Quotes, colons, commas and braces around the property names of each entity
+    private static final int PRODUCT_JSON_FRAME = 88;
+    private static final int USER_JSON_FRAME = 32;
+
+    private MemoryEstimates() {
+    }
+
+    public static long object(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    public static long array(long length, int elementBytes) {
+        return align(ARRAY_HEADER + length * elementBytes);
+    }
+
+    public static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        // value array reference, hash, coder and hashIsZero, then the array
+        return object(REFERENCE + 4 + 1 + 1) + array(value.length(), isLatin1(value) ? 1 : 2);
+    }
+
+    /**
+     * Size of a boxed {@code Long} or {@code Integer}; small values come from the JDK's cache.
+     */
+    public static long boxed(Number value) {
+        if (value == null || (value.longValue() >= -128 && value.longValue() <= 127)) {
+            return 0;
+        }
+        return value instanceof Long ? BOXED_LONG : BOXED_INT;
+    }
+
+    public static long bigDecimal(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        // intVal, scale, precision, intCompact and stringCache, which serializing fills in
+        long size = object(REFERENCE + 4 + 4 + 8 + REFERENCE) + string(value.toString());
+        if (value.unscaledValue().bitLength() > 63) {
+            size += object(4 + REFERENCE + 16) + array((value.unscaledValue().bitLength() + 31) / 32, 4);
+        }
+        return size;
+    }
+
+    public static int product(Product product) {
+        long json = PRODUCT_JSON_FRAME + jsonLength(product.getName()) + jsonLength(product.getDescription())
+                + digits(product.getId()) + (product.getPrice() == null ? 4 : product.getPrice().toString().length())
+                + digits(product.getStock()) + digits(product.getReserved()) + digits(product.getAvailable());
+        return Math.toIntExact(object(6 * REFERENCE + 4) + boxed(product.getId()) + string(product.getName())
+                + string(product.getDescription()) + bigDecimal(product.getPrice()) + boxed(product.getStock())
+                + CACHED_JSON + array(json, 1));
+    }
+
+    public static int user(User user) {
+        long json = USER_JSON_FRAME + digits(user.getId()) + jsonLength(user.getName())
+                + jsonLength(user.getEmail()) + jsonLength(user.getRole());
+        return Math.toIntExact(object(5 * REFERENCE) + boxed(user.getId()) + string(user.getName())
+                + string(user.getEmail()) + string(user.getRole()) + CACHED_JSON + array(json, 1));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static boolean isLatin1(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int jsonLength(String value) {
+        return value == null ? 4 : value.length() + 2;
+    }
+
+    private static int digits(Number value) {
+        return value == null ? 4 : value.toString().length();
+    }
+}
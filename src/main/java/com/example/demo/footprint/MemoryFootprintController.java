@@ -0,0 +1,29 @@
+package com.example.demo.footprint;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller reporting estimated memory use per repository, index and cache.
+ */
+@RestController
+@RequestMapping("/api/admin/memory")
+public class MemoryFootprintController {
+
+    private final MemoryFootprintService memoryFootprintService;
+
+    // Constructor-based dependency injection
+    public MemoryFootprintController(MemoryFootprintService memoryFootprintService) {
+        this.memoryFootprintService = memoryFootprintService;
+    }
+
+    /**
+     * GET /api/admin/memory - Get estimated memory use per structure
+     */
+    @GetMapping
+    public ResponseEntity<MemoryReport> getMemoryReport() {
+        return ResponseEntity.ok(memoryFootprintService.report());
+    }
+}
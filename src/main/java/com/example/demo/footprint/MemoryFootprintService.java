@@ -0,0 +1,78 @@
+package com.example.demo.footprint;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Collects memory estimates from every {@link MemoryFootprintSource} bean.
+ * Each structure is also exposed as {@code app.memory.*} gauges tagged with its name,
+ * so estimates can be tracked over time and compared across releases.
+ */
+@Service
+public class MemoryFootprintService {
+
+    private final List<MemoryFootprintSource> sources;
+
+    // Constructor-based dependency injection
+    public MemoryFootprintService(List<MemoryFootprintSource> sources, MeterRegistry meterRegistry) {
+        this.sources = sources;
+        for (MemoryFootprintSource source : sources) {
+            for (StructureFootprint structure : source.footprint()) {
+                String name = structure.name();
+                String area = structure.offHeap() ? "off-heap" : "heap";
+                register(meterRegistry, "app.memory.retained.bytes", source, name, area,
+                        StructureFootprint::retainedBytes);
+                register(meterRegistry, "app.memory.entries", source, name, area, StructureFootprint::entries);
+                register(meterRegistry, "app.memory.bytes.per.entry", source, name, area,
+                        StructureFootprint::bytesPerEntry);
+                register(meterRegistry, "app.memory.load.factor", source, name, area,
+                        footprint -> footprint.loadFactor() == null ? Double.NaN : footprint.loadFactor());
+            }
+        }
+    }
+
+    /**
+     * Estimate every structure now.
+     *
+     * @return Estimates and the JVM's current heap usage
+     */
+    public MemoryReport report() {
+        List<StructureFootprint> structures = new ArrayList<>();
+        for (MemoryFootprintSource source : sources) {
+            structures.addAll(source.footprint());
+        }
+        long heapBytes = 0;
+        long offHeapBytes = 0;
+        for (StructureFootprint structure : structures) {
+            if (structure.offHeap()) {
+                offHeapBytes += structure.retainedBytes();
+            } else {
+                heapBytes += structure.retainedBytes();
+            }
+        }
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new MemoryReport(structures, heapBytes, offHeapBytes, heap.getUsed(), heap.getCommitted(), heap.getMax());
+    }
+
+    private static void register(MeterRegistry meterRegistry, String meter, MemoryFootprintSource source,
+                                 String name, String area, ToDoubleFunction<StructureFootprint> value) {
+        Gauge.builder(meter, source, s -> {
+                    for (StructureFootprint structure : s.footprint()) {
+                        if (structure.name().equals(name)) {
+                            return value.applyAsDouble(structure);
+                        }
+                    }
+                    return Double.NaN;
+                })
+                .tag("structure", name)
+                .tag("area", area)
+                .register(meterRegistry);
+    }
+}
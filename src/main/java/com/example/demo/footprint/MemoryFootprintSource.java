@@ -0,0 +1,15 @@
+package com.example.demo.footprint;
+
+import java.util.List;
+
+/**
+ * A bean owning in-memory structures whose size is worth reporting.
+ * Beans implementing this interface are picked up by {@link MemoryFootprintService}.
+ * Implementations answer from sizes they track as they change rather than by walking
+ * their entries, unless the entries are few and bounded, and always report the same
+ * structure names.
+ */
+public interface MemoryFootprintSource {
+
+    List<StructureFootprint> footprint();
+}
@@ -0,0 +1,17 @@
+package com.example.demo.footprint;
+
+import java.util.List;
+
+/**
+ * Estimated memory use of the application's data structures next to the JVM's heap figures.
+ *
+ * @param structures         Per-structure estimates
+ * @param estimatedHeapBytes Sum of the on-heap estimates
+ * @param offHeapBytes       Sum of the off-heap estimates, e.g. mapped files
+ * @param heapUsedBytes      Heap in use, garbage included
+ * @param heapCommittedBytes Heap reserved by the JVM
+ * @param heapMaxBytes       Maximum heap size, -1 if undefined
+ */
+public record MemoryReport(List<StructureFootprint> structures, long estimatedHeapBytes, long offHeapBytes,
+                           long heapUsedBytes, long heapCommittedBytes, long heapMaxBytes) {
+}
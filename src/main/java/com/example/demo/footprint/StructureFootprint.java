@@ -0,0 +1,27 @@
+package com.example.demo.footprint;
+
+/**
+ * Estimated memory use of one in-memory structure.
+ *
+ * @param name          Structure name, e.g. {@code products} or {@code products.search-index}
+ * @param entries       Number of entries held
+ * @param retainedBytes Estimated bytes retained by the structure and the entries it owns
+ * @param bytesPerEntry Retained bytes divided by entries, 0 when empty
+ * @param loadFactor    Occupied share of the structure's table slots, or null if it has no table
+ * @param offHeap       Whether the bytes live outside the Java heap, e.g. in a mapped file
+ */
+public record StructureFootprint(String name, long entries, long retainedBytes, long bytesPerEntry,
+                                 Double loadFactor, boolean offHeap) {
+
+    public static StructureFootprint heap(String name, long entries, long retainedBytes, Double loadFactor) {
+        return new StructureFootprint(name, entries, retainedBytes, perEntry(entries, retainedBytes), loadFactor, false);
+    }
+
+    public static StructureFootprint offHeap(String name, long entries, long bytes, Double loadFactor) {
+        return new StructureFootprint(name, entries, bytes, perEntry(entries, bytes), loadFactor, true);
+    }
+
+    private static long perEntry(long entries, long bytes) {
+        return entries == 0 ? 0 : bytes / entries;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.jobs;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A bulk job: a list of items and the action applied to each.
+ * Progress is written by a single worker thread and read by status requests.
+ */
+final class Job<T> {
+
+    private final long id;
+    private final String type;
+    private final Consumer<T> action;
+    private final int total;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+    private final List<JobStatus.JobError> errors = new ArrayList<>();
+    private List<T> items;
+    private volatile JobState state = JobState.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile int processed;
+    private volatile int failed;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    Job(long id, String type, List<T> items, Consumer<T> action, int maxErrors) {
+        this.id = id;
+        this.type = type;
+        this.items = items;
+        this.action = action;
+        this.total = items.size();
+        this.maxErrors = maxErrors;
+    }
+
+    long id() {
+        return id;
+    }
+
+    List<T> items() {
+        return items;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = JobState.RUNNING;
+    }
+
+    /**
+     * Apply the action to one item, recording a failure instead of propagating it.
+     */
+    void process(int index) {
+        boolean succeeded = true;
+        try {
+            action.accept(items.get(index));
+        } catch (RuntimeException e) {
+            succeeded = false;
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new JobStatus.JobError(index, e.getMessage()));
+                }
+            }
+        }
+        // Processed first, so a reader never sees more failures than processed items
+        processed++;
+        if (!succeeded) {
+            failed++;
+        }
+    }
+
+    void finish(JobState finalState) {
+        // Items are no longer needed once the job ends
+        items = null;
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    JobState state() {
+        return state;
+    }
+
+    JobStatus status() {
+        List<JobStatus.JobError> errorsSnapshot;
+        synchronized (errors) {
+            errorsSnapshot = List.copyOf(errors);
+        }
+        int rejected = failed;
+        int done = processed;
+        return new JobStatus(id, type, state, total, done, done - rejected, rejected,
+                errorsSnapshot, createdAt, startedAt, finishedAt);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.jobs;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * REST Controller for background bulk jobs.
+ * Submissions return 202 right away with the job's status URL in the Location header.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    // Constructor-based dependency injection
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * POST /api/jobs/products - Import products in the background
+     */
+    @PostMapping("/products")
+    public ResponseEntity<?> importProducts(@RequestBody List<Product> products) {
+        return accept(() -> jobService.submitProductImport(products));
+    }
+
+    /**
+     * POST /api/jobs/users - Import users in the background
+     */
+    @PostMapping("/users")
+    public ResponseEntity<?> importUsers(@RequestBody List<User> users) {
+        return accept(() -> jobService.submitUserImport(users));
+    }
+
+    /**
+     * GET /api/jobs - Get all retained jobs
+     */
+    @GetMapping
+    public ResponseEntity<List<JobStatus>> getJobs() {
+        return ResponseEntity.ok(jobService.getJobs());
+    }
+
+    /**
+     * GET /api/jobs/{id} - Get job status, counts and errors
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable long id) {
+        return jobService.getJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Job not found with id: " + id)));
+    }
+
+    /**
+     * DELETE /api/jobs/{id} - Cancel a job
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelJob(@PathVariable long id) {
+        return jobService.cancelJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(createErrorResponse("Job not found with id: " + id)));
+    }
+
+    private ResponseEntity<?> accept(Supplier<JobStatus> submission) {
+        try {
+            JobStatus job = submission.get();
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + job.id()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.jobs;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.service.ProductService;
+import com.example.demo.service.UserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs bulk imports in the background.
+ * Jobs wait in a bounded queue for a small pool of low-priority workers, which apply the
+ * items through the regular services in chunks so validation still applies per item.
+ * Between chunks a worker checks for cancellation and sleeps as needed to stay under
+ * {@code app.jobs.max-items-per-second}, leaving capacity to the interactive endpoints.
+ * Finished jobs are kept for status queries until {@code app.jobs.max-retained} newer
+ * ones have finished.
+ */
+@Service
+public class JobService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    private final ProductService productService;
+    private final UserService userService;
+    private final ThreadPoolExecutor executor;
+    private final int chunkSize;
+    private final int maxItems;
+    private final double maxItemsPerSecond;
+    private final int maxErrors;
+    private final int maxRetained;
+    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final Map<Long, Job<?>> jobs = new ConcurrentHashMap<>();
+    private final Queue<Long> finished = new ConcurrentLinkedQueue<>();
+
+    // Constructor-based dependency injection
+    public JobService(ProductService productService,
+                      UserService userService,
+                      @Value("${app.jobs.workers:1}") int workers,
+                      @Value("${app.jobs.max-queued:16}") int maxQueued,
+                      @Value("${app.jobs.chunk-size:500}") int chunkSize,
+                      @Value("${app.jobs.max-items:1000000}") int maxItems,
+                      @Value("${app.jobs.max-items-per-second:5000}") double maxItemsPerSecond,
+                      @Value("${app.jobs.max-errors:100}") int maxErrors,
+                      @Value("${app.jobs.max-retained:100}") int maxRetained) {
+        this.productService = productService;
+        this.userService = userService;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+        this.maxItemsPerSecond = maxItemsPerSecond;
+        this.maxErrors = maxErrors;
+        this.maxRetained = maxRetained;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-job");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue an import of products; each one is created as by {@code POST /api/products}.
+     *
+     * @param products Products to create
+     * @return Status of the queued job
+     * @throws IllegalArgumentException if the payload is empty or too large
+     * @throws IllegalStateException    if the job queue is full
+     */
+    public JobStatus submitProductImport(List<Product> products) {
+        return submit("product-import", products, productService::createProduct);
+    }
+
+    /**
+     * Queue an import of users; each one is created as by {@code POST /api/users}.
+     *
+     * @param users Users to create
+     * @return Status of the queued job
+     * @throws IllegalArgumentException if the payload is empty or too large
+     * @throws IllegalStateException    if the job queue is full
+     */
+    public JobStatus submitUserImport(List<User> users) {
+        return submit("user-import", users, userService::createUser);
+    }
+
+    public Optional<JobStatus> getJob(long id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::status);
+    }
+
+    public List<JobStatus> getJobs() {
+        List<JobStatus> statuses = new ArrayList<>();
+        for (Job<?> job : jobs.values()) {
+            statuses.add(job.status());
+        }
+        statuses.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return statuses;
+    }
+
+    /**
+     * Cancel a job. A queued job never starts; a running job stops after its current chunk.
+     *
+     * @param id Job ID
+     * @return Status of the job, empty if unknown
+     */
+    public Optional<JobStatus> cancelJob(long id) {
+        Job<?> job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.requestCancel();
+        return Optional.of(job.status());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> JobStatus submit(String type, List<T> items, Consumer<T> action) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Job payload cannot be empty");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Job payload cannot exceed " + maxItems + " items");
+        }
+        Job<T> job = new Job<>(idGenerator.getAndIncrement(), type, items, action, maxErrors);
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            throw new IllegalStateException("Too many queued jobs, retry later");
+        }
+        return job.status();
+    }
+
+    private <T> void run(Job<T> job) {
+        if (job.isCancelRequested()) {
+            complete(job, JobState.CANCELLED);
+            return;
+        }
+        job.start();
+        long started = System.nanoTime();
+        int total = job.items().size();
+        try {
+            for (int chunkStart = 0; chunkStart < total; chunkStart += chunkSize) {
+                if (job.isCancelRequested()) {
+                    complete(job, JobState.CANCELLED);
+                    return;
+                }
+                int chunkEnd = Math.min(total, chunkStart + chunkSize);
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    job.process(i);
+                }
+                throttle(started, chunkEnd);
+            }
+            complete(job, JobState.SUCCEEDED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            complete(job, JobState.CANCELLED);
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", job.id(), e);
+            complete(job, JobState.FAILED);
+        }
+    }
+
+    private void throttle(long started, int processed) throws InterruptedException {
+        long dueNanos = (long) (processed / maxItemsPerSecond * 1_000_000_000L);
+        long aheadNanos = dueNanos - (System.nanoTime() - started);
+        if (aheadNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(aheadNanos);
+        }
+    }
+
+    private void complete(Job<?> job, JobState state) {
+        job.finish(state);
+        finished.add(job.id());
+        while (finished.size() > maxRetained) {
+            Long oldest = finished.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.jobs;
+
+/**
+ * Lifecycle of a bulk job.
+ */
+public enum JobState {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
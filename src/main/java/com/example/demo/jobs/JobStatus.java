@@ -0,0 +1,34 @@
+package com.example.demo.jobs;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Point-in-time view of a bulk job.
+ *
+ * @param id         Job ID
+ * @param type       Job type, e.g. "product-import"
+ * @param state      Current state
+ * @param total      Number of items submitted
+ * @param processed  Items handled so far
+ * @param succeeded  Items applied successfully
+ * @param failed     Items rejected
+ * @param errors     The first rejected items with their error messages
+ * @param createdAt  Submission time
+ * @param startedAt  Start time, null while queued
+ * @param finishedAt End time, null while queued or running
+ */
+public record JobStatus(long id, String type, JobState state,
+                        int total, int processed, int succeeded, int failed,
+                        List<JobError> errors,
+                        Instant createdAt, Instant startedAt, Instant finishedAt) {
+
+    /**
+     * One rejected item.
+     *
+     * @param index   Position of the item in the submitted payload
+     * @param message Why it was rejected
+     */
+    public record JobError(int index, String message) {
+    }
+}
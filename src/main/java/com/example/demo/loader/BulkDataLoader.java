@@ -0,0 +1,344 @@
+package com.example.demo.loader;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Warms up the repositories from local CSV or NDJSON files at startup.
+ * Files are memory-mapped and split into line-aligned chunks that are parsed in parallel;
+ * parsed entities are inserted in batches straight into repository storage, skipping the
+ * write pipeline. Rows get the same checks as the create endpoints: products need a name,
+ * a price and a stock that are not negative; users need a name and an email that is unique
+ * across the file and the users already present. Rows that fail to parse or to validate
+ * are counted as rejected. Rows with an explicit id replace the entity with that id and
+ * are counted as replaced.
+ * CSV files need a header row naming the columns (id, name, description, price, stock for
+ * products; id, name, email, role for users); any other extension is read as NDJSON.
+ */
+@Component
+public class BulkDataLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkDataLoader.class);
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final String productsFile;
+    private final String usersFile;
+    private final int threads;
+    private final long chunkSize;
+    private final int batchSize;
+
+    // Constructor-based dependency injection
+    public BulkDataLoader(ProductRepository productRepository,
+                          UserRepository userRepository,
+                          ObjectMapper objectMapper,
+                          @Value("${app.loader.products-file:}") String productsFile,
+                          @Value("${app.loader.users-file:}") String usersFile,
+                          @Value("${app.loader.threads:0}") int threads,
+                          @Value("${app.loader.chunk-size-mb:64}") int chunkSizeMb,
+                          @Value("${app.loader.batch-size:65536}") int batchSize) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.productsFile = productsFile;
+        this.usersFile = usersFile;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSizeMb * 1024L * 1024L;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!productsFile.isBlank()) {
+            loadProducts(Path.of(productsFile));
+        }
+        if (!usersFile.isBlank()) {
+            loadUsers(Path.of(usersFile));
+        }
+    }
+
+    /**
+     * Load products from a CSV or NDJSON file.
+     *
+     * @param file Source file
+     * @return Load statistics
+     */
+    public LoadReport loadProducts(Path file) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(Product.class);
+        return load("products", file,
+                header -> validProducts(productCsvParser(header)),
+                validProducts((line, length) -> reader.readValue(line, 0, length)),
+                productRepository::loadBaseline);
+    }
+
+    /**
+     * Load users from a CSV or NDJSON file.
+     *
+     * @param file Source file
+     * @return Load statistics
+     */
+    public LoadReport loadUsers(Path file) throws IOException {
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        for (User user : userRepository.findAll()) {
+            emails.add(normalize(user.getEmail()));
+        }
+        ObjectReader reader = objectMapper.readerFor(User.class);
+        return load("users", file,
+                header -> uniqueEmails(validUsers(userCsvParser(header)), emails),
+                uniqueEmails(validUsers((line, length) -> reader.readValue(line, 0, length)), emails),
+                userRepository::loadBaseline);
+    }
+
+    private <T> LoadReport load(String entity, Path file,
+                                CsvParserFactory<T> csvParsers,
+                                RowParser<T> ndjsonParser,
+                                ToIntFunction<List<T>> sink) throws IOException {
+        long started = System.nanoTime();
+        LongAdder rows = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder replaced = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long dataStart = 0;
+            RowParser<T> parser = ndjsonParser;
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                dataStart = MappedLines.nextLineStart(channel, 0);
+                parser = csvParsers.create(readHeader(channel, dataStart));
+            }
+
+            List<Future<?>> tasks = new ArrayList<>();
+            for (MappedLines.Chunk chunk : MappedLines.split(channel, dataStart, chunkSize)) {
+                RowParser<T> chunkParser = parser;
+                tasks.add(executor.submit(() -> {
+                    new ChunkLoad<>(chunkParser, sink, rows, rejected, replaced).run(channel, chunk);
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load " + file, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        LoadReport report = new LoadReport(entity, file.toString(), rows.sum(), rejected.sum(), replaced.sum(), millis);
+        log.info("Loaded {} {} from {} in {} ms ({} rows/s, {} rejected)", report.rows(), entity, file,
+                millis, report.rowsPerSecond(), report.rejected());
+        if (report.replaced() > 0) {
+            log.warn("{} rows from {} replaced existing {} with the same id", report.replaced(), file, entity);
+        }
+        return report;
+    }
+
+    private static String[] readHeader(FileChannel channel, long length) throws IOException {
+        byte[] header = new byte[(int) length];
+        channel.read(ByteBuffer.wrap(header), 0);
+        // Skip a UTF-8 byte order mark
+        int start = length >= 3 && header[0] == (byte) 0xEF && header[1] == (byte) 0xBB && header[2] == (byte) 0xBF ? 3 : 0;
+        byte[] line = Arrays.copyOfRange(header, start, header.length);
+        return CsvLine.split(line, line.length);
+    }
+
+    private static RowParser<Product> productCsvParser(String[] header) {
+        Map<String, Integer> columns = columns(header, "name", "price");
+        return (line, length) -> {
+            String[] fields = CsvLine.split(line, length);
+            Product product = new Product(
+                    field(fields, columns, "name"),
+                    field(fields, columns, "description"),
+                    new BigDecimal(field(fields, columns, "price")),
+                    parseInteger(field(fields, columns, "stock")));
+            product.setId(parseLong(field(fields, columns, "id")));
+            return product;
+        };
+    }
+
+    private static RowParser<User> userCsvParser(String[] header) {
+        Map<String, Integer> columns = columns(header, "name", "email");
+        return (line, length) -> {
+            String[] fields = CsvLine.split(line, length);
+            User user = new User(
+                    field(fields, columns, "name"),
+                    field(fields, columns, "email"),
+                    field(fields, columns, "role"));
+            user.setId(parseLong(field(fields, columns, "id")));
+            return user;
+        };
+    }
+
+    /**
+     * Rejects products {@code ProductServiceImpl.createProduct} would reject.
+     */
+    private static RowParser<Product> validProducts(RowParser<Product> parser) {
+        return (line, length) -> {
+            Product product = parser.parse(line, length);
+            if (product == null || product.getName() == null || product.getName().isBlank()
+                    || product.getPrice() == null || product.getPrice().signum() < 0
+                    || product.getStock() == null || product.getStock() < 0) {
+                return null;
+            }
+            // Units can only be reserved through the reservation API
+            product.setReserved(0);
+            return product;
+        };
+    }
+
+    /**
+     * Rejects users {@code UserServiceImpl.createUser} would reject, before their email is claimed.
+     */
+    private static RowParser<User> validUsers(RowParser<User> parser) {
+        return (line, length) -> {
+            User user = parser.parse(line, length);
+            if (user == null || user.getName() == null || user.getName().isBlank()) {
+                return null;
+            }
+            if (user.getRole() == null || user.getRole().isBlank()) {
+                user.setRole("USER");
+            }
+            return user;
+        };
+    }
+
+    private static RowParser<User> uniqueEmails(RowParser<User> parser, Set<String> emails) {
+        return (line, length) -> {
+            User user = parser.parse(line, length);
+            if (user == null || user.getEmail() == null || user.getEmail().isBlank()) {
+                return null;
+            }
+            return emails.add(normalize(user.getEmail())) ? user : null;
+        };
+    }
+
+    private static Map<String, Integer> columns(String[] header, String... required) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : required) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing the " + column + " column");
+            }
+        }
+        return columns;
+    }
+
+    private static String field(String[] fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.length || fields[index].isEmpty()) {
+            return null;
+        }
+        return fields[index];
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static Integer parseInteger(String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    private interface CsvParserFactory<T> {
+        RowParser<T> create(String[] header);
+    }
+
+    /**
+     * Parses one chunk on a loader thread and hands full batches to the repository.
+     */
+    private final class ChunkLoad<T> implements MappedLines.LineHandler {
+
+        private final RowParser<T> parser;
+        private final ToIntFunction<List<T>> sink;
+        private final LongAdder rows;
+        private final LongAdder rejected;
+        private final LongAdder replaced;
+        private List<T> batch = new ArrayList<>(batchSize);
+
+        private ChunkLoad(RowParser<T> parser, ToIntFunction<List<T>> sink,
+                          LongAdder rows, LongAdder rejected, LongAdder replaced) {
+            this.parser = parser;
+            this.sink = sink;
+            this.rows = rows;
+            this.rejected = rejected;
+            this.replaced = replaced;
+        }
+
+        void run(FileChannel channel, MappedLines.Chunk chunk) throws IOException {
+            MappedLines.forEachLine(channel, chunk, this);
+            flush();
+        }
+
+        @Override
+        public void onLine(byte[] line, int length) {
+            T entity;
+            try {
+                entity = parser.parse(line, length);
+            } catch (IOException | RuntimeException e) {
+                entity = null;
+            }
+            if (entity == null) {
+                rejected.increment();
+                return;
+            }
+            batch.add(entity);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                replaced.add(sink.applyAsInt(batch));
+                rows.add(batch.size());
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.loader;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV line into fields.
+ * Fields may be quoted with {@code "}, in which case commas are literal and {@code ""} stands
+ * for a quote. Line breaks inside quoted fields are not supported.
+ */
+final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    static String[] split(byte[] line, int length) {
+        List<String> fields = new ArrayList<>();
+        int i = 0;
+        while (true) {
+            if (i < length && line[i] == '"') {
+                StringBuilder field = new StringBuilder();
+                int start = ++i;
+                while (i < length) {
+                    if (line[i] == '"') {
+                        field.append(new String(line, start, i - start, StandardCharsets.UTF_8));
+                        if (i + 1 < length && line[i + 1] == '"') {
+                            field.append('"');
+                            i += 2;
+                            start = i;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                if (i >= length) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                fields.add(field.toString());
+                i++;
+            } else {
+                int start = i;
+                while (i < length && line[i] != ',') {
+                    i++;
+                }
+                fields.add(new String(line, start, i - start, StandardCharsets.UTF_8).trim());
+            }
+            if (i >= length) {
+                return fields.toArray(new String[0]);
+            }
+            if (line[i] != ',') {
+                throw new IllegalArgumentException("Unexpected character after quoted field");
+            }
+            i++;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.loader;
+
+/**
+ * Outcome of loading one file.
+ *
+ * @param entity   Loaded entity kind, e.g. "products"
+ * @param file     Source file
+ * @param rows     Rows inserted into the repository
+ * @param rejected Rows that could not be parsed, failed validation or violated a uniqueness constraint
+ * @param replaced Inserted rows whose explicit id replaced an existing entity
+ * @param millis   Wall-clock duration of the load
+ */
+public record LoadReport(String entity, String file, long rows, long rejected, long replaced, long millis) {
+
+    public long rowsPerSecond() {
+        return millis == 0 ? rows * 1000 : rows * 1000 / millis;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.loader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Line access to large files through read-only memory mappings.
+ * A file is split into chunks that end on line boundaries, so each chunk can be mapped and
+ * parsed independently on its own thread.
+ */
+final class MappedLines {
+
+    private MappedLines() {
+    }
+
+    /**
+     * Receives one line at a time; the array is reused for the next line.
+     */
+    @FunctionalInterface
+    interface LineHandler {
+        void onLine(byte[] line, int length);
+    }
+
+    /**
+     * Byte range of a file that starts at a line start and ends after a line break or at EOF.
+     */
+    record Chunk(long offset, long length) {
+    }
+
+    /**
+     * Split the remainder of a file into chunks of roughly {@code chunkSize} bytes.
+     *
+     * @param channel   Open file
+     * @param start     Offset of the first line to include
+     * @param chunkSize Target chunk size; chunks grow to the end of the line they stop in
+     * @return Chunks covering the file from {@code start} to EOF
+     */
+    static List<Chunk> split(FileChannel channel, long start, long chunkSize) throws IOException {
+        long size = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        long offset = start;
+        while (offset < size) {
+            long end = offset + chunkSize >= size ? size : nextLineStart(channel, offset + chunkSize);
+            chunks.add(new Chunk(offset, end - offset));
+            offset = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Find the start of the line following a position.
+     *
+     * @param channel  Open file
+     * @param position Position to scan from
+     * @return Offset after the next line break, or the file size if there is none
+     */
+    static long nextLineStart(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long scanned = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, scanned);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return scanned + i + 1;
+                }
+            }
+            scanned += read;
+        }
+    }
+
+    /**
+     * Map a chunk and pass each non-empty line to the handler, without its line terminator.
+     *
+     * @param channel Open file
+     * @param chunk   Chunk to read
+     * @param handler Line consumer
+     */
+    static void forEachLine(FileChannel channel, Chunk chunk, LineHandler handler) throws IOException {
+        if (chunk.length() > Integer.MAX_VALUE) {
+            throw new IOException("Chunk of " + chunk.length() + " bytes exceeds the mapping limit");
+        }
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length());
+        int length = (int) chunk.length();
+        byte[] line = new byte[512];
+        int start = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && mapped.get(i) != '\n') {
+                continue;
+            }
+            int end = i > start && mapped.get(i - 1) == '\r' ? i - 1 : i;
+            int lineLength = end - start;
+            if (lineLength > 0) {
+                if (lineLength > line.length) {
+                    line = new byte[Math.max(lineLength, line.length * 2)];
+                }
+                mapped.get(start, line, 0, lineLength);
+                handler.onLine(line, lineLength);
+            }
+            start = i + 1;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.loader;
+
+import java.io.IOException;
+
+/**
+ * Turns one line of an input file into an entity.
+ * Implementations are called from several loader threads at once.
+ */
+@FunctionalInterface
+interface RowParser<T> {
+
+    /**
+     * @param line   Line bytes without the line terminator; only valid during the call
+     * @param length Number of valid bytes
+     * @return The entity, or null to reject the row
+     */
+    T parse(byte[] line, int length) throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.example.demo.model;
+
+import java.io.IOException;
+
+/**
+ * Holder for the pre-serialized UTF-8 JSON form of an entity.
+ * The snapshot is built lazily on first read and becomes stale as soon as the
+ * owning entity is mutated, so a serialization racing with a setter can never
+ * be served afterwards.
+ */
+public final class CachedJson {
+
+    private volatile int stamp;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Mark the current snapshot as stale. Called by every mutator of the owning entity.
+     */
+    public void invalidate() {
+        stamp++;
+    }
+
+    /**
+     * Get the cached JSON bytes, serializing the entity if the snapshot is missing or stale.
+     *
+     * @param serializer Serializer producing the JSON bytes of the current state
+     * @return UTF-8 JSON bytes, must not be modified by the caller
+     */
+    public byte[] get(Serializer serializer) throws IOException {
+        int current = stamp;
+        Snapshot snap = snapshot;
+        if (snap != null && snap.stamp == current) {
+            return snap.bytes;
+        }
+        byte[] bytes = serializer.serialize();
+        snapshot = new Snapshot(current, bytes);
+        return bytes;
+    }
+
+    /**
+     * Produces the JSON bytes of an entity.
+     */
+    @FunctionalInterface
+    public interface Serializer {
+        byte[] serialize() throws java.io.IOException;
+    }
+
+    private record Snapshot(int stamp, byte[] bytes) {
+    }
+}
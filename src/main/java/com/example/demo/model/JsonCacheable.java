@@ -0,0 +1,14 @@
+package com.example.demo.model;
+
+/**
+ * Implemented by domain models that keep a pre-serialized JSON form.
+ */
+public interface JsonCacheable {
+
+    /**
+     * Get the JSON cache of this entity.
+     *
+     * @return Cache holding the lazily built JSON bytes
+     */
+    CachedJson json();
+}
@@ -0,0 +1,49 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marker written in place of an entity that was requested by ID but does not exist,
+ * serialized as {@code {"id":42,"found":false}}.
+ */
+public final class NotFound implements JsonCacheable {
+
+    private final long id;
+
+    // Pre-serialized JSON; never invalidated since the marker is immutable
+    private final transient CachedJson json = new CachedJson();
+
+    public NotFound(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Pair requested IDs with lookup results, replacing every missing entity with a marker.
+     *
+     * @param ids      Requested IDs
+     * @param entities Lookup results in the same order, null where not found
+     * @return One element per requested ID
+     */
+    public static List<JsonCacheable> markMissing(List<Long> ids, List<? extends JsonCacheable> entities) {
+        List<JsonCacheable> result = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            JsonCacheable entity = entities.get(i);
+            result.add(entity != null ? entity : new NotFound(ids.get(i)));
+        }
+        return result;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isFound() {
+        return false;
+    }
+
+    @Override
+    public CachedJson json() {
+        return json;
+    }
+}
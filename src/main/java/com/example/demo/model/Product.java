@@ -5,14 +5,20 @@ import java.util.Objects;
 
 /**
  * Product domain model representing a product in the system.
+ * {@code stock} counts units on hand, {@code reserved} those of them held by open
+ * reservations; only the rest is available to sell or reserve.
  */
-public class Product {
+public class Product implements JsonCacheable {
 
     private Long id;
     private String name;
     private String description;
     private BigDecimal price;
     private Integer stock;
+    private int reserved;
+
+    // Pre-serialized JSON, invalidated by every mutator
+    private final transient CachedJson json = new CachedJson();
 
     // Default constructor
     public Product() {
@@ -42,6 +48,7 @@ public class Product {
 
     public void setId(Long id) {
         this.id = id;
+        json.invalidate();
     }
 
     public String getName() {
@@ -50,6 +57,7 @@ public class Product {
 
     public void setName(String name) {
         this.name = name;
+        json.invalidate();
     }
 
     public String getDescription() {
@@ -58,6 +66,7 @@ public class Product {
 
     public void setDescription(String description) {
         this.description = description;
+        json.invalidate();
     }
 
     public BigDecimal getPrice() {
@@ -66,6 +75,7 @@ public class Product {
 
     public void setPrice(BigDecimal price) {
         this.price = price;
+        json.invalidate();
     }
 
     public Integer getStock() {
@@ -74,16 +84,31 @@ public class Product {
 
     public void setStock(Integer stock) {
         this.stock = stock;
+        json.invalidate();
+    }
+
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+        json.invalidate();
     }
 
     // Business methods
+    public int getAvailable() {
+        return stock == null ? 0 : stock - reserved;
+    }
+
     public boolean isInStock() {
-        return stock != null && stock > 0;
+        return getAvailable() > 0;
     }
 
     public void decreaseStock(int quantity) {
-        if (stock != null && stock >= quantity) {
+        if (getAvailable() >= quantity) {
             this.stock -= quantity;
+            json.invalidate();
         } else {
             throw new IllegalArgumentException("Insufficient stock");
         }
@@ -95,6 +120,31 @@ public class Product {
         } else {
             this.stock += quantity;
         }
+        json.invalidate();
+    }
+
+    public void reserve(int quantity) {
+        if (getAvailable() < quantity) {
+            throw new IllegalArgumentException("Insufficient stock");
+        }
+        this.reserved += quantity;
+        json.invalidate();
+    }
+
+    public void releaseReserved(int quantity) {
+        this.reserved -= quantity;
+        json.invalidate();
+    }
+
+    public void confirmReserved(int quantity) {
+        this.reserved -= quantity;
+        this.stock -= quantity;
+        json.invalidate();
+    }
+
+    @Override
+    public CachedJson json() {
+        return json;
     }
 
     @Override
@@ -120,6 +170,7 @@ public class Product {
                 ", description='" + description + '\'' +
                 ", price=" + price +
                 ", stock=" + stock +
+                ", reserved=" + reserved +
                 '}';
     }
 }
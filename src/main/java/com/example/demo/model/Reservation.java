@@ -0,0 +1,15 @@
+package com.example.demo.model;
+
+import java.time.Instant;
+
+/**
+ * Units of a product held for a checkout until confirmed, released or expired.
+ *
+ * @param id        Reservation ID, unique per node
+ * @param productId Reserved product
+ * @param quantity  Units held
+ * @param status    Current state
+ * @param expiresAt When a held reservation lapses and its units become available again
+ */
+public record Reservation(long id, long productId, int quantity, ReservationStatus status, Instant expiresAt) {
+}
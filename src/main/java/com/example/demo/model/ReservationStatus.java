@@ -0,0 +1,11 @@
+package com.example.demo.model;
+
+/**
+ * Lifecycle of a stock reservation; every state but {@code HELD} is final.
+ */
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
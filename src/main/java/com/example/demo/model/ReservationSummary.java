@@ -0,0 +1,10 @@
+package com.example.demo.model;
+
+/**
+ * Totals over all held reservations.
+ *
+ * @param activeReservations Reservations not yet confirmed, released or expired
+ * @param reservedUnits      Units they hold
+ */
+public record ReservationSummary(long activeReservations, long reservedUnits) {
+}
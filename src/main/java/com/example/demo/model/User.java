@@ -5,13 +5,16 @@ import java.util.Objects;
 /**
  * User domain model representing a user in the system.
  */
-public class User {
+public class User implements JsonCacheable {
 
     private Long id;
     private String name;
     private String email;
     private String role;
 
+    // Pre-serialized JSON, invalidated by every mutator
+    private final transient CachedJson json = new CachedJson();
+
     // Default constructor
     public User() {
     }
@@ -38,6 +41,7 @@ public class User {
 
     public void setId(Long id) {
         this.id = id;
+        json.invalidate();
     }
 
     public String getName() {
@@ -46,6 +50,7 @@ public class User {
 
     public void setName(String name) {
         this.name = name;
+        json.invalidate();
     }
 
     public String getEmail() {
@@ -54,6 +59,7 @@ public class User {
 
     public void setEmail(String email) {
         this.email = email;
+        json.invalidate();
     }
 
     public String getRole() {
@@ -62,6 +68,12 @@ public class User {
 
     public void setRole(String role) {
         this.role = role;
+        json.invalidate();
+    }
+
+    @Override
+    public CachedJson json() {
+        return json;
     }
 
     @Override
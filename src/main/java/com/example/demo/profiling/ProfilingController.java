@@ -0,0 +1,178 @@
+package com.example.demo.profiling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * REST Controller for on-demand Flight Recorder recordings.
+ * Every request must carry {@code app.profiling.admin-token} in the {@code X-Admin-Token}
+ * header; recordings contain system properties and stack traces. Without a configured
+ * token every request is refused.
+ */
+@RestController
+@RequestMapping("/api/admin/profiling/recordings")
+@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true")
+public class ProfilingController {
+
+    private static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final ProfilingService profilingService;
+    private final byte[] adminToken;
+
+    // Constructor-based dependency injection
+    public ProfilingController(ProfilingService profilingService,
+                               @Value("${app.profiling.admin-token:}") String adminToken) {
+        this.profilingService = profilingService;
+        this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * POST /api/admin/profiling/recordings - Start a recording
+     */
+    @PostMapping
+    public ResponseEntity<?> startRecording(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                            @RequestParam(defaultValue = "default") String settings,
+                                            @RequestParam(required = false) Long duration) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        try {
+            RecordingStatus recording = profilingService.start(settings, duration);
+            return ResponseEntity.created(URI.create("/api/admin/profiling/recordings/" + recording.id()))
+                    .body(recording);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(createErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(createErrorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/admin/profiling/recordings - Get all kept recordings
+     */
+    @GetMapping
+    public ResponseEntity<?> getRecordings(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(profilingService.getRecordings());
+    }
+
+    /**
+     * GET /api/admin/profiling/recordings/{id} - Get recording status
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getRecording(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                          @PathVariable long id) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return found(id, profilingService.getRecording(id));
+    }
+
+    /**
+     * POST /api/admin/profiling/recordings/{id}/stop - Stop a recording early
+     */
+    @PostMapping("/{id}/stop")
+    public ResponseEntity<?> stopRecording(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                           @PathVariable long id) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        return found(id, profilingService.stop(id));
+    }
+
+    /**
+     * GET /api/admin/profiling/recordings/{id}/file - Download the recording as a .jfr file
+     */
+    @GetMapping("/{id}/file")
+    public ResponseEntity<?> downloadRecording(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                               @PathVariable long id) throws IOException {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        Optional<Path> dump = profilingService.dump(id);
+        if (dump.isEmpty()) {
+            return notFound(id);
+        }
+        Path file = dump.get();
+        long size = Files.size(file);
+        // The temporary file goes away once the response has been written
+        InputStreamResource body = new InputStreamResource(
+                Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("recording-" + id + ".jfr").build().toString())
+                .body(body);
+    }
+
+    /**
+     * DELETE /api/admin/profiling/recordings/{id} - Stop and discard a recording
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRecording(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                             @PathVariable long id) {
+        if (!authorized(token)) {
+            return forbidden();
+        }
+        if (!profilingService.delete(id)) {
+            return notFound(id);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Recording deleted successfully");
+        response.put("id", id);
+        return ResponseEntity.ok(response);
+    }
+
+    private boolean authorized(String token) {
+        return adminToken.length > 0
+                && token != null && MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResponseEntity<?> forbidden() {
+        String message = adminToken.length == 0
+                ? "Profiling requires app.profiling.admin-token to be set"
+                : "Missing or invalid " + TOKEN_HEADER + " header";
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(createErrorResponse(message));
+    }
+
+    private ResponseEntity<?> found(long id, Optional<RecordingStatus> recording) {
+        return recording.<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> notFound(id));
+    }
+
+    private ResponseEntity<?> notFound(long id) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(createErrorResponse("Recording not found with id: " + id));
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Starts and manages on-demand Flight Recorder recordings.
+ * Every recording is bounded: it stops by itself after {@code app.profiling.max-duration-seconds}
+ * at the latest and keeps at most {@code app.profiling.max-size-mb} on disk. Stopped recordings
+ * stay downloadable until deleted or until room is needed for a new one; at most
+ * {@code app.profiling.max-recordings} are kept.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true")
+public class ProfilingService {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final int maxRecordings;
+    private final Duration queryThreshold;
+    // Guarded by this, oldest first
+    private final Map<Long, ManagedRecording> recordings = new LinkedHashMap<>();
+
+    // Constructor-based dependency injection
+    public ProfilingService(@Value("${app.profiling.max-duration-seconds:300}") long maxDurationSeconds,
+                            @Value("${app.profiling.max-size-mb:100}") long maxSizeMb,
+                            @Value("${app.profiling.max-recordings:4}") int maxRecordings,
+                            @Value("${app.profiling.query-threshold-ms:0}") long queryThresholdMillis) {
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.maxRecordings = maxRecordings;
+        this.queryThreshold = Duration.ofMillis(queryThresholdMillis);
+    }
+
+    /**
+     * Start a recording with one of the JDK's predefined configurations plus the
+     * application's own events.
+     *
+     * @param settings        "default" (low overhead) or "profile" (more detail)
+     * @param durationSeconds How long to record, null for the maximum
+     * @return Status of the new recording
+     * @throws IllegalArgumentException if the settings or duration are invalid
+     * @throws IllegalStateException    if Flight Recorder is unavailable or all recording slots are in use
+     */
+    public synchronized RecordingStatus start(String settings, Long durationSeconds) {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Settings must be one of " + SETTINGS);
+        }
+        Duration duration = durationSeconds == null ? maxDuration : Duration.ofSeconds(durationSeconds);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDuration.toSeconds() + " seconds");
+        }
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Flight Recorder is not available in this runtime");
+        }
+        makeRoom();
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot load JFR configuration " + settings, e);
+        }
+        recording.setName("demo-" + settings);
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSizeBytes);
+        recording.enable(RepositoryQueryEvent.NAME).withThreshold(queryThreshold);
+        recording.enable(StockUpdateEvent.NAME);
+        recording.start();
+        ManagedRecording managed = new ManagedRecording(recording, settings);
+        recordings.put(recording.getId(), managed);
+        return managed.status();
+    }
+
+    public synchronized List<RecordingStatus> getRecordings() {
+        List<RecordingStatus> statuses = new ArrayList<>();
+        for (ManagedRecording managed : recordings.values()) {
+            statuses.add(managed.status());
+        }
+        return statuses;
+    }
+
+    public synchronized Optional<RecordingStatus> getRecording(long id) {
+        return Optional.ofNullable(recordings.get(id)).map(ManagedRecording::status);
+    }
+
+    /**
+     * Stop a recording early; its data stays available for download.
+     *
+     * @param id Recording ID
+     * @return Status of the recording, empty if unknown
+     */
+    public synchronized Optional<RecordingStatus> stop(long id) {
+        ManagedRecording managed = recordings.get(id);
+        if (managed == null) {
+            return Optional.empty();
+        }
+        if (managed.recording.getState() == RecordingState.RUNNING) {
+            managed.recording.stop();
+        }
+        return Optional.of(managed.status());
+    }
+
+    /**
+     * Write the data recorded so far to a temporary file. Works on running recordings too,
+     * which keep recording. The caller deletes the file.
+     *
+     * @param id Recording ID
+     * @return The file, empty if the recording is unknown
+     * @throws IOException if the file cannot be written
+     */
+    public Optional<Path> dump(long id) throws IOException {
+        Recording recording;
+        synchronized (this) {
+            ManagedRecording managed = recordings.get(id);
+            if (managed == null) {
+                return Optional.empty();
+            }
+            recording = managed.recording;
+        }
+        Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Stop a recording if needed and discard its data.
+     *
+     * @param id Recording ID
+     * @return true if deleted, false if not found
+     */
+    public synchronized boolean delete(long id) {
+        ManagedRecording managed = recordings.remove(id);
+        if (managed == null) {
+            return false;
+        }
+        managed.recording.close();
+        return true;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (ManagedRecording managed : recordings.values()) {
+            managed.recording.close();
+        }
+        recordings.clear();
+    }
+
+    private void makeRoom() {
+        Iterator<ManagedRecording> oldestFirst = recordings.values().iterator();
+        while (recordings.size() >= maxRecordings && oldestFirst.hasNext()) {
+            ManagedRecording managed = oldestFirst.next();
+            if (managed.recording.getState() != RecordingState.RUNNING) {
+                managed.recording.close();
+                oldestFirst.remove();
+            }
+        }
+        if (recordings.size() >= maxRecordings) {
+            throw new IllegalStateException("All " + maxRecordings + " recording slots are running");
+        }
+    }
+
+    private record ManagedRecording(Recording recording, String settings) {
+
+        RecordingStatus status() {
+            return new RecordingStatus(recording.getId(), recording.getName(), recording.getState().name(),
+                    settings, recording.getStartTime(), recording.getStopTime(),
+                    recording.getDuration().toSeconds(), recording.getMaxSize(), recording.getSize());
+        }
+    }
+}
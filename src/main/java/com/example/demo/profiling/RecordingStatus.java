@@ -0,0 +1,21 @@
+package com.example.demo.profiling;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of a Flight Recorder recording started through the admin API.
+ *
+ * @param id        Recording ID
+ * @param name      Recording name
+ * @param state     JFR state: RUNNING, STOPPED or CLOSED
+ * @param settings  Predefined JFR configuration, "default" or "profile"
+ * @param startTime Start time
+ * @param stopTime  Time the recording stopped, null while running
+ * @param duration  Maximum duration in seconds; the recording stops by itself after it
+ * @param maxSize   Maximum size in bytes kept on disk
+ * @param size      Bytes recorded so far
+ */
+public record RecordingStatus(long id, String name, String state, String settings,
+                              Instant startTime, Instant stopTime,
+                              long duration, long maxSize, long size) {
+}
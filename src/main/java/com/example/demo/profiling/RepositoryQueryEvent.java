@@ -0,0 +1,36 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one repository query that scans the stored entities.
+ * Lookups by ID are not recorded. The event is only committed while a recording has it
+ * enabled; otherwise constructing and checking it costs next to nothing.
+ */
+@Name(RepositoryQueryEvent.NAME)
+@Label("Repository Query")
+@Description("Scan of an in-memory repository")
+@Category({"Demo", "Repository"})
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    public static final String NAME = "com.example.demo.RepositoryQuery";
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("Query")
+    @Description("Repository method that ran the scan")
+    public String query;
+
+    @Label("Candidates Scanned")
+    public long scanned;
+
+    @Label("Results")
+    public long results;
+}
@@ -0,0 +1,39 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one stock update.
+ * Concurrent updates of the same product serialize on it, and {@link #lockWait} shows how
+ * long this update queued behind the others.
+ */
+@Name(StockUpdateEvent.NAME)
+@Label("Stock Update")
+@Description("Read-modify-write of a product's stock")
+@Category({"Demo", "Service"})
+public class StockUpdateEvent extends Event {
+
+    public static final String NAME = "com.example.demo.StockUpdate";
+
+    @Label("Product ID")
+    public long productId;
+
+    @Label("Quantity")
+    @Description("Requested change, negative to decrease")
+    public int quantity;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Stock After")
+    public int stockAfter;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,62 @@
+package com.example.demo.replication;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps a replica read-only and its reads within the staleness bound.
+ * Mutations are rejected with 405 since they must go to the primary; reads, including
+ * POSTed multi-gets, are answered with 503 while the replica is disconnected or lagging
+ * more than allowed. Headers are set before the body is written, which commits the response.
+ * Cached compressed bodies are served by an interceptor registered after this one, so they
+ * are refused the same way.
+ */
+public class ReplicaReadOnlyInterceptor implements HandlerInterceptor {
+
+    private static final byte[] READ_ONLY = "{\"error\":\"Read-only replica, send writes to the primary\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STALE = "{\"error\":\"Replica is too far behind the primary\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final String BATCH_GET_SUFFIX = "/batch-get";
+
+    private final ReplicationReplica replica;
+
+    public ReplicaReadOnlyInterceptor(ReplicationReplica replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method)
+                && !isMultiGet(request)) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD, OPTIONS");
+            reject(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, READ_ONLY);
+            return false;
+        }
+        if (!replica.isFresh()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, STALE);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isMultiGet(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && request.getRequestURI().endsWith(BATCH_GET_SUFFIX);
+    }
+
+    private void reject(HttpServletResponse response, int status, byte[] body) throws Exception {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.replication;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller reporting the replication status of this instance.
+ */
+@RestController
+@RequestMapping("/api/replication")
+public class ReplicationController {
+
+    private final ObjectProvider<ReplicationNode> replicationNode;
+
+    // Constructor-based dependency injection
+    public ReplicationController(ObjectProvider<ReplicationNode> replicationNode) {
+        this.replicationNode = replicationNode;
+    }
+
+    /**
+     * GET /api/replication/status - Get role, sequences and replication lag
+     */
+    @GetMapping("/status")
+    public ResponseEntity<?> getStatus() {
+        ReplicationNode node = replicationNode.getIfAvailable();
+        if (node == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(createErrorResponse("Replication is not enabled on this instance"));
+        }
+        return ResponseEntity.ok(node.status());
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
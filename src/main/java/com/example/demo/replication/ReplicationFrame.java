@@ -0,0 +1,29 @@
+package com.example.demo.replication;
+
+import com.example.demo.events.ChangeType;
+import com.example.demo.events.EntityType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One newline-delimited JSON frame of the replication protocol.
+ * The primary opens with HELLO, the replica answers with RESUME, then the primary sends
+ * an optional SNAPSHOT_BEGIN / CHANGE... / SNAPSHOT_END sequence followed by CHANGE frames
+ * and periodic HEARTBEAT frames carrying its head sequence.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReplicationFrame(Kind kind, Long epoch, Long sequence, Long head,
+                               EntityType entityType, ChangeType type, Long id, Object entity) {
+
+    public enum Kind {
+        HELLO,
+        RESUME,
+        SNAPSHOT_BEGIN,
+        SNAPSHOT_END,
+        CHANGE,
+        HEARTBEAT
+    }
+
+    static ReplicationFrame control(Kind kind, Long epoch, Long sequence, Long head) {
+        return new ReplicationFrame(kind, epoch, sequence, head, null, null, null, null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.replication;
+
+import java.util.Map;
+
+/**
+ * A node taking part in replication, either the primary or a replica.
+ */
+public interface ReplicationNode {
+
+    /**
+     * Get the replication status of this node.
+     *
+     * @return Role, sequences and lag
+     */
+    Map<String, Object> status();
+}
@@ -0,0 +1,198 @@
+package com.example.demo.replication;
+
+import com.example.demo.events.ChangeFeed;
+import com.example.demo.events.ChangeType;
+import com.example.demo.events.EntityChange;
+import com.example.demo.events.EntityType;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Primary side of replication.
+ * Listens on a local socket and ships the ordered mutation log from the {@link ChangeFeed}
+ * to every connected replica. A replica that reconnects within the feed's retention window
+ * resumes from its last applied sequence; otherwise, or after a primary restart (new epoch),
+ * it first receives a full snapshot.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "primary")
+public class ReplicationPrimary implements ReplicationNode {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationPrimary.class);
+
+    private static final int BATCH_SIZE = 512;
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private final ChangeFeed changeFeed;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final String bindAddress;
+    private final int port;
+    private final long epoch = System.currentTimeMillis();
+    private final Set<Socket> replicas = ConcurrentHashMap.newKeySet();
+    private final ExecutorService connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "replication-primary");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile ServerSocket serverSocket;
+
+    // Constructor-based dependency injection
+    public ReplicationPrimary(ChangeFeed changeFeed,
+                              ProductRepository productRepository,
+                              UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.replication.bind-address:127.0.0.1}") String bindAddress,
+                              @Value("${app.replication.port:9090}") int port) {
+        this.changeFeed = changeFeed;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.bindAddress = bindAddress;
+        this.port = port;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getByName(bindAddress));
+        connectionExecutor.execute(this::acceptLoop);
+        log.info("Replication primary listening on {}:{} (epoch {})", bindAddress, port, epoch);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Socket replica : replicas) {
+            replica.close();
+        }
+        connectionExecutor.shutdownNow();
+    }
+
+    @Override
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("role", "primary");
+        status.put("epoch", epoch);
+        status.put("headSequence", changeFeed.headSequence());
+        status.put("connectedReplicas", replicas.size());
+        return status;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connectionExecutor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Replication accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        replicas.add(socket);
+        try (socket) {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+            write(out, ReplicationFrame.control(ReplicationFrame.Kind.HELLO, epoch, null, changeFeed.headSequence()));
+            out.flush();
+
+            String line = in.readLine();
+            if (line == null) {
+                return;
+            }
+            JsonNode resume = objectMapper.readTree(line);
+            long cursor = resume.path("sequence").asLong(-1);
+            boolean sameEpoch = resume.path("epoch").asLong(-1) == epoch;
+            if (!sameEpoch || cursor < 0 || changeFeed.read(cursor, 1).truncated()) {
+                cursor = sendSnapshot(out);
+            }
+            log.info("Replica {} streaming from sequence {}", socket.getRemoteSocketAddress(), cursor);
+            stream(out, cursor);
+        } catch (IOException e) {
+            log.info("Replica {} disconnected: {}", socket.getRemoteSocketAddress(), e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            replicas.remove(socket);
+        }
+    }
+
+    private long sendSnapshot(OutputStream out) throws IOException {
+        // Changes after this point are streamed again; re-applying current state is idempotent
+        long head = changeFeed.headSequence();
+        write(out, ReplicationFrame.control(ReplicationFrame.Kind.SNAPSHOT_BEGIN, epoch, head, head));
+        for (Product product : productRepository.findAll()) {
+            write(out, new ReplicationFrame(ReplicationFrame.Kind.CHANGE, null, null, null,
+                    EntityType.PRODUCT, ChangeType.UPSERT, product.getId(), product));
+        }
+        for (User user : userRepository.findAll()) {
+            write(out, new ReplicationFrame(ReplicationFrame.Kind.CHANGE, null, null, null,
+                    EntityType.USER, ChangeType.UPSERT, user.getId(), user));
+        }
+        write(out, ReplicationFrame.control(ReplicationFrame.Kind.SNAPSHOT_END, epoch, head, head));
+        out.flush();
+        return head;
+    }
+
+    private void stream(OutputStream out, long cursor) throws IOException, InterruptedException {
+        while (!serverSocket.isClosed()) {
+            ChangeFeed.ChangeBatch batch = changeFeed.read(cursor, BATCH_SIZE);
+            if (batch.truncated()) {
+                throw new IOException("Replica fell behind the change feed retention window");
+            }
+            long head = changeFeed.headSequence();
+            for (EntityChange change : batch.changes()) {
+                write(out, new ReplicationFrame(ReplicationFrame.Kind.CHANGE, null, change.sequence(), head,
+                        change.entityType(), change.type(), change.id(), change.entity()));
+                cursor = change.sequence();
+            }
+            if (batch.changes().isEmpty()) {
+                if (!changeFeed.awaitAfter(cursor, HEARTBEAT_MILLIS)) {
+                    write(out, ReplicationFrame.control(ReplicationFrame.Kind.HEARTBEAT, null, cursor, head));
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private void write(OutputStream out, ReplicationFrame frame) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(frame));
+        out.write('\n');
+    }
+}
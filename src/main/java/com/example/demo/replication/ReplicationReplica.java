@@ -0,0 +1,246 @@
+package com.example.demo.replication;
+
+import com.example.demo.events.ChangeType;
+import com.example.demo.events.EntityType;
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replica side of replication.
+ * Connects to the primary's log socket, applies snapshots and streamed changes to the local
+ * repositories on a single thread, and tracks replication lag as the distance between the
+ * primary's head sequence and the last applied one. Reconnects with backoff and resumes
+ * from the last applied sequence.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.replication", name = "role", havingValue = "replica")
+public class ReplicationReplica implements ReplicationNode {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationReplica.class);
+
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final String primaryHost;
+    private final int primaryPort;
+    private final long maxLag;
+    private final long maxSilenceMillis;
+    private final Thread applier;
+    private volatile Socket socket;
+    private volatile boolean running = true;
+    private volatile boolean connected;
+    private volatile long epoch = -1;
+    private volatile long appliedSequence = -1;
+    private volatile long primaryHead = -1;
+    private volatile long lastContactMillis;
+
+    // Constructor-based dependency injection
+    public ReplicationReplica(ProductRepository productRepository,
+                              UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.replication.primary-host:127.0.0.1}") String primaryHost,
+                              @Value("${app.replication.port:9090}") int primaryPort,
+                              @Value("${app.replication.max-lag:1000}") long maxLag,
+                              @Value("${app.replication.max-silence-ms:5000}") long maxSilenceMillis) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.primaryHost = primaryHost;
+        this.primaryPort = primaryPort;
+        this.maxLag = maxLag;
+        this.maxSilenceMillis = maxSilenceMillis;
+        this.applier = new Thread(this::run, "replication-replica");
+        this.applier.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        applier.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        running = false;
+        Socket current = socket;
+        if (current != null) {
+            current.close();
+        }
+        applier.interrupt();
+    }
+
+    /**
+     * Get the replication lag in sequence numbers.
+     *
+     * @return Changes published by the primary but not yet applied, -1 before the first sync
+     */
+    public long lag() {
+        return appliedSequence < 0 || primaryHead < 0 ? -1 : Math.max(0, primaryHead - appliedSequence);
+    }
+
+    /**
+     * Check whether reads are within the configured staleness bound.
+     *
+     * @return true if connected recently and the lag does not exceed {@code app.replication.max-lag}
+     */
+    public boolean isFresh() {
+        long lag = lag();
+        return lag >= 0 && lag <= maxLag && System.currentTimeMillis() - lastContactMillis <= maxSilenceMillis;
+    }
+
+    @Override
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("role", "replica");
+        status.put("primary", primaryHost + ":" + primaryPort);
+        status.put("connected", connected);
+        status.put("epoch", epoch);
+        status.put("appliedSequence", appliedSequence);
+        status.put("primaryHeadSequence", primaryHead);
+        status.put("lag", lag());
+        status.put("fresh", isFresh());
+        return status;
+    }
+
+    private void run() {
+        long backoff = 100;
+        while (running) {
+            try (Socket current = new Socket()) {
+                socket = current;
+                current.connect(new InetSocketAddress(primaryHost, primaryPort), 1000);
+                current.setTcpNoDelay(true);
+                connected = true;
+                backoff = 100;
+                replicate(current);
+            } catch (IOException e) {
+                if (running) {
+                    log.info("Replication connection to {}:{} lost: {}", primaryHost, primaryPort, e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+        }
+    }
+
+    private void replicate(Socket current) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(current.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        OutputStream out = current.getOutputStream();
+
+        JsonNode hello = readFrame(in);
+        if (hello == null || !"HELLO".equals(hello.path("kind").asText())) {
+            throw new IOException("Unexpected handshake from primary");
+        }
+        long primaryEpoch = hello.path("epoch").asLong();
+        primaryHead = hello.path("head").asLong();
+        long resumeFrom = primaryEpoch == epoch ? appliedSequence : -1;
+        out.write(objectMapper.writeValueAsBytes(
+                ReplicationFrame.control(ReplicationFrame.Kind.RESUME, epoch, resumeFrom, null)));
+        out.write('\n');
+        out.flush();
+
+        Set<Long> staleProducts = null;
+        Set<Long> staleUsers = null;
+        JsonNode frame;
+        while ((frame = readFrame(in)) != null) {
+            switch (ReplicationFrame.Kind.valueOf(frame.path("kind").asText())) {
+                case SNAPSHOT_BEGIN -> {
+                    // Everything not in the snapshot is deleted once it ends
+                    staleProducts = new HashSet<>();
+                    for (Product product : productRepository.findAll()) {
+                        staleProducts.add(product.getId());
+                    }
+                    staleUsers = new HashSet<>();
+                    for (User user : userRepository.findAll()) {
+                        staleUsers.add(user.getId());
+                    }
+                }
+                case SNAPSHOT_END -> {
+                    staleProducts.forEach(productRepository::deleteById);
+                    staleUsers.forEach(userRepository::deleteById);
+                    staleProducts = null;
+                    staleUsers = null;
+                    epoch = primaryEpoch;
+                    appliedSequence = frame.path("sequence").asLong();
+                    log.info("Replica snapshot applied at sequence {}", appliedSequence);
+                }
+                case CHANGE -> {
+                    EntityType entityType = apply(frame);
+                    if (staleProducts != null) {
+                        (entityType == EntityType.PRODUCT ? staleProducts : staleUsers).remove(frame.path("id").asLong());
+                    }
+                    if (frame.hasNonNull("sequence")) {
+                        appliedSequence = frame.path("sequence").asLong();
+                    }
+                }
+                case HEARTBEAT -> {
+                    // Only refreshes head and contact time below
+                }
+                default -> throw new IOException("Unexpected frame from primary: " + frame.path("kind").asText());
+            }
+            if (frame.hasNonNull("head")) {
+                primaryHead = frame.path("head").asLong();
+            }
+        }
+    }
+
+    private EntityType apply(JsonNode frame) throws IOException {
+        EntityType entityType = EntityType.valueOf(frame.path("entityType").asText());
+        ChangeType type = ChangeType.valueOf(frame.path("type").asText());
+        Long id = frame.path("id").asLong();
+        if (entityType == EntityType.PRODUCT) {
+            if (type == ChangeType.DELETE) {
+                productRepository.deleteById(id);
+            } else {
+                productRepository.save(objectMapper.treeToValue(frame.get("entity"), Product.class));
+            }
+        } else {
+            if (type == ChangeType.DELETE) {
+                userRepository.deleteById(id);
+            } else {
+                userRepository.save(objectMapper.treeToValue(frame.get("entity"), User.class));
+            }
+        }
+        return entityType;
+    }
+
+    private JsonNode readFrame(BufferedReader in) throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            return null;
+        }
+        lastContactMillis = System.currentTimeMillis();
+        return objectMapper.readTree(line);
+    }
+}
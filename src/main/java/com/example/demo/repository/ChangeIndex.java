@@ -0,0 +1,149 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.StructureFootprint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Tracks the latest modification sequence of every entity of one repository.
+ * Each entity appears once in an index ordered by sequence, so reading the changes after
+ * a sequence costs time proportional to the number of changed entities. Deleted entities
+ * stay as tombstones until more than {@code maxTombstones} accumulate; clients asking for
+ * changes older than the last pruned tombstone must resynchronize from a full read, as must
+ * clients older than the last bulk load, which replaces the baseline without recording changes.
+ */
+class ChangeIndex {
+
+    private static final long BOXED_LONG = MemoryEstimates.object(Long.BYTES);
+    // Skip-list node, its Long key, the Entry with its Long ID, and the half index node an entry averages
+    private static final long ENTRY_BYTES = MemoryEstimates.object(3 * MemoryEstimates.REFERENCE) + BOXED_LONG
+            + MemoryEstimates.object(MemoryEstimates.REFERENCE + Long.BYTES + 1) + BOXED_LONG
+            + MemoryEstimates.object(3 * MemoryEstimates.REFERENCE) / 2;
+
+    private final ConcurrentSkipListMap<Long, Entry> bySequence = new ConcurrentSkipListMap<>();
+    // Guarded by this index's monitor like every other mutation
+    private final LongLongMap sequenceById = new LongLongMap(1024);
+    private final Deque<Long> tombstones = new ArrayDeque<>();
+    private final int maxTombstones;
+    private volatile long sequence;
+    private volatile long prunedSequence;
+    private volatile long baselineSequence;
+
+    ChangeIndex(int maxTombstones) {
+        this.maxTombstones = maxTombstones;
+    }
+
+    /**
+     * Record an upsert or delete of an entity.
+     *
+     * @param id      Entity ID
+     * @param deleted True for a delete
+     * @return Modification sequence assigned to the change
+     */
+    synchronized long record(Long id, boolean deleted) {
+        long next = sequence + 1;
+        long previous = sequenceById.put(id, next);
+        if (previous != 0) {
+            bySequence.remove(previous);
+        }
+        bySequence.put(next, new Entry(id, next, deleted));
+        sequence = next;
+
+        if (deleted) {
+            tombstones.addLast(next);
+            pruneTombstones();
+        }
+        return next;
+    }
+
+    /**
+     * Start a new baseline after entities were inserted without recording changes.
+     *
+     * @return Sequence of the new baseline
+     */
+    /**
+     * Estimated memory use. Each entity has one skip-list entry with its boxed sequence and
+     * ID; tombstones box their sequence once more.
+     */
+    synchronized StructureFootprint footprint(String name) {
+        long entries = sequenceById.size();
+        long bytes = sequenceById.retainedBytes()
+                + entries * ENTRY_BYTES
+                + tombstones.size() * (BOXED_LONG + MemoryEstimates.REFERENCE);
+        return StructureFootprint.heap(name, entries, bytes, (double) entries / sequenceById.capacity());
+    }
+
+    synchronized long rebase() {
+        long next = sequence + 1;
+        sequence = next;
+        baselineSequence = next;
+        return next;
+    }
+
+    private void pruneTombstones() {
+        while (tombstones.size() > maxTombstones) {
+            Long oldest = tombstones.pollFirst();
+            Entry entry = bySequence.get(oldest);
+            // Skip tombstones already superseded by a later upsert of the same id
+            if (entry != null && entry.deleted()) {
+                bySequence.remove(oldest);
+                sequenceById.remove(entry.id(), oldest);
+                prunedSequence = oldest;
+            }
+        }
+    }
+
+    /**
+     * Get the changes recorded after a sequence.
+     *
+     * @param since Last sequence already seen by the caller
+     * @param limit Maximum number of entries to return
+     * @return Entries in sequence order
+     */
+    List<Entry> changesSince(long since, int limit) {
+        ConcurrentNavigableMap<Long, Entry> tail = bySequence.tailMap(since, false);
+        List<Entry> entries = new ArrayList<>(Math.min(limit, 64));
+        for (Entry entry : tail.values()) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Get the latest assigned sequence.
+     *
+     * @return Current sequence, 0 before the first change
+     */
+    long currentSequence() {
+        return sequence;
+    }
+
+    /**
+     * Check whether changes after a sequence may have been lost through tombstone pruning.
+     *
+     * @param since Last sequence already seen by the caller
+     * @return true if the caller must resynchronize from a full read
+     */
+    boolean requiresResync(long since) {
+        if (since < baselineSequence) {
+            return true;
+        }
+        // A client starting from zero only needs live entities, which are never pruned
+        return since > 0 && since < prunedSequence;
+    }
+
+    /**
+     * Latest change of one entity.
+     */
+    record Entry(Long id, long sequence, boolean deleted) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+/**
+ * Changes of one repository after a given modification sequence.
+ *
+ * @param sequence Sequence to pass as {@code since} on the next call
+ * @param resync   True if tombstones were pruned and the client must reload everything
+ * @param hasMore  True if the limit was reached and more changes are pending
+ * @param upserts  Entities created or updated, in their current state
+ * @param deletes  IDs of deleted entities
+ * @param <T>      Entity type
+ */
+public record ChangeSet<T>(long sequence, boolean resync, boolean hasMore, List<T> upserts, List<Long> deletes) {
+}
@@ -0,0 +1,107 @@
+package com.example.demo.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only record file, memory-mapped in fixed-size chunks.
+ * Each record is a length prefix followed by its bytes and never spans two chunks. The
+ * file is scratch space: it is deleted when closed and its contents do not survive a
+ * restart. Not thread-safe; callers guard it with their own lock.
+ */
+final class ColdFile implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private long end;
+
+    ColdFile(Path directory, int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+        try {
+            Files.createDirectories(directory);
+            this.path = Files.createTempFile(directory, "products-", ".cold");
+            this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cold tier file in " + directory, e);
+        }
+    }
+
+    /**
+     * @return The record's address
+     */
+    long append(byte[] record) {
+        int size = HEADER_BYTES + record.length;
+        if (size > chunkBytes) {
+            throw new IllegalStateException("Record of " + record.length + " bytes exceeds the cold tier chunk size");
+        }
+        long offset = end % chunkBytes;
+        if (offset + size > chunkBytes || chunks.size() * (long) chunkBytes <= end) {
+            // Start a new chunk; the tail of the previous one stays unused
+            end = (long) chunks.size() * chunkBytes;
+            chunks.add(map(chunks.size()));
+            offset = 0;
+        }
+        MappedByteBuffer chunk = chunks.get(chunks.size() - 1);
+        chunk.putInt((int) offset, record.length);
+        chunk.put((int) offset + HEADER_BYTES, record);
+        long address = end;
+        end += size;
+        return address;
+    }
+
+    byte[] read(long address) {
+        MappedByteBuffer chunk = chunks.get((int) (address / chunkBytes));
+        int offset = (int) (address % chunkBytes);
+        byte[] record = new byte[chunk.getInt(offset)];
+        chunk.get(offset + HEADER_BYTES, record);
+        return record;
+    }
+
+    /**
+     * @return Bytes the record at the address occupies, header included
+     */
+    int sizeOf(long address) {
+        return HEADER_BYTES + chunks.get((int) (address / chunkBytes)).getInt((int) (address % chunkBytes));
+    }
+
+    /**
+     * @return Bytes of file in use, including superseded records and chunk tails
+     */
+    long length() {
+        return end;
+    }
+
+    int chunkBytes() {
+        return chunkBytes;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close cold tier file " + path, e);
+        }
+    }
+
+    private MappedByteBuffer map(int chunk) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, (long) chunk * chunkBytes, chunkBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map cold tier file " + path, e);
+        }
+    }
+}
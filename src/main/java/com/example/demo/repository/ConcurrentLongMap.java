@@ -0,0 +1,320 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.StructureFootprint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Concurrent map from primitive {@code long} keys to values.
+ * Keys are spread over segments, each an open-addressing table with linear probing guarded
+ * by a {@link StampedLock}. Lookups read the table optimistically and only take the read
+ * lock if a writer interfered, so {@link #get} neither locks nor allocates in the common
+ * case. Writers lock one segment, which also bounds the pause of a resize. Bulk reads are
+ * consistent per segment, not across segments, like the weakly consistent iterators of
+ * {@link java.util.concurrent.ConcurrentHashMap}.
+ *
+ * <p>Given a sizer, each slot also records the estimated size of its value when it was put,
+ * so the retained bytes of all values are known without walking them. Values changed in
+ * place are re-measured when they are put again.
+ */
+final class ConcurrentLongMap<V> implements LongStore<V> {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    // StampedLock state plus the segment's own fields
+    private static final long SEGMENT_BYTES = MemoryEstimates.object(8 + 4 + 5 * MemoryEstimates.REFERENCE
+            + 3 * MemoryEstimates.REFERENCE + 4 + 8);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final ToIntFunction<? super V> sizer;
+
+    /**
+     * @param expectedSize Number of entries to size the tables for up front, so loading
+     *                     that many does not resize
+     */
+    ConcurrentLongMap(int expectedSize) {
+        this(expectedSize, null);
+    }
+
+    /**
+     * @param expectedSize Number of entries to size the tables for up front
+     * @param sizer        Estimated bytes retained by a value, or null to leave values out of the footprint
+     */
+    ConcurrentLongMap(int expectedSize, ToIntFunction<? super V> sizer) {
+        this.sizer = sizer;
+        int perSegment = (int) Math.min(1 << 30, (long) expectedSize / SEGMENTS * 4 / 3 + 1);
+        int capacity = Math.max(Segment.INITIAL_CAPACITY, Integer.highestOneBit(perSegment - 1) << 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity, sizer != null);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int hash = hash(key);
+        return (V) segments[hash & (SEGMENTS - 1)].get(key, hash >>> SEGMENT_BITS);
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        int size = sizer == null ? 0 : sizer.applyAsInt(value);
+        int hash = hash(key);
+        return (V) segments[hash & (SEGMENTS - 1)].put(key, hash >>> SEGMENT_BITS, value, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int hash = hash(key);
+        return (V) segments[hash & (SEGMENTS - 1)].remove(key, hash >>> SEGMENT_BITS);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public List<V> values() {
+        return collect(value -> true, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The predicate runs under a segment's read lock.
+     */
+    @Override
+    public List<V> filter(Predicate<? super V> predicate) {
+        return Collections.unmodifiableList(collect(predicate, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public V findAny(Predicate<? super V> predicate) {
+        List<V> match = collect(predicate, 1);
+        return match.isEmpty() ? null : match.get(0);
+    }
+
+    /**
+     * Tables plus, with a sizer, the values as measured when last put.
+     */
+    @Override
+    public List<StructureFootprint> footprint(String name) {
+        long bytes = MemoryEstimates.array(SEGMENTS, MemoryEstimates.REFERENCE);
+        long entries = 0;
+        long slots = 0;
+        for (Segment segment : segments) {
+            int capacity = segment.values.length;
+            bytes += SEGMENT_BYTES + MemoryEstimates.array(capacity, Long.BYTES)
+                    + MemoryEstimates.array(capacity, MemoryEstimates.REFERENCE)
+                    + (segment.sizes == null ? 0 : MemoryEstimates.array(capacity, Integer.BYTES))
+                    + segment.valueBytes;
+            entries += segment.size;
+            slots += capacity;
+        }
+        return List.of(StructureFootprint.heap(name, entries, bytes, (double) entries / slots));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<V> collect(Predicate<? super V> predicate, int limit) {
+        List<V> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            long stamp = segment.readLock();
+            try {
+                for (Object value : segment.values) {
+                    if (value != null && predicate.test((V) value)) {
+                        result.add((V) value);
+                        if (result.size() >= limit) {
+                            return result;
+                        }
+                    }
+                }
+            } finally {
+                segment.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private static int hash(long key) {
+        int hash = Long.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * One open-addressing table. An empty slot has a null value; deletions shift later
+     * entries of the probe sequence back instead of leaving tombstones.
+     */
+    private static final class Segment extends StampedLock {
+
+        // Serializable only through StampedLock; the map itself is never serialized
+        private static final long serialVersionUID = 1L;
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] keys;
+        private Object[] values;
+        // Size of each value when put, if the map has a sizer
+        private int[] sizes;
+        private volatile int size;
+        private long valueBytes;
+
+        Segment(int capacity, boolean sized) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+            sizes = sized ? new int[capacity] : null;
+        }
+
+        Object get(long key, int hash) {
+            long stamp = tryOptimisticRead();
+            if (stamp != 0) {
+                Object value = find(keys, values, key, hash);
+                if (validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = readLock();
+            try {
+                return find(keys, values, key, hash);
+            } finally {
+                unlockRead(stamp);
+            }
+        }
+
+        Object put(long key, int hash, Object value, int valueSize) {
+            long stamp = writeLock();
+            try {
+                int mask = values.length - 1;
+                for (int i = hash & mask; ; i = (i + 1) & mask) {
+                    Object current = values[i];
+                    if (current == null) {
+                        keys[i] = key;
+                        values[i] = value;
+                        resized(i, valueSize);
+                        size++;
+                        if (size * 4L > values.length * 3L) {
+                            resize();
+                        }
+                        return null;
+                    }
+                    if (keys[i] == key) {
+                        values[i] = value;
+                        resized(i, valueSize);
+                        return current;
+                    }
+                }
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        Object remove(long key, int hash) {
+            long stamp = writeLock();
+            try {
+                int mask = values.length - 1;
+                int i = hash & mask;
+                while (values[i] != null && keys[i] != key) {
+                    i = (i + 1) & mask;
+                }
+                Object removed = values[i];
+                if (removed == null) {
+                    return null;
+                }
+                resized(i, 0);
+                // Move back entries whose home slot lies at or before the freed slot
+                for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                    int home = (hash(keys[j]) >>> SEGMENT_BITS) & mask;
+                    boolean staysPut = i <= j ? i < home && home <= j : i < home || home <= j;
+                    if (!staysPut) {
+                        keys[i] = keys[j];
+                        values[i] = values[j];
+                        if (sizes != null) {
+                            sizes[i] = sizes[j];
+                        }
+                        i = j;
+                    }
+                }
+                values[i] = null;
+                if (sizes != null) {
+                    sizes[i] = 0;
+                }
+                size--;
+                return removed;
+            } finally {
+                unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Record the size of the value now in a slot, 0 for none.
+         */
+        private void resized(int slot, int valueSize) {
+            if (sizes != null) {
+                valueBytes += valueSize - sizes[slot];
+                sizes[slot] = valueSize;
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            int[] oldSizes = sizes;
+            long[] newKeys = new long[oldValues.length * 2];
+            Object[] newValues = new Object[oldValues.length * 2];
+            int[] newSizes = oldSizes == null ? null : new int[oldValues.length * 2];
+            int mask = newValues.length - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    int j = (hash(oldKeys[i]) >>> SEGMENT_BITS) & mask;
+                    while (newValues[j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    newKeys[j] = oldKeys[i];
+                    newValues[j] = oldValues[i];
+                    if (newSizes != null) {
+                        newSizes[j] = oldSizes[i];
+                    }
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+            sizes = newSizes;
+        }
+
+        private static Object find(long[] keys, Object[] values, long key, int hash) {
+            // Arrays may be mismatched or mid-update under an optimistic read: bound every access
+            int length = Math.min(keys.length, values.length);
+            int mask = length - 1;
+            int i = hash & mask;
+            for (int probes = 0; probes < length; probes++) {
+                Object value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return value;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+
+/**
+ * Approximate access frequencies of {@code long} keys in a count-min sketch of 4-bit counters.
+ * Each key maps to one counter in each of four rows; its estimate is the smallest of them.
+ * After ten increments per tracked key all counters are halved, so estimates follow
+ * recent popularity. Updates are unsynchronized: a lost increment under contention only
+ * blurs an estimate, which the eviction policy tolerates.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+    private static final long HALVE_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedKeys Number of keys whose frequencies matter, usually the cache capacity
+     */
+    FrequencySketch(int expectedKeys) {
+        int length = Integer.highestOneBit(Math.max(16, expectedKeys) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * Math.max(16, expectedKeys));
+    }
+
+    /**
+     * @return Estimated recent accesses of the key, from 0 to 15
+     */
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = mix(key, row);
+            frequency = Math.min(frequency, (int) (table[(int) hash & mask] >>> shift(hash, row)) & MAX_COUNT);
+        }
+        return frequency;
+    }
+
+    long retainedBytes() {
+        return MemoryEstimates.object(MemoryEstimates.REFERENCE + 3 * 4) + MemoryEstimates.array(table.length, Long.BYTES);
+    }
+
+    void increment(long key) {
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long hash = mix(key, row);
+            int index = (int) hash & mask;
+            int shift = shift(hash, row);
+            long word = table[index];
+            if (((word >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                table[index] = word + (1L << shift);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        additions = sampleSize / 2;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALVE_MASK;
+        }
+    }
+
+    private static long mix(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) & 3];
+        return hash ^ (hash >>> 31);
+    }
+
+    // Each row uses its own 16-bit quarter of the word, so rows sharing a word never collide
+    private static int shift(long hash, int row) {
+        return (row << 4) + ((int) (hash >>> 60) & 3) * 4;
+    }
+}
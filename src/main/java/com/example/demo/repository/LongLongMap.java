@@ -0,0 +1,143 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+
+/**
+ * Open-addressing map from primitive {@code long} keys to positive {@code long} values.
+ * Not thread-safe; callers guard it with their own lock. A value of 0 marks an empty slot,
+ * so 0 cannot be stored and is returned for absent keys.
+ */
+final class LongLongMap {
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 4 / 3) - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    long get(long key) {
+        int mask = values.length - 1;
+        for (int i = slot(key, mask); values[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The previous value, or 0
+     */
+    long put(long key, long value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Values must be positive");
+        }
+        int mask = values.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                long previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 4L > values.length * 3L) {
+            resize();
+        }
+        return 0;
+    }
+
+    /**
+     * Remove a key only if it still maps to the given value.
+     *
+     * @return true if removed
+     */
+    boolean remove(long key, long value) {
+        int mask = values.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == 0 || values[i] != value) {
+            return false;
+        }
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        for (int j = (i + 1) & mask; values[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            boolean staysPut = i <= j ? i < home && home <= j : i < home || home <= j;
+            if (!staysPut) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        values[i] = 0;
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return values.length;
+    }
+
+    /**
+     * @return Estimated bytes of the map and its tables
+     */
+    long retainedBytes() {
+        return MemoryEstimates.object(2 * MemoryEstimates.REFERENCE + 4)
+                + 2 * MemoryEstimates.array(values.length, Long.BYTES);
+    }
+
+    /**
+     * Visit entries in table order until the visitor returns false. The map must not be
+     * changed structurally during the visit; replacing values of visited keys is allowed.
+     */
+    void forEach(EntryVisitor visitor) {
+        long[] keys = this.keys;
+        long[] values = this.values;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != 0 && !visitor.visit(keys[i], values[i])) {
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        boolean visit(long key, long value);
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldValues.length * 2];
+        values = new long[oldValues.length * 2];
+        int mask = values.length - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != 0) {
+                int j = slot(oldKeys[i], mask);
+                while (values[j] != 0) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        int hash = Long.hashCode(key);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
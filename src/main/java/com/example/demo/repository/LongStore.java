@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.StructureFootprint;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Entity storage keyed by primitive {@code long} IDs, as seen by the repositories.
+ * Bulk reads are weakly consistent: each entry present for the whole call is returned once.
+ */
+interface LongStore<V> {
+
+    V get(long key);
+
+    /**
+     * Look up a value without counting it as an access, for internal bookkeeping reads.
+     */
+    default V peek(long key) {
+        return get(key);
+    }
+
+    boolean containsKey(long key);
+
+    /**
+     * @return The previous value, or null
+     */
+    V put(long key, V value);
+
+    /**
+     * @return The removed value, or null if the key was absent
+     */
+    V remove(long key);
+
+    int size();
+
+    /**
+     * Snapshot of all values.
+     *
+     * @return New mutable list
+     */
+    List<V> values();
+
+    /**
+     * Values matching a predicate. The predicate may run under a lock and must not write
+     * to this store.
+     *
+     * @return Unmodifiable list of matches
+     */
+    List<V> filter(Predicate<? super V> predicate);
+
+    /**
+     * Any value matching a predicate, under the same rules as {@link #filter}.
+     *
+     * @return A match, or null
+     */
+    V findAny(Predicate<? super V> predicate);
+
+    /**
+     * Estimated memory use, from sizes tracked on write.
+     *
+     * @param name Name of the store; structures it reports are named after it
+     */
+    List<StructureFootprint> footprint(String name);
+}
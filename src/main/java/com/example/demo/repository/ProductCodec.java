@@ -0,0 +1,98 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary form of a product for the cold tier: a presence bit per nullable field,
+ * then the fields as fixed-width numbers and length-prefixed UTF-8.
+ */
+final class ProductCodec implements TieredStore.Codec<Product> {
+
+    private static final int HAS_PRICE = 1;
+    private static final int HAS_STOCK = 2;
+    private static final int HAS_NAME = 4;
+    private static final int HAS_DESCRIPTION = 8;
+
+    @Override
+    public byte[] encode(Product product) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            BigDecimal price = product.getPrice();
+            Integer stock = product.getStock();
+            String name = product.getName();
+            String description = product.getDescription();
+            out.writeByte((price != null ? HAS_PRICE : 0) | (stock != null ? HAS_STOCK : 0)
+                    | (name != null ? HAS_NAME : 0) | (description != null ? HAS_DESCRIPTION : 0));
+            out.writeLong(product.getId());
+            if (price != null) {
+                byte[] unscaled = price.unscaledValue().toByteArray();
+                out.writeInt(price.scale());
+                out.writeShort(unscaled.length);
+                out.write(unscaled);
+            }
+            if (stock != null) {
+                out.writeInt(stock);
+            }
+            out.writeInt(product.getReserved());
+            if (name != null) {
+                writeString(out, name);
+            }
+            if (description != null) {
+                writeString(out, description);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Product decode(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            int present = in.readByte();
+            Product product = new Product();
+            product.setId(in.readLong());
+            if ((present & HAS_PRICE) != 0) {
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedShort()];
+                in.readFully(unscaled);
+                product.setPrice(new BigDecimal(new BigInteger(unscaled), scale));
+            }
+            if ((present & HAS_STOCK) != 0) {
+                product.setStock(in.readInt());
+            }
+            product.setReserved(in.readInt());
+            if ((present & HAS_NAME) != 0) {
+                product.setName(readString(in));
+            }
+            if ((present & HAS_DESCRIPTION) != 0) {
+                product.setDescription(readString(in));
+            }
+            return product;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] utf8 = new byte[in.readInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -1,29 +1,71 @@
 package com.example.demo.repository;
 
+import com.example.demo.events.ChangeType;
+import com.example.demo.events.EntityChange;
+import com.example.demo.events.EntityType;
+import com.example.demo.events.MutationPipeline;
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.MemoryFootprintSource;
+import com.example.demo.footprint.StructureFootprint;
 import com.example.demo.model.Product;
+import com.example.demo.profiling.RepositoryQueryEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Repository for managing Product entities with in-memory storage.
+ * Names and descriptions are also kept in a full-text index for ranked search.
+ * With tiering enabled, only the most frequently used products stay on the heap; the rest
+ * live encoded in a memory-mapped file (see {@link TieredStore}).
  */
 @Repository
-public class ProductRepository {
+public class ProductRepository implements MemoryFootprintSource {
 
-    private final Map<Long, Product> products = new ConcurrentHashMap<>();
+    private final LongStore<Product> products;
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AtomicLong modifications = new AtomicLong();
+    // Pipeline batches applied to the search index
+    private final AtomicLong indexedBatches = new AtomicLong();
+    private final MutationPipeline pipeline;
+    private final ChangeIndex changeIndex;
+    private final TextIndex searchIndex = new TextIndex();
 
-    public ProductRepository() {
-        // Initialize with some sample data
-        save(new Product("Laptop", "High-performance laptop", new BigDecimal("999.99"), 15));
-        save(new Product("Mouse", "Wireless mouse", new BigDecimal("29.99"), 50));
-        save(new Product("Keyboard", "Mechanical keyboard", new BigDecimal("89.99"), 30));
-        save(new Product("Monitor", "27-inch 4K monitor", new BigDecimal("399.99"), 20));
-        save(new Product("Headphones", "Noise-canceling headphones", new BigDecimal("199.99"), 25));
+    public ProductRepository(MutationPipeline pipeline,
+                             @Value("${app.sync.max-tombstones:100000}") int maxTombstones,
+                             @Value("${app.repository.sample-data:true}") boolean sampleData,
+                             @Value("${app.sharding.enabled:false}") boolean sharding,
+                             @Value("${app.repository.initial-capacity:1024}") int initialCapacity,
+                             @Value("${app.repository.tiering.enabled:false}") boolean tiering,
+                             @Value("${app.repository.tiering.hot-capacity:100000}") int hotCapacity,
+                             @Value("${app.repository.tiering.directory:${java.io.tmpdir}}") String tieringDirectory,
+                             @Value("${app.repository.tiering.chunk-size-mb:64}") int chunkSizeMb,
+                             MeterRegistry meterRegistry) {
+        this.products = tiering
+                ? new TieredStore<>(new ProductCodec(), MemoryEstimates::product, hotCapacity,
+                        Path.of(tieringDirectory), chunkSizeMb << 20, meterRegistry)
+                : new ConcurrentLongMap<>(initialCapacity, MemoryEstimates::product);
+        this.pipeline = pipeline;
+        this.changeIndex = new ChangeIndex(maxTombstones);
+        // Secondary structures are maintained by the pipeline's writer thread
+        // Bookkeeping reads use peek, so they do not count as accesses for tier placement
+        pipeline.registerResolver(EntityType.PRODUCT, id -> products.peek(id));
+        pipeline.addListener(this::indexChanges);
+
+        // Initialize with some sample data; every shard would seed the same ids, so shards never do
+        if (sampleData && !sharding) {
+            save(new Product("Laptop", "High-performance laptop", new BigDecimal("999.99"), 15));
+            save(new Product("Mouse", "Wireless mouse", new BigDecimal("29.99"), 50));
+            save(new Product("Keyboard", "Mechanical keyboard", new BigDecimal("89.99"), 30));
+            save(new Product("Monitor", "27-inch 4K monitor", new BigDecimal("399.99"), 20));
+            save(new Product("Headphones", "Noise-canceling headphones", new BigDecimal("199.99"), 25));
+        }
     }
 
     /**
@@ -32,7 +74,7 @@ public class ProductRepository {
      * @return List of all products
      */
     public List<Product> findAll() {
-        return new ArrayList<>(products.values());
+        return QueryProbe.values(products, "Product", "findAll");
     }
 
     /**
@@ -45,6 +87,30 @@ public class ProductRepository {
         return Optional.ofNullable(products.get(id));
     }
 
+    /**
+     * Find product by ID without boxing or wrapping, for the by-ID read path.
+     *
+     * @param id Product ID
+     * @return The product, or null if not found
+     */
+    public Product findByIdOrNull(long id) {
+        return products.get(id);
+    }
+
+    /**
+     * Find many products by ID in one pass.
+     *
+     * @param ids Product IDs, possibly repeated
+     * @return The product for each ID in the same order, null where not found
+     */
+    public List<Product> findAllById(List<Long> ids) {
+        List<Product> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            found.add(products.get(id));
+        }
+        return found;
+    }
+
     /**
      * Find products by name (case-insensitive partial match).
      *
@@ -52,9 +118,32 @@ public class ProductRepository {
      * @return List of matching products
      */
     public List<Product> findByNameContaining(String name) {
-        return products.values().stream()
-                .filter(product -> product.getName().toLowerCase().contains(name.toLowerCase()))
-                .toList();
+        return QueryProbe.filter(products, "Product", "findByNameContaining",
+                product -> product.getName().toLowerCase().contains(name.toLowerCase()));
+    }
+
+    /**
+     * Full-text search over name and description, ranked by BM25 relevance.
+     * The index is maintained by the write pipeline, so it can trail the latest writes by
+     * the pipeline's flush interval; cache results under {@link #searchVersion()}.
+     *
+     * @param query Search terms; a term followed by {@code *} matches as a prefix
+     * @param limit Maximum number of results
+     * @return Matching products with their scores, best first
+     */
+    public List<SearchHit<Product>> search(String query, int limit) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.begin();
+        TextIndex.Hits hits = searchIndex.search(query, limit);
+        List<SearchHit<Product>> results = new ArrayList<>(hits.ids().length);
+        for (int i = 0; i < hits.ids().length; i++) {
+            Product product = products.peek(hits.ids()[i]);
+            if (product != null) {
+                results.add(new SearchHit<>(product, hits.scores()[i]));
+            }
+        }
+        QueryProbe.commit(event, "Product", "search", hits.scanned(), results.size());
+        return results;
     }
 
     /**
@@ -65,10 +154,9 @@ public class ProductRepository {
      * @return List of products in the price range
      */
     public List<Product> findByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return products.values().stream()
-                .filter(product -> product.getPrice().compareTo(minPrice) >= 0
-                        && product.getPrice().compareTo(maxPrice) <= 0)
-                .toList();
+        return QueryProbe.filter(products, "Product", "findByPriceRange",
+                product -> product.getPrice().compareTo(minPrice) >= 0
+                        && product.getPrice().compareTo(maxPrice) <= 0);
     }
 
     /**
@@ -77,9 +165,7 @@ public class ProductRepository {
      * @return List of products with stock > 0
      */
     public List<Product> findInStock() {
-        return products.values().stream()
-                .filter(Product::isInStock)
-                .toList();
+        return QueryProbe.filter(products, "Product", "findInStock", Product::isInStock);
     }
 
     /**
@@ -88,9 +174,7 @@ public class ProductRepository {
      * @return List of products with stock = 0
      */
     public List<Product> findOutOfStock() {
-        return products.values().stream()
-                .filter(product -> !product.isInStock())
-                .toList();
+        return QueryProbe.filter(products, "Product", "findOutOfStock", product -> !product.isInStock());
     }
 
     /**
@@ -104,9 +188,42 @@ public class ProductRepository {
             product.setId(idGenerator.getAndIncrement());
         }
         products.put(product.getId(), product);
+        modifications.incrementAndGet();
+        pipeline.submit(EntityType.PRODUCT, product.getId());
         return product;
     }
 
+    /**
+     * Insert a batch of products as part of a bulk load.
+     * Bypasses the write pipeline: the products publish no change events and delta sync clients
+     * resynchronize from a full read instead. Explicit IDs are kept and move the ID generator
+     * past them.
+     *
+     * @param batch Products to insert; products without an ID get one assigned
+     * @return Number of products that replaced an existing one with the same ID
+     */
+    public int loadBaseline(Collection<Product> batch) {
+        int replaced = 0;
+        List<TextIndex.Document> documents = new ArrayList<>(batch.size());
+        long maxId = 0;
+        for (Product product : batch) {
+            if (product.getId() == null) {
+                product.setId(idGenerator.getAndIncrement());
+            } else {
+                maxId = Math.max(maxId, product.getId());
+            }
+            if (products.put(product.getId(), product) != null) {
+                replaced++;
+            }
+            documents.add(TextIndex.analyze(product.getId(), product.getName(), product.getDescription()));
+        }
+        searchIndex.indexAll(documents);
+        idGenerator.accumulateAndGet(maxId + 1, Math::max);
+        modifications.incrementAndGet();
+        changeIndex.rebase();
+        return replaced;
+    }
+
     /**
      * Delete product by ID.
      *
@@ -114,7 +231,12 @@ public class ProductRepository {
      * @return true if deleted, false if not found
      */
     public boolean deleteById(Long id) {
-        return products.remove(id) != null;
+        if (products.remove(id) == null) {
+            return false;
+        }
+        modifications.incrementAndGet();
+        pipeline.submit(EntityType.PRODUCT, id);
+        return true;
     }
 
     /**
@@ -135,4 +257,95 @@ public class ProductRepository {
     public long count() {
         return products.size();
     }
+
+    /**
+     * Find products changed after a modification sequence.
+     * Each changed product is reported once, in its current state, or as a deletion.
+     *
+     * @param since Last sequence already seen by the caller, 0 for everything
+     * @param limit Maximum number of changes to return
+     * @return Upserts and deletions after the given sequence
+     */
+    public ChangeSet<Product> findChangedSince(long since, int limit) {
+        // Read first: anything recorded while scanning gets a higher sequence and is seen next time
+        long current = changeIndex.currentSequence();
+        if (changeIndex.requiresResync(since)) {
+            return new ChangeSet<>(current, true, false, List.of(), List.of());
+        }
+
+        List<ChangeIndex.Entry> entries = changeIndex.changesSince(since, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+
+        List<Product> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        long last = since;
+        for (ChangeIndex.Entry entry : entries) {
+            Product product = entry.deleted() ? null : products.peek(entry.id());
+            if (product == null) {
+                deletes.add(entry.id());
+            } else {
+                upserts.add(product);
+            }
+            last = entry.sequence();
+        }
+        return new ChangeSet<>(hasMore ? last : Math.max(current, last), false, hasMore, upserts, deletes);
+    }
+
+    private void indexChanges(List<EntityChange> changes) {
+        boolean indexed = false;
+        for (EntityChange change : changes) {
+            if (change.entityType() == EntityType.PRODUCT) {
+                changeIndex.record(change.id(), change.type() == ChangeType.DELETE);
+                Product product = change.type() == ChangeType.DELETE ? null : products.peek(change.id());
+                if (product == null) {
+                    searchIndex.remove(change.id());
+                } else {
+                    searchIndex.index(change.id(), product.getName(), product.getDescription());
+                }
+                indexed = true;
+            }
+        }
+        if (indexed) {
+            indexedBatches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get the number of mutations applied so far.
+     * Changes whenever any product is saved or deleted, so it can be used to validate caches.
+     *
+     * @return Monotonic modification counter
+     */
+    public long modificationCount() {
+        return modifications.get();
+    }
+
+    /**
+     * Version of the search results. Changes on every mutation and again once the search index
+     * has applied it, so a result computed while the index still trailed a write is not kept
+     * past that point.
+     *
+     * @return Monotonic counter for validating cached search results
+     */
+    public long searchVersion() {
+        return modifications.get() + indexedBatches.get();
+    }
+
+    @Override
+    public List<StructureFootprint> footprint() {
+        List<StructureFootprint> structures = new ArrayList<>(products.footprint("products"));
+        structures.add(searchIndex.footprint("products.search-index"));
+        structures.add(changeIndex.footprint("products.change-index"));
+        return structures;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (products instanceof TieredStore<Product> tiered) {
+            tiered.close();
+        }
+    }
 }
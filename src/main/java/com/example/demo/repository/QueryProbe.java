@@ -0,0 +1,87 @@
+package com.example.demo.repository;
+
+import com.example.demo.profiling.RepositoryQueryEvent;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Runs repository scans and reports each as a {@link RepositoryQueryEvent}.
+ * While no recording has the event enabled, the scan runs on the caller's predicate
+ * unchanged; only then is the predicate wrapped to count the candidates it examines.
+ */
+final class QueryProbe {
+
+    private QueryProbe() {
+    }
+
+    static <V> List<V> filter(LongStore<V> map, String entity, String query,
+                              Predicate<? super V> predicate) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return map.filter(predicate);
+        }
+        event.begin();
+        Counting<V> counting = new Counting<>(predicate);
+        List<V> result = map.filter(counting);
+        commit(event, entity, query, counting.scanned, result.size());
+        return result;
+    }
+
+    static <V> V findAny(LongStore<V> map, String entity, String query,
+                         Predicate<? super V> predicate) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return map.findAny(predicate);
+        }
+        event.begin();
+        Counting<V> counting = new Counting<>(predicate);
+        V result = map.findAny(counting);
+        commit(event, entity, query, counting.scanned, result == null ? 0 : 1);
+        return result;
+    }
+
+    static <V> List<V> values(LongStore<V> map, String entity, String query) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        if (!event.isEnabled()) {
+            return map.values();
+        }
+        event.begin();
+        List<V> result = map.values();
+        commit(event, entity, query, result.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Finish and report a query that was timed by the caller.
+     */
+    static void commit(RepositoryQueryEvent event, String entity, String query, long scanned, long results) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.entity = entity;
+            event.query = query;
+            event.scanned = scanned;
+            event.results = results;
+            event.commit();
+        }
+    }
+
+    /**
+     * Predicate counting its invocations; scans run on the calling thread only.
+     */
+    private static final class Counting<V> implements Predicate<V> {
+
+        private final Predicate<? super V> delegate;
+        private long scanned;
+
+        Counting(Predicate<? super V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean test(V value) {
+            scanned++;
+            return delegate.test(value);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+/**
+ * One result of a relevance-ranked search.
+ *
+ * @param item  The matching entity
+ * @param score Relevance; higher is better, comparable within one search
+ */
+public record SearchHit<T>(T item, double score) {
+}
@@ -0,0 +1,493 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.StructureFootprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over a name and a description, ranked with BM25.
+ * Text is split into lowercase runs of letters and digits; name terms count twice towards
+ * a term's frequency. Each term keeps its postings as varint-encoded document-number gaps
+ * and frequencies in one byte array. Documents are numbered in insertion order, so a posting
+ * is always appended at the end.
+ *
+ * <p>Re-indexing or removing an entity only marks its old document deleted. Once deleted
+ * documents outnumber live ones, the postings are rewritten without them. Re-indexing an
+ * entity whose text is unchanged is free: each document keeps a 64-bit digest of its text to
+ * detect that, rather than the strings, so the index never pins entities a tiered store has
+ * moved off the heap. Searches share a read lock; updates take the write lock.
+ */
+final class TextIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 2;
+    private static final int MAX_EXPANSIONS = 256;
+    private static final int MIN_DELETED_BEFORE_COMPACTION = 1024;
+    // Tree map entry and postings object of a term, besides its string and posting bytes
+    private static final long TERM_BYTES = MemoryEstimates.object(5 * MemoryEstimates.REFERENCE + 1)
+            + MemoryEstimates.object(MemoryEstimates.REFERENCE + 3 * 4);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Everything below is guarded by lock
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final LongLongMap documentById = new LongLongMap(1024);
+    private final BitSet deleted = new BitSet();
+    private long[] ids = new long[1024];
+    private int[] lengths = new int[1024];
+    private long[] digests = new long[1024];
+    private int documentCount;
+    private int deletedCount;
+    private long liveLength;
+    // Running totals of the term strings and posting arrays, for the footprint
+    private long termBytes;
+    private long postingBytes;
+
+    /**
+     * Entity text, split into terms outside the lock.
+     */
+    record Document(long id, long digest, Map<String, Integer> frequencies, int length) {
+    }
+
+    /**
+     * Ranked matches, best first.
+     *
+     * @param ids     Entity IDs
+     * @param scores  BM25 score of each entity
+     * @param scanned Postings examined
+     */
+    record Hits(long[] ids, float[] scores, long scanned) {
+    }
+
+    static Document analyze(long id, String name, String description) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(name, NAME_WEIGHT, frequencies) + count(description, 1, frequencies);
+        return new Document(id, digest(name, description), frequencies, length);
+    }
+
+    /**
+     * Add an entity, replacing what was indexed for its ID before.
+     */
+    void index(long id, String name, String description) {
+        lock.readLock().lock();
+        try {
+            if (isCurrent(id, digest(name, description))) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        indexAll(List.of(analyze(id, name, description)));
+    }
+
+    void indexAll(Collection<Document> documents) {
+        lock.writeLock().lock();
+        try {
+            for (Document document : documents) {
+                if (!isCurrent(document.id(), document.digest())) {
+                    removeLocked(document.id());
+                    addLocked(document);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank entities against a query. A query matches entities containing any of its terms;
+     * a term followed by {@code *} also matches longer terms starting with it.
+     *
+     * @param query Search terms
+     * @param limit Maximum number of hits
+     * @return Hits, best first
+     */
+    Hits search(String query, int limit) {
+        Map<String, Boolean> queryTerms = parseQuery(query);
+        lock.readLock().lock();
+        try {
+            int live = documentCount - deletedCount;
+            if (live == 0 || queryTerms.isEmpty()) {
+                return new Hits(new long[0], new float[0], 0);
+            }
+            float averageLength = Math.max(1f, (float) liveLength / live);
+            Scores total = null;
+            long scanned = 0;
+            for (Map.Entry<String, Boolean> queryTerm : queryTerms.entrySet()) {
+                Collection<Postings> matches = expand(queryTerm.getKey(), queryTerm.getValue());
+                // A prefix counts once per entity, with its best-scoring expansion
+                Scores termScores = null;
+                for (Postings postings : matches) {
+                    scanned += postings.count;
+                    Scores scores = score(postings, live, averageLength);
+                    termScores = termScores == null ? scores : Scores.merge(termScores, scores, false);
+                }
+                if (termScores != null) {
+                    total = total == null ? termScores : Scores.merge(total, termScores, true);
+                }
+            }
+            return total == null ? new Hits(new long[0], new float[0], scanned) : top(total, limit, scanned);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated memory use: terms, postings and the per-document arrays.
+     */
+    StructureFootprint footprint(String name) {
+        lock.readLock().lock();
+        try {
+            int capacity = ids.length;
+            long bytes = terms.size() * TERM_BYTES + termBytes + postingBytes
+                    + documentById.retainedBytes() + MemoryEstimates.array(deleted.size() / Long.SIZE, Long.BYTES)
+                    + 2 * MemoryEstimates.array(capacity, Long.BYTES) + MemoryEstimates.array(capacity, Integer.BYTES);
+            return StructureFootprint.heap(name, documentCount - deletedCount, bytes,
+                    (double) documentById.size() / documentById.capacity());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isCurrent(long id, long digest) {
+        int document = (int) documentById.get(id) - 1;
+        return document >= 0 && digests[document] == digest;
+    }
+
+    private void addLocked(Document document) {
+        int number = documentCount++;
+        if (number == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            digests = Arrays.copyOf(digests, capacity);
+        }
+        ids[number] = document.id();
+        lengths[number] = document.length();
+        digests[number] = document.digest();
+        liveLength += document.length();
+        documentById.put(document.id(), number + 1L);
+        for (Map.Entry<String, Integer> term : document.frequencies().entrySet()) {
+            Postings postings = terms.get(term.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(term.getKey(), postings);
+                termBytes += MemoryEstimates.string(term.getKey());
+                postingBytes += postings.retainedBytes();
+            }
+            long before = postings.retainedBytes();
+            postings.append(number, term.getValue());
+            postingBytes += postings.retainedBytes() - before;
+        }
+    }
+
+    private void removeLocked(long id) {
+        long stored = documentById.get(id);
+        if (stored == 0) {
+            return;
+        }
+        int document = (int) stored - 1;
+        documentById.remove(id, stored);
+        deleted.set(document);
+        deletedCount++;
+        liveLength -= lengths[document];
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETED_BEFORE_COMPACTION || deletedCount < documentCount - deletedCount) {
+            return;
+        }
+        int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (deleted.get(document)) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                ids[live] = ids[document];
+                lengths[live] = lengths[document];
+                digests[live] = digests[document];
+                documentById.put(ids[live], live + 1L);
+                live++;
+            }
+        }
+
+        Iterator<Map.Entry<String, Postings>> entries = terms.entrySet().iterator();
+        postingBytes = 0;
+        while (entries.hasNext()) {
+            Map.Entry<String, Postings> entry = entries.next();
+            Postings rewritten = entry.getValue().renumber(renumbered);
+            if (rewritten.count == 0) {
+                termBytes -= MemoryEstimates.string(entry.getKey());
+                entries.remove();
+            } else {
+                entry.setValue(rewritten);
+                postingBytes += rewritten.retainedBytes();
+            }
+        }
+        documentCount = live;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private Collection<Postings> expand(String term, boolean prefix) {
+        if (!prefix) {
+            Postings postings = terms.get(term);
+            return postings == null ? List.of() : List.of(postings);
+        }
+        List<Postings> matches = new ArrayList<>();
+        for (Postings postings : terms.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+            matches.add(postings);
+            if (matches.size() == MAX_EXPANSIONS) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private Scores score(Postings postings, int live, float averageLength) {
+        Scores scores = new Scores(postings.count);
+        int[] frequencies = new int[postings.count];
+        postings.forEach((document, frequency) -> {
+            if (!deleted.get(document)) {
+                frequencies[scores.size] = frequency;
+                scores.documents[scores.size++] = document;
+            }
+        });
+        int df = scores.size;
+        float idf = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < scores.size; i++) {
+            float tf = frequencies[i];
+            float norm = K1 * (1 - B + B * lengths[scores.documents[i]] / averageLength);
+            scores.values[i] = idf * tf * (K1 + 1) / (tf + norm);
+        }
+        return scores;
+    }
+
+    private Hits top(Scores scores, int limit, long scanned) {
+        // Min-heap of the best positions so far; ties go to the lower ID
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, scores.size) + 1, (a, b) -> {
+            int byScore = Float.compare(scores.values[a], scores.values[b]);
+            return byScore != 0 ? byScore : Long.compare(ids[scores.documents[b]], ids[scores.documents[a]]);
+        });
+        for (int i = 0; i < scores.size; i++) {
+            best.add(i);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        int count = best.size();
+        long[] hitIds = new long[count];
+        float[] hitScores = new float[count];
+        for (int i = count - 1; i >= 0; i--) {
+            int position = best.poll();
+            hitIds[i] = ids[scores.documents[position]];
+            hitScores[i] = scores.values[position];
+        }
+        return new Hits(hitIds, hitScores, scanned);
+    }
+
+    /**
+     * 64-bit FNV-1a over both texts, with a distinct marker for null and a separator between them.
+     */
+    static long digest(String name, String description) {
+        return digest(digest(0xcbf29ce484222325L, name), description);
+    }
+
+    private static long digest(long hash, String text) {
+        if (text == null) {
+            return (hash ^ 0x1_0000) * 0x100000001b3L;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+        }
+        return (hash ^ 0x1_0001) * 0x100000001b3L;
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        if (text == null) {
+            return 0;
+        }
+        int tokens = 0;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                frequencies.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                tokens++;
+                start = -1;
+            }
+        }
+        return tokens * weight;
+    }
+
+    /**
+     * Query terms in order of appearance, each mapped to whether it is a prefix.
+     */
+    private static Map<String, Boolean> parseQuery(String query) {
+        Map<String, Boolean> terms = new LinkedHashMap<>();
+        int start = -1;
+        for (int i = 0; i <= query.length(); i++) {
+            boolean inToken = i < query.length() && Character.isLetterOrDigit(query.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                boolean prefix = i < query.length() && query.charAt(i) == '*';
+                terms.merge(query.substring(start, i).toLowerCase(Locale.ROOT), prefix, Boolean::logicalOr);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Varint-encoded (document gap, frequency) pairs in ascending document order.
+     */
+    private static final class Postings {
+
+        private byte[] data = new byte[4];
+        private int size;
+        private int count;
+        private int lastDocument;
+
+        void append(int document, int frequency) {
+            if (size + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(size + 10, data.length + (data.length >> 1)));
+            }
+            writeVarint(document - lastDocument);
+            writeVarint(frequency);
+            lastDocument = document;
+            count++;
+        }
+
+        long retainedBytes() {
+            return MemoryEstimates.array(data.length, 1);
+        }
+
+        Postings renumber(int[] renumbered) {
+            Postings rewritten = new Postings();
+            forEach((document, frequency) -> {
+                if (renumbered[document] >= 0) {
+                    rewritten.append(renumbered[document], frequency);
+                }
+            });
+            rewritten.data = Arrays.copyOf(rewritten.data, rewritten.size);
+            return rewritten;
+        }
+
+        void forEach(PostingConsumer consumer) {
+            int document = 0;
+            int position = 0;
+            while (position < size) {
+                int gap = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                int frequency = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[position++];
+                    frequency |= (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        break;
+                    }
+                }
+                document += gap;
+                consumer.accept(document, frequency);
+            }
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PostingConsumer {
+        void accept(int document, int frequency);
+    }
+
+    /**
+     * Scores for documents in ascending order.
+     */
+    private static final class Scores {
+
+        private final int[] documents;
+        private final float[] values;
+        private int size;
+
+        Scores(int capacity) {
+            documents = new int[capacity];
+            values = new float[capacity];
+        }
+
+        /**
+         * Union of two score lists, adding or keeping the higher score where both have a document.
+         */
+        static Scores merge(Scores a, Scores b, boolean add) {
+            Scores merged = new Scores(a.size + b.size);
+            int i = 0;
+            int j = 0;
+            while (i < a.size || j < b.size) {
+                int next;
+                float value;
+                if (j == b.size || (i < a.size && a.documents[i] < b.documents[j])) {
+                    next = a.documents[i];
+                    value = a.values[i++];
+                } else if (i == a.size || b.documents[j] < a.documents[i]) {
+                    next = b.documents[j];
+                    value = b.values[j++];
+                } else {
+                    next = a.documents[i];
+                    value = add ? a.values[i++] + b.values[j++] : Math.max(a.values[i++], b.values[j++]);
+                }
+                merged.documents[merged.size] = next;
+                merged.values[merged.size++] = value;
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,509 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.StructureFootprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.Closeable;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Store that keeps frequently used values as objects in a bounded hot tier and encodes the
+ * rest into a memory-mapped {@link ColdFile}, so heap use follows the working set rather
+ * than the number of entries.
+ *
+ * <p>Admission and eviction are frequency-based (TinyLFU): accesses are counted in a
+ * {@link FrequencySketch}, the eviction victim is the least frequent of a random sample of
+ * hot keys, and a cold or new key only enters a full hot tier if it is used more often than
+ * that victim. Otherwise a write goes straight to the cold tier and a read is served from it.
+ *
+ * <p>Hot hits take no lock. Tier moves and writes hold the write lock; cold reads and scans
+ * hold the read lock, so a scan sees every entry exactly once. Callers lock and mutate values
+ * in place, so a cold value is decoded once and shared for as long as anything references
+ * it: lookups never hand out two live copies of one entry. Every in-place change must be
+ * followed by {@link #put}, which stores the value again; a value dropped by all callers
+ * is read back from its record.
+ *
+ * <p>Superseded records are garbage. Once they outweigh the live ones the file is
+ * rewritten with only live records.
+ */
+final class TieredStore<V> implements LongStore<V>, Closeable {
+
+    private static final int VICTIM_SAMPLE = 8;
+    // Weak reference with its key
+    private static final long SHARED_BYTES = MemoryEstimates.object(4 * MemoryEstimates.REFERENCE + Long.BYTES);
+
+    /**
+     * Binary form of the stored values.
+     */
+    interface Codec<V> {
+
+        byte[] encode(V value);
+
+        V decode(byte[] record);
+    }
+
+    private final Codec<V> codec;
+    private final int hotCapacity;
+    private final Path directory;
+    private final int chunkBytes;
+    private final FrequencySketch sketch;
+    private final ConcurrentLongMap<V> hot;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by the lock: written under the write lock, read under either
+    private final long[] hotKeys;
+    private final LongLongMap hotSlots;
+    private int hotCount;
+    private final LongLongMap coldAddresses = new LongLongMap(1024);
+    private volatile ColdFile coldFile;
+    private long coldLiveBytes;
+    private volatile int coldCount;
+
+    // Decoded cold values still in use somewhere; installs and cleanup synchronize on the map
+    private final ConcurrentLongMap<Shared<V>> shared = new ConcurrentLongMap<>(1024);
+    private final ReferenceQueue<V> unreferenced = new ReferenceQueue<>();
+
+    private final Counter hotHits;
+    private final Counter coldHits;
+    private final Counter promotions;
+    private final Counter evictions;
+    private final Counter compactions;
+
+    TieredStore(Codec<V> codec, ToIntFunction<? super V> sizer, int hotCapacity, Path directory, int chunkBytes,
+                MeterRegistry meterRegistry) {
+        if (hotCapacity <= 0) {
+            throw new IllegalArgumentException("Hot tier capacity must be positive");
+        }
+        this.codec = codec;
+        this.hotCapacity = hotCapacity;
+        this.directory = directory;
+        this.chunkBytes = chunkBytes;
+        this.sketch = new FrequencySketch(hotCapacity);
+        this.hot = new ConcurrentLongMap<>(hotCapacity, sizer);
+        this.hotKeys = new long[hotCapacity];
+        this.hotSlots = new LongLongMap(hotCapacity);
+        this.coldFile = new ColdFile(directory, chunkBytes);
+
+        Gauge.builder("app.repository.tier.entries", hot, ConcurrentLongMap::size)
+                .tag("tier", "hot").register(meterRegistry);
+        Gauge.builder("app.repository.tier.entries", this, store -> store.coldCount)
+                .tag("tier", "cold").register(meterRegistry);
+        Gauge.builder("app.repository.tier.cold.file.bytes", this, store -> store.coldFile.length())
+                .description("Bytes of the cold tier file in use, superseded records included")
+                .register(meterRegistry);
+        this.hotHits = Counter.builder("app.repository.tier.hits").tag("tier", "hot").register(meterRegistry);
+        this.coldHits = Counter.builder("app.repository.tier.hits").tag("tier", "cold").register(meterRegistry);
+        this.promotions = Counter.builder("app.repository.tier.promotions").register(meterRegistry);
+        this.evictions = Counter.builder("app.repository.tier.evictions").register(meterRegistry);
+        this.compactions = Counter.builder("app.repository.tier.compactions").register(meterRegistry);
+    }
+
+    @Override
+    public V get(long key) {
+        V value = hot.get(key);
+        if (value != null) {
+            sketch.increment(key);
+            hotHits.increment();
+            return value;
+        }
+        boolean admit;
+        lock.readLock().lock();
+        try {
+            // Recheck: a promotion may have completed since the lock-free miss
+            value = hot.get(key);
+            if (value != null) {
+                hotHits.increment();
+                return value;
+            }
+            long address = coldAddresses.get(key);
+            if (address == 0) {
+                return null;
+            }
+            value = shared(key, address - 1);
+            sketch.increment(key);
+            coldHits.increment();
+            admit = admits(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (admit) {
+            lock.writeLock().lock();
+            try {
+                promote(key);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public V peek(long key) {
+        V value = hot.get(key);
+        if (value != null) {
+            return value;
+        }
+        lock.readLock().lock();
+        try {
+            value = hot.get(key);
+            if (value != null) {
+                return value;
+            }
+            long address = coldAddresses.get(key);
+            return address == 0 ? null : shared(key, address - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(long key) {
+        if (hot.containsKey(key)) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            return hot.containsKey(key) || coldAddresses.get(key) != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("Null values are not supported");
+        }
+        lock.writeLock().lock();
+        try {
+            releaseUnreferenced();
+            sketch.increment(key);
+            V previous = hot.get(key);
+            if (previous != null) {
+                hot.put(key, value);
+                return previous;
+            }
+            long address = coldAddresses.get(key);
+            previous = address == 0 ? null : shared(key, address - 1);
+            if (hotCount >= hotCapacity) {
+                long victim = victim();
+                if (sketch.frequency(key) <= sketch.frequency(victim)) {
+                    writeCold(key, value, address);
+                    return previous;
+                }
+                evict(victim);
+                // Eviction may have compacted the file and moved the record
+                address = coldAddresses.get(key);
+            }
+            if (address != 0) {
+                dropCold(key, address);
+            }
+            addHot(key, value);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public V remove(long key) {
+        lock.writeLock().lock();
+        try {
+            V previous = hot.get(key);
+            if (previous != null) {
+                removeHot(key);
+                return previous;
+            }
+            long address = coldAddresses.get(key);
+            if (address == 0) {
+                return null;
+            }
+            previous = shared(key, address - 1);
+            dropCold(key, address);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return hot.size() + coldCount;
+    }
+
+    @Override
+    public List<V> values() {
+        lock.readLock().lock();
+        try {
+            List<V> values = hot.values();
+            coldAddresses.forEach((key, address) -> {
+                values.add(shared(key, address - 1));
+                return true;
+            });
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<V> filter(Predicate<? super V> predicate) {
+        lock.readLock().lock();
+        try {
+            List<V> matches = new ArrayList<>(hot.filter(predicate));
+            coldAddresses.forEach((key, address) -> {
+                V match = scan(key, address - 1, predicate);
+                if (match != null) {
+                    matches.add(match);
+                }
+                return true;
+            });
+            return Collections.unmodifiableList(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public V findAny(Predicate<? super V> predicate) {
+        lock.readLock().lock();
+        try {
+            V match = hot.findAny(predicate);
+            if (match != null) {
+                return match;
+            }
+            List<V> found = new ArrayList<>(1);
+            coldAddresses.forEach((key, address) -> {
+                V candidate = scan(key, address - 1, predicate);
+                if (candidate != null) {
+                    found.add(candidate);
+                }
+                return found.isEmpty();
+            });
+            return found.isEmpty() ? null : found.get(0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The hot tier with its policy state, the cold index, and the cold file off the heap.
+     * Shared cold values are retained by whoever holds them and are not counted.
+     */
+    @Override
+    public List<StructureFootprint> footprint(String name) {
+        lock.readLock().lock();
+        try {
+            StructureFootprint hotMap = hot.footprint(name).get(0);
+            long hotBytes = hotMap.retainedBytes() + MemoryEstimates.array(hotKeys.length, Long.BYTES)
+                    + hotSlots.retainedBytes() + sketch.retainedBytes();
+            int sharedCount = shared.size();
+            long coldIndexBytes = coldAddresses.retainedBytes()
+                    + shared.footprint(name).get(0).retainedBytes() + sharedCount * SHARED_BYTES;
+            long fileLength = coldFile.length();
+            return List.of(
+                    StructureFootprint.heap(name + ".hot", hotCount, hotBytes, (double) hotCount / hotCapacity),
+                    StructureFootprint.heap(name + ".cold-index", coldCount, coldIndexBytes,
+                            (double) coldAddresses.size() / coldAddresses.capacity()),
+                    StructureFootprint.offHeap(name + ".cold-file", coldCount, fileLength,
+                            fileLength == 0 ? null : (double) coldLiveBytes / fileLength));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            coldFile.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a cold key would displace a hot one. Called under either lock.
+     */
+    private boolean admits(long key) {
+        return hotCount < hotCapacity || sketch.frequency(key) > sketch.frequency(victim());
+    }
+
+    /**
+     * Least frequent of a random sample of hot keys. The hot tier must not be empty.
+     */
+    private long victim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long victim = hotKeys[random.nextInt(hotCount)];
+        int victimFrequency = sketch.frequency(victim);
+        for (int i = 1; i < VICTIM_SAMPLE && victimFrequency > 0; i++) {
+            long candidate = hotKeys[random.nextInt(hotCount)];
+            int frequency = sketch.frequency(candidate);
+            if (frequency < victimFrequency) {
+                victim = candidate;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private void promote(long key) {
+        // The key may have been promoted, rewritten or removed since the read lock was released
+        long address = coldAddresses.get(key);
+        if (address == 0) {
+            return;
+        }
+        if (hotCount >= hotCapacity) {
+            long victim = victim();
+            if (sketch.frequency(key) <= sketch.frequency(victim)) {
+                return;
+            }
+            evict(victim);
+            address = coldAddresses.get(key);
+        }
+        V value = shared(key, address - 1);
+        dropCold(key, address);
+        addHot(key, value);
+        promotions.increment();
+    }
+
+    private void evict(long key) {
+        V value = hot.get(key);
+        // Shared before it leaves the hot tier, so holders of the object keep seeing the one copy
+        writeCold(key, value, 0);
+        removeHot(key);
+        evictions.increment();
+    }
+
+    private void addHot(long key, V value) {
+        hotKeys[hotCount] = key;
+        hotSlots.put(key, hotCount + 1);
+        hotCount++;
+        hot.put(key, value);
+    }
+
+    private void removeHot(long key) {
+        long slot = hotSlots.get(key);
+        hotSlots.remove(key, slot);
+        hotCount--;
+        if (slot - 1 != hotCount) {
+            long moved = hotKeys[hotCount];
+            hotKeys[(int) slot - 1] = moved;
+            hotSlots.put(moved, slot);
+        }
+        hot.remove(key);
+    }
+
+    private void writeCold(long key, V value, long previousAddress) {
+        long address = coldFile.append(codec.encode(value));
+        if (previousAddress != 0) {
+            coldLiveBytes -= coldFile.sizeOf(previousAddress - 1);
+        } else {
+            coldCount++;
+        }
+        coldLiveBytes += coldFile.sizeOf(address);
+        coldAddresses.put(key, address + 1);
+        shared.put(key, new Shared<>(key, value, unreferenced));
+        compactIfSparse();
+    }
+
+    private void dropCold(long key, long address) {
+        coldLiveBytes -= coldFile.sizeOf(address - 1);
+        coldAddresses.remove(key, address);
+        coldCount--;
+        shared.remove(key);
+    }
+
+    /**
+     * The one live instance of a cold value, decoding it if no one holds it. Called under either lock.
+     */
+    private V shared(long key, long address) {
+        Shared<V> reference = shared.get(key);
+        V value = reference == null ? null : reference.get();
+        if (value != null) {
+            return value;
+        }
+        return install(key, codec.decode(coldFile.read(address)));
+    }
+
+    /**
+     * A cold value for a scan. Values that fail the predicate are not installed as shared.
+     *
+     * @return The value if it matches, else null
+     */
+    private V scan(long key, long address, Predicate<? super V> predicate) {
+        Shared<V> reference = shared.get(key);
+        V value = reference == null ? null : reference.get();
+        if (value != null) {
+            return predicate.test(value) ? value : null;
+        }
+        V decoded = codec.decode(coldFile.read(address));
+        return predicate.test(decoded) ? install(key, decoded) : null;
+    }
+
+    private V install(long key, V decoded) {
+        synchronized (shared) {
+            releaseUnreferenced();
+            Shared<V> reference = shared.get(key);
+            V value = reference == null ? null : reference.get();
+            if (value != null) {
+                // Another reader decoded it first; keep a single instance
+                return value;
+            }
+            shared.put(key, new Shared<>(key, decoded, unreferenced));
+            return decoded;
+        }
+    }
+
+    private void releaseUnreferenced() {
+        synchronized (shared) {
+            for (Object polled = unreferenced.poll(); polled != null; polled = unreferenced.poll()) {
+                Shared<?> reference = (Shared<?>) polled;
+                if (shared.get(reference.key) == reference) {
+                    shared.remove(reference.key);
+                }
+            }
+        }
+    }
+
+    private void compactIfSparse() {
+        long length = coldFile.length();
+        if (length < chunkBytes || length <= 2 * coldLiveBytes) {
+            return;
+        }
+        ColdFile previous = coldFile;
+        ColdFile compacted = new ColdFile(directory, chunkBytes);
+        coldAddresses.forEach((key, address) -> {
+            coldAddresses.put(key, compacted.append(previous.read(address - 1)) + 1);
+            return true;
+        });
+        coldFile = compacted;
+        previous.close();
+        compactions.increment();
+    }
+
+    /**
+     * Weak reference to a shared cold value, remembering its key for cleanup.
+     */
+    private static final class Shared<V> extends WeakReference<V> {
+
+        private final long key;
+
+        Shared(long key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
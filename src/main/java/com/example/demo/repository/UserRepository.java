@@ -1,26 +1,48 @@
 package com.example.demo.repository;
 
+import com.example.demo.events.ChangeType;
+import com.example.demo.events.EntityChange;
+import com.example.demo.events.EntityType;
+import com.example.demo.events.MutationPipeline;
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.MemoryFootprintSource;
+import com.example.demo.footprint.StructureFootprint;
 import com.example.demo.model.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Repository for managing User entities with in-memory storage.
  */
 @Repository
-public class UserRepository {
+public class UserRepository implements MemoryFootprintSource {
 
-    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final ConcurrentLongMap<User> users;
     private final AtomicLong idGenerator = new AtomicLong(1);
+    private final AtomicLong modifications = new AtomicLong();
+    private final MutationPipeline pipeline;
+    private final ChangeIndex changeIndex;
+
+    public UserRepository(MutationPipeline pipeline,
+                          @Value("${app.sync.max-tombstones:100000}") int maxTombstones,
+                          @Value("${app.repository.sample-data:true}") boolean sampleData,
+                          @Value("${app.repository.initial-capacity:1024}") int initialCapacity) {
+        this.users = new ConcurrentLongMap<>(initialCapacity, MemoryEstimates::user);
+        this.pipeline = pipeline;
+        this.changeIndex = new ChangeIndex(maxTombstones);
+        // Secondary structures are maintained by the pipeline's writer thread
+        pipeline.registerResolver(EntityType.USER, id -> users.get(id));
+        pipeline.addListener(this::indexChanges);
 
-    public UserRepository() {
         // Initialize with some sample data
-        save(new User("Alice Johnson", "alice@example.com", "ADMIN"));
-        save(new User("Bob Smith", "bob@example.com", "USER"));
-        save(new User("Charlie Brown", "charlie@example.com", "USER"));
+        if (sampleData) {
+            save(new User("Alice Johnson", "alice@example.com", "ADMIN"));
+            save(new User("Bob Smith", "bob@example.com", "USER"));
+            save(new User("Charlie Brown", "charlie@example.com", "USER"));
+        }
     }
 
     /**
@@ -29,7 +51,7 @@ public class UserRepository {
      * @return List of all users
      */
     public List<User> findAll() {
-        return new ArrayList<>(users.values());
+        return QueryProbe.values(users, "User", "findAll");
     }
 
     /**
@@ -42,6 +64,30 @@ public class UserRepository {
         return Optional.ofNullable(users.get(id));
     }
 
+    /**
+     * Find user by ID without boxing or wrapping, for the by-ID read path.
+     *
+     * @param id User ID
+     * @return The user, or null if not found
+     */
+    public User findByIdOrNull(long id) {
+        return users.get(id);
+    }
+
+    /**
+     * Find many users by ID in one pass.
+     *
+     * @param ids User IDs, possibly repeated
+     * @return The user for each ID in the same order, null where not found
+     */
+    public List<User> findAllById(List<Long> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            found.add(users.get(id));
+        }
+        return found;
+    }
+
     /**
      * Find user by email.
      *
@@ -49,9 +95,8 @@ public class UserRepository {
      * @return Optional containing the user if found
      */
     public Optional<User> findByEmail(String email) {
-        return users.values().stream()
-                .filter(user -> user.getEmail().equalsIgnoreCase(email))
-                .findFirst();
+        return Optional.ofNullable(QueryProbe.findAny(users, "User", "findByEmail",
+                user -> user.getEmail().equalsIgnoreCase(email)));
     }
 
     /**
@@ -61,9 +106,7 @@ public class UserRepository {
      * @return List of users with the specified role
      */
     public List<User> findByRole(String role) {
-        return users.values().stream()
-                .filter(user -> user.getRole().equalsIgnoreCase(role))
-                .toList();
+        return QueryProbe.filter(users, "User", "findByRole", user -> user.getRole().equalsIgnoreCase(role));
     }
 
     /**
@@ -77,9 +120,39 @@ public class UserRepository {
             user.setId(idGenerator.getAndIncrement());
         }
         users.put(user.getId(), user);
+        modifications.incrementAndGet();
+        pipeline.submit(EntityType.USER, user.getId());
         return user;
     }
 
+    /**
+     * Insert a batch of users as part of a bulk load.
+     * Bypasses the write pipeline: the users publish no change events and delta sync clients
+     * resynchronize from a full read instead. Explicit IDs are kept and move the ID generator
+     * past them.
+     *
+     * @param batch Users to insert; users without an ID get one assigned
+     * @return Number of users that replaced an existing one with the same ID
+     */
+    public int loadBaseline(Collection<User> batch) {
+        int replaced = 0;
+        long maxId = 0;
+        for (User user : batch) {
+            if (user.getId() == null) {
+                user.setId(idGenerator.getAndIncrement());
+            } else {
+                maxId = Math.max(maxId, user.getId());
+            }
+            if (users.put(user.getId(), user) != null) {
+                replaced++;
+            }
+        }
+        idGenerator.accumulateAndGet(maxId + 1, Math::max);
+        modifications.incrementAndGet();
+        changeIndex.rebase();
+        return replaced;
+    }
+
     /**
      * Delete user by ID.
      *
@@ -87,7 +160,12 @@ public class UserRepository {
      * @return true if deleted, false if not found
      */
     public boolean deleteById(Long id) {
-        return users.remove(id) != null;
+        if (users.remove(id) == null) {
+            return false;
+        }
+        modifications.incrementAndGet();
+        pipeline.submit(EntityType.USER, id);
+        return true;
     }
 
     /**
@@ -109,6 +187,67 @@ public class UserRepository {
         return users.size();
     }
 
+    /**
+     * Find users changed after a modification sequence.
+     * Each changed user is reported once, in its current state, or as a deletion.
+     *
+     * @param since Last sequence already seen by the caller, 0 for everything
+     * @param limit Maximum number of changes to return
+     * @return Upserts and deletions after the given sequence
+     */
+    public ChangeSet<User> findChangedSince(long since, int limit) {
+        // Read first: anything recorded while scanning gets a higher sequence and is seen next time
+        long current = changeIndex.currentSequence();
+        if (changeIndex.requiresResync(since)) {
+            return new ChangeSet<>(current, true, false, List.of(), List.of());
+        }
+
+        List<ChangeIndex.Entry> entries = changeIndex.changesSince(since, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+
+        List<User> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        long last = since;
+        for (ChangeIndex.Entry entry : entries) {
+            User user = entry.deleted() ? null : users.get(entry.id());
+            if (user == null) {
+                deletes.add(entry.id());
+            } else {
+                upserts.add(user);
+            }
+            last = entry.sequence();
+        }
+        return new ChangeSet<>(hasMore ? last : Math.max(current, last), false, hasMore, upserts, deletes);
+    }
+
+    private void indexChanges(List<EntityChange> changes) {
+        for (EntityChange change : changes) {
+            if (change.entityType() == EntityType.USER) {
+                changeIndex.record(change.id(), change.type() == ChangeType.DELETE);
+            }
+        }
+    }
+
+    /**
+     * Get the number of mutations applied so far.
+     * Changes whenever any user is saved or deleted, so it can be used to validate caches.
+     *
+     * @return Monotonic modification counter
+     */
+    public long modificationCount() {
+        return modifications.get();
+    }
+
+    @Override
+    public List<StructureFootprint> footprint() {
+        List<StructureFootprint> structures = new ArrayList<>(users.footprint("users"));
+        structures.add(changeIndex.footprint("users.change-index"));
+        return structures;
+    }
+
     /**
      * Find all active users (both USER and ADMIN roles).
      * This method demonstrates an internal call to findByRole().
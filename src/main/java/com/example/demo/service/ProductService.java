@@ -1,6 +1,10 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationSummary;
+import com.example.demo.repository.ChangeSet;
+import com.example.demo.repository.SearchHit;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -26,6 +30,25 @@ public interface ProductService {
      */
     Optional<Product> getProductById(Long id);
 
+    /**
+     * Get product by ID on the allocation-free read path.
+     *
+     * @param id Product ID
+     * @return The product, or null if not found
+     */
+    default Product findProductById(long id) {
+        return getProductById(id).orElse(null);
+    }
+
+    /**
+     * Get many products by ID in one call.
+     *
+     * @param ids Product IDs, at most {@code app.batch.max-ids}
+     * @return The product for each ID in request order, null where not found
+     * @throws IllegalArgumentException if the list is empty, too long or contains null
+     */
+    List<Product> getProductsByIds(List<Long> ids);
+
     /**
      * Search products by name.
      *
@@ -34,6 +57,16 @@ public interface ProductService {
      */
     List<Product> searchProductsByName(String name);
 
+    /**
+     * Full-text search over product names and descriptions, best matches first.
+     *
+     * @param query Search terms; a term followed by {@code *} matches as a prefix
+     * @param limit Maximum number of results
+     * @return Matching products ranked by relevance
+     * @throws IllegalArgumentException if the query is empty or the limit is out of range
+     */
+    List<SearchHit<Product>> searchProducts(String query, int limit);
+
     /**
      * Get products within a price range.
      *
@@ -87,6 +120,67 @@ public interface ProductService {
      */
     Product updateStock(Long id, int quantity);
 
+    /**
+     * Hold units of a product for a checkout. Held units stop counting as available
+     * until the reservation is confirmed, released or expires.
+     *
+     * @param productId  Product ID
+     * @param quantity   Units to hold
+     * @param ttlSeconds Seconds until the hold lapses, null for {@code app.reservations.default-ttl-seconds}
+     * @return The held reservation
+     * @throws IllegalArgumentException if product not found, quantity or TTL out of range, or insufficient stock
+     */
+    Reservation reserveStock(Long productId, int quantity, Long ttlSeconds);
+
+    /**
+     * Get a reservation of a product.
+     * Finished reservations can be looked up for {@code app.reservations.retention-seconds}.
+     *
+     * @param productId     Product ID
+     * @param reservationId Reservation ID
+     * @return Optional containing the reservation if found
+     */
+    Optional<Reservation> getReservation(Long productId, long reservationId);
+
+    /**
+     * Sell the held units, removing them from stock. Confirming again is a no-op.
+     *
+     * @param productId     Product ID
+     * @param reservationId Reservation ID
+     * @return The confirmed reservation
+     * @throws IllegalArgumentException if reservation or product not found
+     * @throws IllegalStateException    if the reservation was released or has expired
+     */
+    Reservation confirmReservation(Long productId, long reservationId);
+
+    /**
+     * Make the held units available again. Releasing a released or expired reservation is a no-op.
+     *
+     * @param productId     Product ID
+     * @param reservationId Reservation ID
+     * @return The released reservation
+     * @throws IllegalArgumentException if reservation not found
+     * @throws IllegalStateException    if the reservation was confirmed
+     */
+    Reservation releaseReservation(Long productId, long reservationId);
+
+    /**
+     * Get the number of held reservations and the units they hold.
+     *
+     * @return Reservation totals
+     */
+    ReservationSummary getReservationSummary();
+
+    /**
+     * Get products created, updated or deleted after a modification sequence.
+     *
+     * @param since Last sequence already seen by the client, 0 for everything
+     * @param limit Maximum number of changes to return
+     * @return Changes after the given sequence
+     * @throws IllegalArgumentException if since is negative or limit is not positive
+     */
+    ChangeSet<Product> getProductChangesSince(long since, int limit);
+
     /**
      * Get total count of products.
      *
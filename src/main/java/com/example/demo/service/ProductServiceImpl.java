@@ -1,25 +1,59 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationStatus;
+import com.example.demo.model.ReservationSummary;
+import com.example.demo.profiling.StockUpdateEvent;
+import com.example.demo.repository.ChangeSet;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.SearchHit;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service implementation for Product business operations.
  * Demonstrates constructor-based dependency injection.
+ * Identical full-scan queries running at the same time share one scan; the repository's
+ * modification count is part of each query's identity, so a caller never gets a result
+ * computed before a write it could already observe. Shared results are read-only.
  */
 @Service
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final SingleFlight queries;
+    private final int maxSearchLimit;
+    private final int maxBatchIds;
+    private final StockReservations reservations;
+    private final long defaultReservationTtlSeconds;
+    private final long maxReservationTtlSeconds;
 
     // Constructor-based dependency injection
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.singleflight.max-wait-ms:2000}") long maxWaitMillis,
+                              @Value("${app.search.max-limit:1000}") int maxSearchLimit,
+                              @Value("${app.batch.max-ids:1000}") int maxBatchIds,
+                              @Value("${app.reservations.tick-ms:100}") long reservationTickMillis,
+                              @Value("${app.reservations.retention-seconds:300}") long reservationRetentionSeconds,
+                              @Value("${app.reservations.default-ttl-seconds:900}") long defaultReservationTtlSeconds,
+                              @Value("${app.reservations.max-ttl-seconds:3600}") long maxReservationTtlSeconds) {
         this.productRepository = productRepository;
+        this.queries = new SingleFlight("products", maxWaitMillis, meterRegistry);
+        this.maxSearchLimit = maxSearchLimit;
+        this.maxBatchIds = maxBatchIds;
+        this.reservations = new StockReservations(reservationTickMillis,
+                TimeUnit.SECONDS.toMillis(reservationRetentionSeconds), meterRegistry, this::expireReservation);
+        this.defaultReservationTtlSeconds = defaultReservationTtlSeconds;
+        this.maxReservationTtlSeconds = maxReservationTtlSeconds;
     }
 
     @Override
@@ -32,12 +66,44 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findById(id);
     }
 
+    @Override
+    public Product findProductById(long id) {
+        return productRepository.findByIdOrNull(id);
+    }
+
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids can be fetched at once");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Ids cannot contain null");
+        }
+        return productRepository.findAllById(ids);
+    }
+
     @Override
     public List<Product> searchProductsByName(String name) {
         if (name == null || name.trim().isEmpty()) {
             return getAllProducts();
         }
-        return productRepository.findByNameContaining(name);
+        return queries.executeList(new Query("name", name.toLowerCase(), productRepository.modificationCount()),
+                () -> productRepository.findByNameContaining(name));
+    }
+
+    @Override
+    public List<SearchHit<Product>> searchProducts(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (limit < 1 || limit > maxSearchLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxSearchLimit);
+        }
+        return queries.executeList(new Query("search", List.of(query.toLowerCase(), limit),
+                productRepository.searchVersion()), () -> productRepository.search(query, limit));
     }
 
     @Override
@@ -51,12 +117,16 @@ public class ProductServiceImpl implements ProductService {
         if (minPrice.compareTo(maxPrice) > 0) {
             throw new IllegalArgumentException("Min price cannot be greater than max price");
         }
-        return productRepository.findByPriceRange(minPrice, maxPrice);
+        BigDecimal min = minPrice;
+        BigDecimal max = maxPrice;
+        return queries.executeList(new Query("price", List.of(min.stripTrailingZeros(), max.stripTrailingZeros()),
+                productRepository.modificationCount()), () -> productRepository.findByPriceRange(min, max));
     }
 
     @Override
     public List<Product> getInStockProducts() {
-        return productRepository.findInStock();
+        return queries.executeList(new Query("instock", null, productRepository.modificationCount()),
+                productRepository::findInStock);
     }
 
     @Override
@@ -71,6 +141,8 @@ public class ProductServiceImpl implements ProductService {
         if (product.getStock() == null || product.getStock() < 0) {
             throw new IllegalArgumentException("Product stock cannot be negative");
         }
+        // Units can only be reserved through the reservation API
+        product.setReserved(0);
 
         return productRepository.save(product);
     }
@@ -80,27 +152,34 @@ public class ProductServiceImpl implements ProductService {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
 
-        // Validate and update fields
-        if (product.getName() != null && !product.getName().trim().isEmpty()) {
-            existingProduct.setName(product.getName());
-        }
-        if (product.getDescription() != null) {
-            existingProduct.setDescription(product.getDescription());
-        }
-        if (product.getPrice() != null) {
-            if (product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalArgumentException("Product price must be a positive value");
+        // Serialized with stock updates and reservations, which also change stock
+        synchronized (existingProduct) {
+            // Validate and update fields
+            if (product.getName() != null && !product.getName().trim().isEmpty()) {
+                existingProduct.setName(product.getName());
             }
-            existingProduct.setPrice(product.getPrice());
-        }
-        if (product.getStock() != null) {
-            if (product.getStock() < 0) {
-                throw new IllegalArgumentException("Product stock cannot be negative");
+            if (product.getDescription() != null) {
+                existingProduct.setDescription(product.getDescription());
+            }
+            if (product.getPrice() != null) {
+                if (product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                    throw new IllegalArgumentException("Product price must be a positive value");
+                }
+                existingProduct.setPrice(product.getPrice());
+            }
+            if (product.getStock() != null) {
+                if (product.getStock() < 0) {
+                    throw new IllegalArgumentException("Product stock cannot be negative");
+                }
+                if (product.getStock() < existingProduct.getReserved()) {
+                    throw new IllegalArgumentException("Product stock cannot be less than the "
+                            + existingProduct.getReserved() + " reserved units");
+                }
+                existingProduct.setStock(product.getStock());
             }
-            existingProduct.setStock(product.getStock());
-        }
 
-        return productRepository.save(existingProduct);
+            return productRepository.save(existingProduct);
+        }
     }
 
     @Override
@@ -116,17 +195,148 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + id));
 
-        if (quantity > 0) {
-            product.increaseStock(quantity);
-        } else if (quantity < 0) {
-            product.decreaseStock(Math.abs(quantity));
+        StockUpdateEvent event = new StockUpdateEvent();
+        event.begin();
+        long waitStart = event.isEnabled() ? System.nanoTime() : 0;
+        // Concurrent updates of one product would otherwise lose increments
+        synchronized (product) {
+            if (event.isEnabled()) {
+                event.lockWait = System.nanoTime() - waitStart;
+            }
+            try {
+                if (quantity > 0) {
+                    product.increaseStock(quantity);
+                } else if (quantity < 0) {
+                    product.decreaseStock(Math.abs(quantity));
+                }
+
+                Product saved = productRepository.save(product);
+                event.succeeded = true;
+                return saved;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.productId = id;
+                    event.quantity = quantity;
+                    event.stockAfter = product.getStock() == null ? 0 : product.getStock();
+                    event.commit();
+                }
+            }
         }
+    }
 
-        return productRepository.save(product);
+    @Override
+    public Reservation reserveStock(Long productId, int quantity, Long ttlSeconds) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive value");
+        }
+        long ttl = ttlSeconds == null ? defaultReservationTtlSeconds : ttlSeconds;
+        if (ttl < 1 || ttl > maxReservationTtlSeconds) {
+            throw new IllegalArgumentException("TTL must be between 1 and " + maxReservationTtlSeconds + " seconds");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new IllegalArgumentException("Product not found with id: " + productId));
+        synchronized (product) {
+            product.reserve(quantity);
+            productRepository.save(product);
+            return reservations.hold(product, quantity, TimeUnit.SECONDS.toMillis(ttl)).toReservation();
+        }
+    }
+
+    @Override
+    public Optional<Reservation> getReservation(Long productId, long reservationId) {
+        StockReservations.Hold hold = reservations.get(productId, reservationId);
+        return hold == null ? Optional.empty() : Optional.of(hold.toReservation());
+    }
+
+    @Override
+    public Reservation confirmReservation(Long productId, long reservationId) {
+        StockReservations.Hold hold = requireHold(productId, reservationId);
+        synchronized (hold.product) {
+            if (hold.status() == ReservationStatus.HELD && !isCurrent(hold)) {
+                throw new IllegalArgumentException("Product not found with id: " + productId);
+            }
+            if (reservations.finish(hold, ReservationStatus.CONFIRMED)) {
+                hold.product.confirmReserved(hold.quantity);
+                productRepository.save(hold.product);
+            } else if (hold.status() != ReservationStatus.CONFIRMED) {
+                throw new IllegalStateException(alreadyFinished(hold));
+            }
+            return hold.toReservation();
+        }
+    }
+
+    @Override
+    public Reservation releaseReservation(Long productId, long reservationId) {
+        StockReservations.Hold hold = requireHold(productId, reservationId);
+        synchronized (hold.product) {
+            if (reservations.finish(hold, ReservationStatus.RELEASED)) {
+                returnHeldUnits(hold);
+            } else if (hold.status() == ReservationStatus.CONFIRMED) {
+                throw new IllegalStateException(alreadyFinished(hold));
+            }
+            return hold.toReservation();
+        }
+    }
+
+    @Override
+    public ReservationSummary getReservationSummary() {
+        return reservations.summary();
+    }
+
+    @Override
+    public ChangeSet<Product> getProductChangesSince(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be a positive value");
+        }
+        return productRepository.findChangedSince(since, limit);
     }
 
     @Override
     public long getProductCount() {
         return productRepository.count();
     }
+
+    @PreDestroy
+    public void shutdown() {
+        reservations.shutdown();
+    }
+
+    private void expireReservation(StockReservations.Hold hold) {
+        synchronized (hold.product) {
+            if (reservations.finish(hold, ReservationStatus.EXPIRED)) {
+                returnHeldUnits(hold);
+            }
+        }
+    }
+
+    private void returnHeldUnits(StockReservations.Hold hold) {
+        // A deleted product, or one since replaced under the same id, has no units to return
+        if (isCurrent(hold)) {
+            hold.product.releaseReserved(hold.quantity);
+            productRepository.save(hold.product);
+        }
+    }
+
+    private boolean isCurrent(StockReservations.Hold hold) {
+        return productRepository.findByIdOrNull(hold.productId) == hold.product;
+    }
+
+    private StockReservations.Hold requireHold(Long productId, long reservationId) {
+        StockReservations.Hold hold = reservations.get(productId, reservationId);
+        if (hold == null) {
+            throw new IllegalArgumentException("Reservation not found with id: " + reservationId);
+        }
+        return hold;
+    }
+
+    private static String alreadyFinished(StockReservations.Hold hold) {
+        return "Reservation " + hold.id + " is already " + hold.status().name().toLowerCase();
+    }
+
+    private record Query(String kind, Object argument, long version) {
+    }
 }
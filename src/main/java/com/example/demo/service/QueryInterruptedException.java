@@ -0,0 +1,15 @@
+package com.example.demo.service;
+
+/**
+ * Thrown when a caller is interrupted while waiting for a query it shares with others.
+ * The thread's interrupt flag is set again before this is thrown. Controllers answer it
+ * with {@code 503 Service Unavailable}, since the request can simply be retried.
+ */
+public class QueryInterruptedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryInterruptedException(String message, InterruptedException cause) {
+        super(message, cause);
+    }
+}
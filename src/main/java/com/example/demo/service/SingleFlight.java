@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent queries into one computation.
+ * The first caller for a key runs the query on its own thread; callers arriving while it is
+ * in flight wait for and share its result. A waiter gives up after {@code maxWaitMillis} and
+ * runs the query itself, and an interrupted waiter stops waiting without affecting the
+ * others, throwing {@link QueryInterruptedException} with its interrupt flag restored.
+ * Results are shared as-is, so queries must return immutable values; list queries go
+ * through {@link #executeList}, which shares them read-only.
+ */
+final class SingleFlight {
+
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final Counter calls;
+    private final Counter shared;
+    private final Counter timeouts;
+
+    SingleFlight(String name, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.calls = Counter.builder("app.singleflight.calls").tag("name", name).register(meterRegistry);
+        this.shared = Counter.builder("app.singleflight.shared")
+                .description("Calls answered by another caller's computation")
+                .tag("name", name).register(meterRegistry);
+        this.timeouts = Counter.builder("app.singleflight.timeouts")
+                .description("Waiters that gave up and computed on their own")
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("app.singleflight.dedup.ratio", this, SingleFlight::dedupRatio)
+                .description("Share of calls that did not run their own computation")
+                .tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Run a list query, or join the identical one already in flight. Every caller gets the
+     * same list, so it is wrapped read-only before it is shared.
+     */
+    <E> List<E> executeList(Object key, Supplier<List<E>> computation) {
+        return execute(key, () -> Collections.unmodifiableList(computation.get()));
+    }
+
+    /**
+     * Run a query, or join the identical one already in flight.
+     *
+     * @param key         Identity of the query, including everything its result depends on
+     * @param computation The query
+     * @return The query result
+     */
+    @SuppressWarnings("unchecked")
+    <V> V execute(Object key, Supplier<V> computation) {
+        calls.increment();
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, own);
+        if (leader == null) {
+            try {
+                V value = computation.get();
+                own.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                own.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+
+        try {
+            V value = (V) leader.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            shared.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return computation.get();
+        } catch (ExecutionException e) {
+            shared.increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shared query failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryInterruptedException("Interrupted while waiting for a shared query", e);
+        }
+    }
+
+    private double dedupRatio() {
+        double total = calls.count();
+        return total == 0 ? 0 : shared.count() / total;
+    }
+}
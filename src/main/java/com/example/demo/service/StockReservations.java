@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.ReservationStatus;
+import com.example.demo.model.ReservationSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Registry of stock reservations with expiry on a {@link TimingWheel}.
+ * Tracks holds only; the product's reserved count is changed by the caller, which makes
+ * each state change while holding the product's monitor. A hold moves out of
+ * {@code HELD} exactly once, whichever of confirm, release or expiry comes first. Finished
+ * holds are kept for {@code retentionMillis} so retried calls see the outcome, then
+ * dropped by the same wheel.
+ */
+final class StockReservations {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservations.class);
+
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong reservedUnits = new AtomicLong();
+    private final Map<ReservationStatus, Counter> outcomes = new EnumMap<>(ReservationStatus.class);
+    private final TimingWheel<Hold> wheel;
+    private final long retentionMillis;
+    private final Consumer<Hold> onExpiry;
+    private final ScheduledExecutorService ticker;
+
+    StockReservations(long tickMillis, long retentionMillis, MeterRegistry meterRegistry, Consumer<Hold> onExpiry) {
+        this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+        this.retentionMillis = retentionMillis;
+        this.onExpiry = onExpiry;
+        Gauge.builder("app.reservations.active", active, AtomicLong::get)
+                .description("Reservations holding stock").register(meterRegistry);
+        Gauge.builder("app.reservations.reserved.units", reservedUnits, AtomicLong::get)
+                .description("Units held by active reservations").register(meterRegistry);
+        Gauge.builder("app.reservations.timers", wheel, TimingWheel::size)
+                .description("Pending expiry and retention timeouts").register(meterRegistry);
+        for (ReservationStatus status : ReservationStatus.values()) {
+            if (status != ReservationStatus.HELD) {
+                outcomes.put(status, Counter.builder("app.reservations.finished")
+                        .tag("outcome", status.name().toLowerCase()).register(meterRegistry));
+            }
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register a hold on units the caller has just reserved on the product.
+     */
+    Hold hold(Product product, int quantity, long ttlMillis) {
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        Hold hold = new Hold(idSequence.incrementAndGet(), product, quantity, expiresAt);
+        hold.timeout = wheel.schedule(hold, expiresAt);
+        active.incrementAndGet();
+        reservedUnits.addAndGet(quantity);
+        holds.put(hold.id, hold);
+        return hold;
+    }
+
+    /**
+     * Get a hold of a product, finished or not, or null if unknown or already dropped.
+     */
+    Hold get(long productId, long reservationId) {
+        Hold hold = holds.get(reservationId);
+        return hold != null && hold.productId == productId ? hold : null;
+    }
+
+    /**
+     * Move a hold out of {@code HELD}.
+     *
+     * @return false if it had already finished
+     */
+    boolean finish(Hold hold, ReservationStatus status) {
+        synchronized (hold) {
+            if (hold.status != ReservationStatus.HELD) {
+                return false;
+            }
+            // Written before the status so the expiry thread never sees a finished hold without it
+            hold.removeAt = System.currentTimeMillis() + retentionMillis;
+            hold.status = status;
+        }
+        active.decrementAndGet();
+        reservedUnits.addAndGet(-hold.quantity);
+        outcomes.get(status).increment();
+        wheel.cancel(hold.timeout);
+        hold.timeout = wheel.schedule(hold, hold.removeAt);
+        return true;
+    }
+
+    ReservationSummary summary() {
+        return new ReservationSummary(active.get(), reservedUnits.get());
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (Hold hold : wheel.advance(now)) {
+            try {
+                if (hold.status == ReservationStatus.HELD) {
+                    onExpiry.accept(hold);
+                } else if (now >= hold.removeAt) {
+                    holds.remove(hold.id, hold);
+                }
+                // Otherwise the hold finished after its expiry fired and has a retention timeout
+            } catch (RuntimeException e) {
+                // One failing hold must not stop expiry of the others
+                log.error("Expiry of reservation {} failed", hold.id, e);
+            }
+        }
+    }
+
+    /**
+     * One reservation. The product reference is the instance stock was reserved on, so a
+     * product deleted or replaced since is recognized and left alone.
+     */
+    static final class Hold {
+
+        final long id;
+        final long productId;
+        final Product product;
+        final int quantity;
+        final long expiresAt;
+        private volatile ReservationStatus status = ReservationStatus.HELD;
+        private volatile long removeAt;
+        private volatile TimingWheel.Timeout<Hold> timeout;
+
+        private Hold(long id, Product product, int quantity, long expiresAt) {
+            this.id = id;
+            this.productId = product.getId();
+            this.product = product;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+
+        ReservationStatus status() {
+            return status;
+        }
+
+        Reservation toReservation() {
+            return new Reservation(id, productId, quantity, status, Instant.ofEpochMilli(expiresAt));
+        }
+    }
+}
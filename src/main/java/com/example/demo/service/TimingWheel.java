@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for large numbers of timeouts at coarse resolution.
+ * Level 0 has one slot per tick for the next 256 ticks, and each level above has 256
+ * slots spanning 256 times the level below. Scheduling and cancelling are O(1) list
+ * operations; a timeout moves down one level whenever the slot holding it comes around,
+ * so it is touched at most {@value #LEVELS} times however far out it lies. Advancing
+ * costs one step per elapsed tick plus the timeouts it moves or expires.
+ * Deadlines are rounded up to whole ticks, so timeouts never fire early; advanced every
+ * tick, the wheel fires them within two ticks of their deadline. All methods synchronize
+ * on the wheel; expired items are handed back to the caller to act on outside the lock.
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Furthest a timeout can be placed; later deadlines are re-placed when they get there
+    private static final long MAX_SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    // Sentinel heads of circular doubly-linked lists, by level and slot
+    private final Timeout<T>[][] slots;
+    // Next tick to process; timeouts due at or before it have not fired yet
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        this.slots = (Timeout<T>[][]) Array.newInstance(Timeout.class, LEVELS, SLOTS);
+        for (Timeout<T>[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = Timeout.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedule an item to be returned by {@link #advance} once its deadline has passed.
+     *
+     * @return Handle for {@link #cancel}
+     */
+    synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        // Rounded up so the timeout never fires before its deadline
+        Timeout<T> timeout = new Timeout<>(item, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a pending timeout.
+     *
+     * @return true if it was pending, false if it already fired or was cancelled
+     */
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.next == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Move the wheel forward to the given time.
+     *
+     * @return Items whose deadline has passed, in deadline order by tick
+     */
+    synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & MASK);
+            if (index == 0) {
+                cascade();
+            }
+            Timeout<T> head = slots[0][index];
+            Timeout<T> due = head.detachAll();
+            while (due != null) {
+                Timeout<T> timeout = due;
+                due = due.next;
+                timeout.next = null;
+                if (timeout.deadlineTick > currentTick) {
+                    // Was beyond the wheel's reach when scheduled
+                    place(timeout);
+                } else {
+                    size--;
+                    expired.add(timeout.item);
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Redistribute the slots of higher levels that the current tick has reached.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int index = (int) ((currentTick >>> (SLOT_BITS * level)) & MASK);
+            Timeout<T> moved = slots[level][index].detachAll();
+            while (moved != null) {
+                Timeout<T> timeout = moved;
+                moved = moved.next;
+                timeout.next = null;
+                place(timeout);
+            }
+            if (index != 0) {
+                break;
+            }
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long tick = Math.min(timeout.deadlineTick, currentTick + MAX_SPAN);
+        long delta = tick - currentTick;
+        Timeout<T> head;
+        if (delta < 0) {
+            head = slots[0][(int) (currentTick & MASK)];
+        } else {
+            int level = 0;
+            while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            head = slots[level][(int) ((tick >>> (SLOT_BITS * level)) & MASK)];
+        }
+        head.append(timeout);
+    }
+
+    /**
+     * A scheduled item, linked into the list of its slot while pending.
+     */
+    static final class Timeout<T> {
+
+        private final T item;
+        private final long deadlineTick;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private static <T> Timeout<T> sentinel() {
+            Timeout<T> head = new Timeout<>(null, 0);
+            head.prev = head;
+            head.next = head;
+            return head;
+        }
+
+        private void append(Timeout<T> timeout) {
+            timeout.prev = prev;
+            timeout.next = this;
+            prev.next = timeout;
+            prev = timeout;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        /**
+         * Empty this list, returning its entries chained through {@code next} and ending in null.
+         */
+        private Timeout<T> detachAll() {
+            if (next == this) {
+                return null;
+            }
+            Timeout<T> first = next;
+            prev.next = null;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.prev = null;
+            }
+            prev = this;
+            next = this;
+            return first;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.model.User;
+import com.example.demo.repository.ChangeSet;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +26,25 @@ public interface UserService {
      */
     Optional<User> getUserById(Long id);
 
+    /**
+     * Get user by ID on the allocation-free read path.
+     *
+     * @param id User ID
+     * @return The user, or null if not found
+     */
+    default User findUserById(long id) {
+        return getUserById(id).orElse(null);
+    }
+
+    /**
+     * Get many users by ID in one call.
+     *
+     * @param ids User IDs, at most {@code app.batch.max-ids}
+     * @return The user for each ID in request order, null where not found
+     * @throws IllegalArgumentException if the list is empty, too long or contains null
+     */
+    List<User> getUsersByIds(List<Long> ids);
+
     /**
      * Get user by email.
      *
@@ -69,6 +89,16 @@ public interface UserService {
      */
     boolean deleteUser(Long id);
 
+    /**
+     * Get users created, updated or deleted after a modification sequence.
+     *
+     * @param since Last sequence already seen by the client, 0 for everything
+     * @param limit Maximum number of changes to return
+     * @return Changes after the given sequence
+     * @throws IllegalArgumentException if since is negative or limit is not positive
+     */
+    ChangeSet<User> getUserChangesSince(long since, int limit);
+
     /**
      * Get total count of users.
      *
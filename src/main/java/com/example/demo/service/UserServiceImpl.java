@@ -1,7 +1,10 @@
 package com.example.demo.service;
 
 import com.example.demo.model.User;
+import com.example.demo.repository.ChangeSet;
 import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -10,15 +13,24 @@ import java.util.Optional;
 /**
  * Service implementation for User business operations.
  * Demonstrates constructor-based dependency injection.
+ * Identical concurrent lookups by email or role share one scan, keyed like in
+ * {@link ProductServiceImpl}.
  */
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final SingleFlight queries;
+    private final int maxBatchIds;
 
     // Constructor-based dependency injection
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.singleflight.max-wait-ms:2000}") long maxWaitMillis,
+                           @Value("${app.batch.max-ids:1000}") int maxBatchIds) {
         this.userRepository = userRepository;
+        this.queries = new SingleFlight("users", maxWaitMillis, meterRegistry);
+        this.maxBatchIds = maxBatchIds;
     }
 
     @Override
@@ -31,14 +43,35 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    @Override
+    public User findUserById(long id) {
+        return userRepository.findByIdOrNull(id);
+    }
+
+    @Override
+    public List<User> getUsersByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one id is required");
+        }
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids can be fetched at once");
+        }
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Ids cannot contain null");
+        }
+        return userRepository.findAllById(ids);
+    }
+
     @Override
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return queries.execute(new Query("email", email.toLowerCase(), userRepository.modificationCount()),
+                () -> userRepository.findByEmail(email));
     }
 
     @Override
     public List<User> getUsersByRole(String role) {
-        return userRepository.findByRole(role);
+        return queries.executeList(new Query("role", role.toLowerCase(), userRepository.modificationCount()),
+                () -> userRepository.findByRole(role));
     }
 
     @Override
@@ -97,8 +130,22 @@ public class UserServiceImpl implements UserService {
         return userRepository.deleteById(id);
     }
 
+    @Override
+    public ChangeSet<User> getUserChangesSince(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be a positive value");
+        }
+        return userRepository.findChangedSince(since, limit);
+    }
+
     @Override
     public long getUserCount() {
         return userRepository.count();
     }
+
+    private record Query(String kind, Object argument, long version) {
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.demo.standing;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable centered interval tree answering "which intervals contain this point".
+ * Each node keeps the intervals spanning its center sorted both by lower bound and by
+ * upper bound, so a lookup visits one path of O(log n) nodes and, at each, only the
+ * intervals it reports plus one. Bounds are inclusive; unbounded sides are infinities.
+ */
+final class IntervalIndex<T> {
+
+    private final Node<T> root;
+    private final int size;
+
+    IntervalIndex(List<Interval<T>> intervals) {
+        this.root = build(intervals);
+        this.size = intervals.size();
+    }
+
+    /**
+     * Report every interval containing the point.
+     */
+    void stab(double point, Consumer<T> sink) {
+        Node<T> node = root;
+        while (node != null) {
+            if (point < node.center) {
+                for (Interval<T> interval : node.byLow) {
+                    if (interval.low() > point) {
+                        break;
+                    }
+                    sink.accept(interval.value());
+                }
+                node = node.left;
+            } else if (point > node.center) {
+                for (Interval<T> interval : node.byHighDescending) {
+                    if (interval.high() < point) {
+                        break;
+                    }
+                    sink.accept(interval.value());
+                }
+                node = node.right;
+            } else {
+                for (Interval<T> interval : node.byLow) {
+                    sink.accept(interval.value());
+                }
+                return;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static <T> Node<T> build(List<Interval<T>> intervals) {
+        if (intervals.isEmpty()) {
+            return null;
+        }
+        // The median endpoint lies in at least one interval, so every node keeps some
+        double[] endpoints = new double[intervals.size() * 2];
+        for (int i = 0; i < intervals.size(); i++) {
+            endpoints[2 * i] = intervals.get(i).low();
+            endpoints[2 * i + 1] = intervals.get(i).high();
+        }
+        Arrays.sort(endpoints);
+        double center = endpoints[intervals.size()];
+
+        List<Interval<T>> left = new ArrayList<>();
+        List<Interval<T>> right = new ArrayList<>();
+        List<Interval<T>> spanning = new ArrayList<>();
+        for (Interval<T> interval : intervals) {
+            if (interval.high() < center) {
+                left.add(interval);
+            } else if (interval.low() > center) {
+                right.add(interval);
+            } else {
+                spanning.add(interval);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        Interval<T>[] byLow = spanning.toArray((Interval<T>[]) Array.newInstance(Interval.class, spanning.size()));
+        Arrays.sort(byLow, Comparator.comparingDouble(Interval::low));
+        Interval<T>[] byHighDescending = byLow.clone();
+        Arrays.sort(byHighDescending, Comparator.comparingDouble((Interval<T> interval) -> interval.high()).reversed());
+        return new Node<>(center, byLow, byHighDescending, build(left), build(right));
+    }
+
+    record Interval<T>(double low, double high, T value) {
+    }
+
+    private record Node<T>(double center, Interval<T>[] byLow, Interval<T>[] byHighDescending,
+                           Node<T> left, Node<T> right) {
+    }
+}
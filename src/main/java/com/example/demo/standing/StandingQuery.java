@@ -0,0 +1,49 @@
+package com.example.demo.standing;
+
+import com.example.demo.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * A registered condition on products. Every given bound must hold; bounds are inclusive
+ * and absent ones are unbounded.
+ *
+ * @param id       Query ID, assigned on registration
+ * @param name     Optional label chosen by the client
+ * @param minPrice Lowest matching price
+ * @param maxPrice Highest matching price
+ * @param minStock Lowest matching stock
+ * @param maxStock Highest matching stock
+ * @param inStock  Whether matching products must (true) or must not (false) have units available
+ */
+public record StandingQuery(Long id, String name, BigDecimal minPrice, BigDecimal maxPrice,
+                            Integer minStock, Integer maxStock, Boolean inStock) {
+
+    StandingQuery withId(long id) {
+        return new StandingQuery(id, name, minPrice, maxPrice, minStock, maxStock, inStock);
+    }
+
+    boolean hasPriceBound() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    boolean hasStockBound() {
+        return minStock != null || maxStock != null;
+    }
+
+    boolean matches(Product product) {
+        BigDecimal price = product.getPrice();
+        if (hasPriceBound() && (price == null
+                || (minPrice != null && price.compareTo(minPrice) < 0)
+                || (maxPrice != null && price.compareTo(maxPrice) > 0))) {
+            return false;
+        }
+        Integer stock = product.getStock();
+        if (hasStockBound() && (stock == null
+                || (minStock != null && stock < minStock)
+                || (maxStock != null && stock > maxStock))) {
+            return false;
+        }
+        return inStock == null || inStock == product.isInStock();
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.demo.standing;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * REST Controller for standing queries and their event streams.
+ * A stream starts with the products matching at subscription time and then pushes
+ * an "enter" or "exit" event whenever a product starts or stops matching.
+ */
+@RestController
+@RequestMapping("/api/standing-queries")
+public class StandingQueryController {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long POLL_MILLIS = 1000;
+
+    private final StandingQueryService standingQueryService;
+    private final long streamTimeoutMillis;
+    private final Semaphore subscriberSlots;
+    private final ExecutorService streamExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "standing-query-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Constructor-based dependency injection
+    public StandingQueryController(StandingQueryService standingQueryService,
+                                   @Value("${app.standing.stream-timeout-ms:300000}") long streamTimeoutMillis,
+                                   @Value("${app.standing.max-subscribers:64}") int maxSubscribers) {
+        this.standingQueryService = standingQueryService;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.subscriberSlots = new Semaphore(maxSubscribers);
+    }
+
+    /**
+     * POST /api/standing-queries - Register a standing query
+     */
+    @PostMapping
+    public ResponseEntity<?> registerQuery(@RequestBody StandingQuery query) {
+        try {
+            return new ResponseEntity<>(standingQueryService.register(query), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(createErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * GET /api/standing-queries - List standing queries
+     */
+    @GetMapping
+    public ResponseEntity<List<StandingQueryStatus>> getQueries() {
+        return ResponseEntity.ok(standingQueryService.getQueries());
+    }
+
+    /**
+     * GET /api/standing-queries/{id} - Get a standing query and its match count
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StandingQueryStatus> getQuery(@PathVariable Long id) {
+        return standingQueryService.getQuery(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * DELETE /api/standing-queries/{id} - Remove a standing query, ending its streams
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteQuery(@PathVariable Long id) {
+        return standingQueryService.unregister(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * GET /api/standing-queries/{id}/events - Stream a query's matches.
+     * A "reset" event means the client fell too far behind and events were dropped;
+     * the stream then ends and the client resubscribes for a fresh snapshot.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(@PathVariable Long id) {
+        if (!subscriberSlots.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        Optional<StandingQueryService.Subscription> subscription = standingQueryService.subscribe(id);
+        if (subscription.isEmpty()) {
+            subscriberSlots.release();
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(error -> open.set(false));
+
+        streamExecutor.execute(() -> {
+            try {
+                stream(emitter, open, subscription.get());
+            } finally {
+                standingQueryService.unsubscribe(subscription.get());
+                subscriberSlots.release();
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean open, StandingQueryService.Subscription subscription) {
+        List<StandingQueryEvent> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            emitter.send(SseEmitter.event().name("snapshot")
+                    .data(createSnapshotEvent(subscription), MediaType.APPLICATION_JSON));
+            while (open.get()) {
+                // Events queued before an overflow are dropped too; the client resyncs from a snapshot
+                if (subscription.overflowed()) {
+                    emitter.send(SseEmitter.event().name("reset")
+                            .data(createErrorResponse("Events were dropped because the client fell behind")));
+                    emitter.complete();
+                    return;
+                }
+                StandingQueryEvent first = subscription.events().poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (subscription.closed()) {
+                        emitter.send(SseEmitter.event().name("deleted")
+                                .data(createErrorResponse("Standing query was deleted")));
+                        emitter.complete();
+                        return;
+                    }
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                subscription.events().drainTo(batch, BATCH_SIZE - 1);
+                for (StandingQueryEvent event : batch) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.sequence()))
+                            .name(event.type() == StandingQueryEvent.Type.ENTER ? "enter" : "exit")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected or emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    /**
+     * Helper method to create the payload of the snapshot event
+     */
+    private Map<String, Object> createSnapshotEvent(StandingQueryService.Subscription subscription) {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("queryId", subscription.queryId());
+        snapshot.put("productIds", subscription.snapshot());
+        return snapshot;
+    }
+
+    /**
+     * Helper method to create error response
+     */
+    private Map<String, String> createErrorResponse(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return error;
+    }
+}
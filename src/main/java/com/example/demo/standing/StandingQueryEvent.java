@@ -0,0 +1,20 @@
+package com.example.demo.standing;
+
+/**
+ * A product starting or ceasing to match a standing query.
+ * Like change feed entries, the product is the live instance, so it may already show
+ * later writes; it is null when the product was deleted.
+ *
+ * @param sequence  Change feed sequence of the mutation that caused the transition
+ * @param queryId   Standing query ID
+ * @param type      {@code ENTER} or {@code EXIT}
+ * @param productId Product ID
+ * @param product   Product after the mutation, or null when deleted
+ */
+public record StandingQueryEvent(long sequence, long queryId, Type type, long productId, Object product) {
+
+    public enum Type {
+        ENTER,
+        EXIT
+    }
+}
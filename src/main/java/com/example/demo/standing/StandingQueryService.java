@@ -0,0 +1,453 @@
+package com.example.demo.standing;
+
+import com.example.demo.events.ChangeListener;
+import com.example.demo.events.EntityChange;
+import com.example.demo.events.EntityType;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates standing queries incrementally against product mutations.
+ * Runs as a write pipeline listener and looks only at the changed product. Candidate
+ * queries come from interval indexes: a query with price bounds is indexed by price,
+ * else one with stock bounds by stock, and only queries with neither are tried on every
+ * change. The IDs of the queries each product currently matches are remembered, so a
+ * change is turned into enter and exit events without knowing the product's previous state.
+ * Each query also keeps the IDs of the products it matches, so a subscription copies one set
+ * instead of scanning every product's memberships while the pipeline waits.
+ * Registering a query scans the catalog once to seed what it matches. The scan runs outside
+ * the lock so the pipeline is not held up; products the pipeline delivers meanwhile are
+ * re-evaluated in the state it delivered. Unregistering purges the query's ID in chunks,
+ * and IDs of removed queries still awaiting the purge are ignored.
+ */
+@Service
+public class StandingQueryService implements ChangeListener {
+
+    private static final long[] NONE = new long[0];
+    private static final int PURGE_CHUNK = 1024;
+
+    private final ProductRepository productRepository;
+    private final int maxQueries;
+    private final int subscriberBuffer;
+    private final AtomicLong idSequence = new AtomicLong();
+    private final Counter candidates;
+    private final Counter enters;
+    private final Counter exits;
+
+    // Guards everything below; taken by the pipeline writer and by registration calls
+    private final Object lock = new Object();
+    private final Map<Long, Registration> registrations = new LinkedHashMap<>();
+    // Product ID to the sorted IDs of the queries it matches; products matching none are absent.
+    // The reverse, query to products, is kept in each Registration's members.
+    private final Map<Long, long[]> membership = new HashMap<>();
+    private final List<Seeding> seedings = new ArrayList<>();
+    private Index index = Index.of(List.of());
+
+    // Constructor-based dependency injection
+    public StandingQueryService(ProductRepository productRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.standing.max-queries:10000}") int maxQueries,
+                                @Value("${app.standing.subscriber-buffer:1024}") int subscriberBuffer) {
+        this.productRepository = productRepository;
+        this.maxQueries = maxQueries;
+        this.subscriberBuffer = subscriberBuffer;
+        Gauge.builder("app.standing.queries", this, service -> service.getQueries().size())
+                .description("Registered standing queries").register(meterRegistry);
+        this.candidates = Counter.builder("app.standing.candidates")
+                .description("Standing queries evaluated against a changed product").register(meterRegistry);
+        this.enters = Counter.builder("app.standing.events").tag("type", "enter").register(meterRegistry);
+        this.exits = Counter.builder("app.standing.events").tag("type", "exit").register(meterRegistry);
+    }
+
+    /**
+     * Register a standing query.
+     *
+     * @param query Conditions; the ID is assigned
+     * @return The registered query and what it matches now
+     * @throws IllegalArgumentException if the query has no condition, has inverted bounds, or too many are registered
+     */
+    public StandingQueryStatus register(StandingQuery query) {
+        validate(query);
+        Seeding seeding;
+        synchronized (lock) {
+            if (registrations.size() + seedings.size() >= maxQueries) {
+                throw new IllegalArgumentException("At most " + maxQueries + " standing queries can be registered");
+            }
+            seeding = new Seeding(query.withId(idSequence.incrementAndGet()));
+            seedings.add(seeding);
+        }
+        StandingQuery registered = seeding.query;
+        List<Long> scanned = new ArrayList<>();
+        try {
+            for (Product product : productRepository.findAll()) {
+                if (registered.matches(product)) {
+                    scanned.add(product.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                seedings.remove(seeding);
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            seedings.remove(seeding);
+            Registration registration = new Registration(registered);
+            // Changes the pipeline has yet to deliver re-evaluate to the same state, so they emit nothing
+            for (Long productId : scanned) {
+                if (!seeding.delivered.containsKey(productId)) {
+                    join(productId, registration);
+                }
+            }
+            for (Map.Entry<Long, Object> delivered : seeding.delivered.entrySet()) {
+                if (delivered.getValue() instanceof Product product && registered.matches(product)) {
+                    join(delivered.getKey(), registration);
+                }
+            }
+            registrations.put(registered.id(), registration);
+            index = Index.of(registrations.values());
+            return registration.status();
+        }
+    }
+
+    /**
+     * Remove a standing query and end its subscriptions.
+     *
+     * @return true if the query existed
+     */
+    public boolean unregister(long id) {
+        List<Long> products;
+        synchronized (lock) {
+            Registration registration = registrations.remove(id);
+            if (registration == null) {
+                return false;
+            }
+            index = Index.of(registrations.values());
+            for (Subscription subscription : registration.subscriptions) {
+                subscription.closed = true;
+            }
+            products = new ArrayList<>(membership.keySet());
+        }
+        for (int from = 0; from < products.size(); from += PURGE_CHUNK) {
+            synchronized (lock) {
+                for (Long productId : products.subList(from, Math.min(products.size(), from + PURGE_CHUNK))) {
+                    long[] matched = membership.get(productId);
+                    long[] remaining = matched == null ? null : without(matched, id);
+                    if (remaining != matched) {
+                        if (remaining.length == 0) {
+                            membership.remove(productId);
+                        } else {
+                            membership.put(productId, remaining);
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    public List<StandingQueryStatus> getQueries() {
+        synchronized (lock) {
+            return registrations.values().stream().map(Registration::status).toList();
+        }
+    }
+
+    public Optional<StandingQueryStatus> getQuery(long id) {
+        synchronized (lock) {
+            return Optional.ofNullable(registrations.get(id)).map(Registration::status);
+        }
+    }
+
+    /**
+     * Start receiving a query's events, beginning with the products it matches now.
+     *
+     * @return The subscription, or empty if the query does not exist
+     */
+    public Optional<Subscription> subscribe(long id) {
+        synchronized (lock) {
+            Registration registration = registrations.get(id);
+            if (registration == null) {
+                return Optional.empty();
+            }
+            Subscription subscription = new Subscription(id, new ArrayList<>(registration.members), subscriberBuffer);
+            registration.subscriptions.add(subscription);
+            return Optional.of(subscription);
+        }
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        synchronized (lock) {
+            Registration registration = registrations.get(subscription.queryId);
+            if (registration != null) {
+                registration.subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    @Override
+    public void onChanges(List<EntityChange> changes) {
+        synchronized (lock) {
+            if (registrations.isEmpty() && seedings.isEmpty()) {
+                return;
+            }
+            List<Registration> candidateList = new ArrayList<>();
+            for (EntityChange change : changes) {
+                if (change.entityType() != EntityType.PRODUCT) {
+                    continue;
+                }
+                for (Seeding seeding : seedings) {
+                    seeding.delivered.put(change.id(), change.entity());
+                }
+                long[] before = membership.getOrDefault(change.id(), NONE);
+                long[] after = change.entity() instanceof Product product ? matching(product, candidateList) : NONE;
+                if (Arrays.equals(before, after)) {
+                    continue;
+                }
+                if (after.length == 0) {
+                    membership.remove(change.id());
+                } else {
+                    membership.put(change.id(), after);
+                }
+                publishTransitions(change, before, after);
+            }
+        }
+    }
+
+    private long[] matching(Product product, List<Registration> candidateList) {
+        candidateList.clear();
+        index.candidates(product, candidateList);
+        candidates.increment(candidateList.size());
+        long[] matched = new long[candidateList.size()];
+        int count = 0;
+        for (Registration registration : candidateList) {
+            if (registration.query.matches(product)) {
+                matched[count++] = registration.query.id();
+            }
+        }
+        if (count == 0) {
+            return NONE;
+        }
+        long[] result = Arrays.copyOf(matched, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void publishTransitions(EntityChange change, long[] before, long[] after) {
+        int i = 0;
+        int j = 0;
+        while (i < before.length || j < after.length) {
+            if (j == after.length || (i < before.length && before[i] < after[j])) {
+                publish(change, before[i++], StandingQueryEvent.Type.EXIT);
+            } else if (i == before.length || after[j] < before[i]) {
+                publish(change, after[j++], StandingQueryEvent.Type.ENTER);
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private void publish(EntityChange change, long queryId, StandingQueryEvent.Type type) {
+        Registration registration = registrations.get(queryId);
+        if (registration == null) {
+            // Unregistered, with its ID not purged from this product yet
+            return;
+        }
+        if (type == StandingQueryEvent.Type.ENTER) {
+            registration.members.add(change.id());
+            enters.increment();
+        } else {
+            registration.members.remove(change.id());
+            exits.increment();
+        }
+        if (registration.subscriptions.isEmpty()) {
+            return;
+        }
+        StandingQueryEvent event = new StandingQueryEvent(change.sequence(), queryId, type, change.id(), change.entity());
+        for (Subscription subscription : registration.subscriptions) {
+            // Never block the pipeline on a slow client; it is told to resubscribe instead
+            if (!subscription.events.offer(event)) {
+                subscription.overflowed = true;
+            }
+        }
+    }
+
+    /**
+     * Record that a product matches a query, in both directions.
+     */
+    private void join(long productId, Registration registration) {
+        long queryId = registration.query.id();
+        registration.members.add(productId);
+        long[] matched = membership.getOrDefault(productId, NONE);
+        int position = -Arrays.binarySearch(matched, queryId) - 1;
+        long[] extended = new long[matched.length + 1];
+        System.arraycopy(matched, 0, extended, 0, position);
+        extended[position] = queryId;
+        System.arraycopy(matched, position, extended, position + 1, matched.length - position);
+        membership.put(productId, extended);
+    }
+
+    private static long[] without(long[] matched, long id) {
+        int position = Arrays.binarySearch(matched, id);
+        if (position < 0) {
+            return matched;
+        }
+        long[] result = new long[matched.length - 1];
+        System.arraycopy(matched, 0, result, 0, position);
+        System.arraycopy(matched, position + 1, result, position, result.length - position);
+        return result;
+    }
+
+    private static void validate(StandingQuery query) {
+        if (query == null || (!query.hasPriceBound() && !query.hasStockBound() && query.inStock() == null)) {
+            throw new IllegalArgumentException("A standing query needs at least one condition");
+        }
+        if (query.minPrice() != null && query.maxPrice() != null && query.minPrice().compareTo(query.maxPrice()) > 0) {
+            throw new IllegalArgumentException("Min price cannot be greater than max price");
+        }
+        if (query.minStock() != null && query.maxStock() != null && query.minStock() > query.maxStock()) {
+            throw new IllegalArgumentException("Min stock cannot be greater than max stock");
+        }
+    }
+
+    /**
+     * A registered query with the IDs of the products it matches and its subscribers.
+     */
+    private static final class Registration {
+
+        private final StandingQuery query;
+        private final Set<Long> members = new HashSet<>();
+        private final List<Subscription> subscriptions = new ArrayList<>();
+
+        private Registration(StandingQuery query) {
+            this.query = query;
+        }
+
+        private StandingQueryStatus status() {
+            return new StandingQueryStatus(query, members.size(), subscriptions.size());
+        }
+    }
+
+    /**
+     * A query whose initial matches are being scanned, with the last state the pipeline
+     * delivered for each product changed during the scan (null for a deletion).
+     */
+    private static final class Seeding {
+
+        private final StandingQuery query;
+        private final Map<Long, Object> delivered = new HashMap<>();
+
+        private Seeding(StandingQuery query) {
+            this.query = query;
+        }
+    }
+
+    /**
+     * Event buffer of one client. Overflow and query removal are flagged for the consumer
+     * rather than signalled, since producers run on the pipeline writer thread.
+     */
+    public static final class Subscription {
+
+        private final long queryId;
+        private final List<Long> snapshot;
+        private final BlockingQueue<StandingQueryEvent> events;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        private Subscription(long queryId, List<Long> snapshot, int capacity) {
+            this.queryId = queryId;
+            this.snapshot = snapshot;
+            this.events = new ArrayBlockingQueue<>(capacity);
+        }
+
+        public long queryId() {
+            return queryId;
+        }
+
+        /**
+         * IDs of the products matching when the subscription started.
+         */
+        public List<Long> snapshot() {
+            return snapshot;
+        }
+
+        public BlockingQueue<StandingQueryEvent> events() {
+            return events;
+        }
+
+        public boolean overflowed() {
+            return overflowed;
+        }
+
+        public boolean closed() {
+            return closed;
+        }
+    }
+
+    /**
+     * Immutable predicate index, rebuilt whenever the set of queries changes.
+     * Prices are indexed as doubles; the conversion is monotonic, so no matching query is
+     * missed and the exact comparison on each candidate settles rounding at the bounds.
+     */
+    private record Index(IntervalIndex<Registration> byPrice, IntervalIndex<Registration> byStock,
+                         List<Registration> unindexed) {
+
+        private static Index of(Iterable<Registration> registrations) {
+            List<IntervalIndex.Interval<Registration>> prices = new ArrayList<>();
+            List<IntervalIndex.Interval<Registration>> stocks = new ArrayList<>();
+            List<Registration> unindexed = new ArrayList<>();
+            for (Registration registration : registrations) {
+                StandingQuery query = registration.query;
+                if (query.hasPriceBound()) {
+                    prices.add(new IntervalIndex.Interval<>(low(query.minPrice()), high(query.maxPrice()), registration));
+                } else if (query.hasStockBound()) {
+                    stocks.add(new IntervalIndex.Interval<>(
+                            query.minStock() == null ? Double.NEGATIVE_INFINITY : query.minStock(),
+                            query.maxStock() == null ? Double.POSITIVE_INFINITY : query.maxStock(),
+                            registration));
+                } else {
+                    unindexed.add(registration);
+                }
+            }
+            return new Index(new IntervalIndex<>(prices), new IntervalIndex<>(stocks), unindexed);
+        }
+
+        private void candidates(Product product, List<Registration> sink) {
+            // Queries indexed on a property the product lacks cannot match it
+            if (product.getPrice() != null) {
+                byPrice.stab(product.getPrice().doubleValue(), sink::add);
+            }
+            if (product.getStock() != null) {
+                byStock.stab(product.getStock(), sink::add);
+            }
+            sink.addAll(unindexed);
+        }
+
+        private static double low(BigDecimal bound) {
+            return bound == null ? Double.NEGATIVE_INFINITY : bound.doubleValue();
+        }
+
+        private static double high(BigDecimal bound) {
+            return bound == null ? Double.POSITIVE_INFINITY : bound.doubleValue();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.standing;
+
+/**
+ * A standing query with its current state.
+ *
+ * @param query       The query
+ * @param matches     Number of products matching it
+ * @param subscribers Number of connected event streams
+ */
+public record StandingQueryStatus(StandingQuery query, int matches, int subscribers) {
+}
@@ -0,0 +1,443 @@
+package com.example.demo.warmup;
+
+import com.example.demo.controller.ProductController;
+import com.example.demo.controller.UserController;
+import com.example.demo.events.ChangeFeed;
+import com.example.demo.events.MutationPipeline;
+import com.example.demo.model.Product;
+import com.example.demo.model.Reservation;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.ProductServiceImpl;
+import com.example.demo.service.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.ContextAnnotationAutowireCandidateResolver;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the request hot paths before the application reports ready, so the first requests
+ * after a deploy meet compiled code rather than the interpreter.
+ * Calls go through the real controller, service and repository classes and the MVC message
+ * converters, but against a sandbox: its own write pipeline, change feed and repositories,
+ * filled with synthetic entities, with metrics going to a throwaway registry. Nothing the
+ * application serves is read or changed. The sandbox is built from the application's own
+ * configuration, apart from the sizes in {@link #SANDBOX_PROPERTIES}. Rounds of calls repeat until JIT compilation stays
+ * nearly idle for several rounds in a row, or until the time budget runs out. Request
+ * mapping and the servlet container are not exercised.
+ */
+@Component
+public class JitWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+
+    private static final long ROUND_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    // A round is quiet when the compiler threads spent at most this share of it compiling
+    private static final double QUIET_COMPILATION_SHARE = 0.02;
+    private static final int SANDBOX_CAPACITY = 4096;
+    // Take precedence over the application's configuration, so the sandbox stays small and private
+    private static final Map<String, Object> SANDBOX_PROPERTIES = Map.of(
+            "app.changefeed.capacity", SANDBOX_CAPACITY,
+            "app.pipeline.queue-capacity", SANDBOX_CAPACITY,
+            "app.sync.max-tombstones", SANDBOX_CAPACITY,
+            "app.repository.initial-capacity", 1024,
+            "app.repository.sample-data", false,
+            "app.sharding.enabled", false,
+            "app.repository.tiering.chunk-size-mb", 1);
+
+    private final RequestMappingHandlerAdapter handlerAdapter;
+    private final MeterRegistry meterRegistry;
+    private final ConfigurableEnvironment environment;
+    private final boolean enabled;
+    private final long maxDurationNanos;
+    private final int products;
+    private final int users;
+    private final int settleRounds;
+
+    // Constructor-based dependency injection
+    public JitWarmup(RequestMappingHandlerAdapter handlerAdapter,
+                     MeterRegistry meterRegistry,
+                     ConfigurableEnvironment environment,
+                     @Value("${app.warmup.enabled:false}") boolean enabled,
+                     @Value("${app.warmup.max-duration-ms:30000}") long maxDurationMillis,
+                     @Value("${app.warmup.products:2000}") int products,
+                     @Value("${app.warmup.users:500}") int users,
+                     @Value("${app.warmup.settle-rounds:3}") int settleRounds) {
+        this.handlerAdapter = handlerAdapter;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        this.products = Math.max(1, products);
+        this.users = Math.max(1, users);
+        this.settleRounds = Math.max(1, settleRounds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        WarmupReport report;
+        try {
+            report = warmUp();
+        } catch (IOException | RuntimeException e) {
+            // A cold start is slower, not broken, so it must not stop the application
+            log.warn("JIT warm-up failed, continuing without it", e);
+            return;
+        }
+        TimeGauge.builder("app.warmup.duration", report, TimeUnit.MILLISECONDS, WarmupReport::millis)
+                .description("Time spent warming up the JIT before reporting ready")
+                .tag("outcome", report.outcome())
+                .strongReference(true)
+                .register(meterRegistry);
+        if (report.compilationMillis() >= 0) {
+            TimeGauge.builder("app.warmup.compilation.time", report, TimeUnit.MILLISECONDS,
+                            WarmupReport::compilationMillis)
+                    .description("JIT compilation time accumulated during the warm-up")
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Exercise the hot paths against a fresh sandbox.
+     *
+     * @return Warm-up statistics
+     */
+    public WarmupReport warmUp() throws IOException {
+        long started = System.nanoTime();
+        long deadline = started + maxDurationNanos;
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean timed = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long compiledAtStart = timed ? compiler.getTotalCompilationTime() : 0;
+
+        int rounds = 0;
+        long calls = 0;
+        int quietRounds = 0;
+        boolean settled = false;
+        try (Sandbox sandbox = new Sandbox(handlerAdapter.getMessageConverters(), sandboxFactory())) {
+            sandbox.fill(products, users);
+            while (!settled && System.nanoTime() < deadline) {
+                long roundStart = System.nanoTime();
+                long compiledAtRoundStart = timed ? compiler.getTotalCompilationTime() : 0;
+                do {
+                    sandbox.exercise();
+                } while (System.nanoTime() - roundStart < ROUND_NANOS && System.nanoTime() < deadline);
+                rounds++;
+                // Without compilation times the budget is the only limit
+                if (timed) {
+                    long roundMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+                    long compiledMillis = compiler.getTotalCompilationTime() - compiledAtRoundStart;
+                    quietRounds = compiledMillis <= roundMillis * QUIET_COMPILATION_SHARE ? quietRounds + 1 : 0;
+                    settled = quietRounds >= settleRounds;
+                }
+            }
+            calls = sandbox.calls;
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        long compilationMillis = timed ? compiler.getTotalCompilationTime() - compiledAtStart : -1;
+        WarmupReport report = new WarmupReport(rounds, calls, millis, compilationMillis, settled);
+        log.info("JIT warm-up {} in {} ms ({} rounds, {} calls, {} ms compiling)",
+                settled ? "settled" : "reached its time budget", millis, rounds, calls, compilationMillis);
+        return report;
+    }
+
+    /**
+     * Bean factory that creates sandbox components through their own constructors, resolving
+     * their {@code @Value} parameters against the application's configuration. It has no
+     * parent, so every collaborator is one the sandbox registered itself.
+     */
+    private DefaultListableBeanFactory sandboxFactory() {
+        MutablePropertySources sources = new MutablePropertySources();
+        sources.addFirst(new MapPropertySource("jitWarmupSandbox", SANDBOX_PROPERTIES));
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            sources.addLast(source);
+        }
+        PropertySourcesPropertyResolver properties = new PropertySourcesPropertyResolver(sources);
+
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        factory.setAutowireCandidateResolver(new ContextAnnotationAutowireCandidateResolver());
+        factory.setConversionService(ApplicationConversionService.getSharedInstance());
+        factory.addEmbeddedValueResolver(properties::resolveRequiredPlaceholders);
+        AutowiredAnnotationBeanPostProcessor autowiring = new AutowiredAnnotationBeanPostProcessor();
+        autowiring.setBeanFactory(factory);
+        factory.addBeanPostProcessor(autowiring);
+        factory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        return factory;
+    }
+
+    /**
+     * Private instances of the request path classes with synthetic data.
+     * Product storage follows the tiering setting, so the sandbox warms the same store
+     * implementation as the real repository instead of a second one at the same call sites.
+     */
+    private final class Sandbox implements AutoCloseable {
+
+        private static final String[] WORDS = {"laptop", "mouse", "keyboard", "monitor", "cable", "wireless",
+                "ergonomic", "portable", "gaming", "office", "charger", "stand"};
+        private static final String[] ROLES = {"ADMIN", "USER"};
+        private static final Type ID_LIST = ResolvableType.forClassWithGenerics(List.class, Long.class).getType();
+
+        private final List<HttpMessageConverter<?>> converters;
+        private final MutationPipeline pipeline;
+        private final ProductRepository productRepository;
+        private final ProductServiceImpl productService;
+        private final ProductController productController;
+        private final UserController userController;
+        private final List<Long> productIds = new ArrayList<>();
+        private final List<Long> userIds = new ArrayList<>();
+        private final List<String> userEmails = new ArrayList<>();
+        private final Random random = new Random(42);
+        private final BodySink sink = new BodySink();
+        private long serial;
+        private long calls;
+
+        Sandbox(List<HttpMessageConverter<?>> converters, DefaultListableBeanFactory factory) {
+            this.converters = converters;
+            create(factory, "changeFeed", ChangeFeed.class);
+            this.pipeline = create(factory, "mutationPipeline", MutationPipeline.class);
+            this.productRepository = create(factory, "productRepository", ProductRepository.class);
+            UserRepository userRepository = create(factory, "userRepository", UserRepository.class);
+            this.productService = create(factory, "productService", ProductServiceImpl.class);
+            this.productController = new ProductController(productService);
+            this.userController = new UserController(create(factory, "userService", UserServiceImpl.class));
+            pipeline.afterSingletonsInstantiated();
+        }
+
+        /**
+         * Construct a component and register it for the ones created after it.
+         */
+        private static <T> T create(DefaultListableBeanFactory factory, String name, Class<T> type) {
+            T bean = factory.createBean(type);
+            factory.registerSingleton(name, bean);
+            return bean;
+        }
+
+        void fill(int products, int users) {
+            for (int i = 0; i < products; i++) {
+                productIds.add(productService.createProduct(product()).getId());
+            }
+            for (int i = 0; i < users; i++) {
+                User user = (User) userController.createUser(user()).getBody();
+                userIds.add(user.getId());
+                userEmails.add(user.getEmail());
+            }
+        }
+
+        /**
+         * Make one pass over the product and user endpoints, reads and writes alike.
+         */
+        void exercise() throws IOException {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            // Bound request parameters arrive as mutable lists
+            List<Long> ids = Arrays.asList(pick(productIds), pick(productIds), pick(productIds), -1L);
+            write(productController.getAllProducts());
+            write(productController.getProductById(Long.toString(pick(productIds))));
+            write(productController.getProductById("-1"));
+            write(productController.getProductsByIds(ids));
+            write(productController.batchGetProducts(roundTrip(ids, ID_LIST)));
+            write(productController.searchProducts(null, null, null, word, 20));
+            write(productController.searchProducts(null, null, null, word.substring(0, 3) + "*", 20));
+            write(productController.searchProducts(word, null, null, null, 20));
+            write(productController.searchProducts(null, price(), null, null, 20));
+            write(productController.getInStockProducts());
+            write(productController.getProductChanges(0, 100));
+
+            ResponseEntity<?> created = productController.createProduct(roundTrip(product(), Product.class));
+            write(created);
+            long productId = ((Product) created.getBody()).getId();
+            write(productController.updateProduct(productId, roundTrip(product(), Product.class)));
+            write(productController.updateStock(productId, 10));
+            ResponseEntity<?> reserved = productController.reserveStock(productId, 1, null);
+            write(reserved);
+            long reservationId = ((Reservation) reserved.getBody()).id();
+            write(productController.getReservation(productId, reservationId));
+            write(random.nextBoolean()
+                    ? productController.confirmReservation(productId, reservationId)
+                    : productController.releaseReservation(productId, reservationId));
+            write(productController.createProduct(roundTrip(new Product("", null, BigDecimal.ONE, 1), Product.class)));
+            write(productController.deleteProduct(productId));
+
+            int user = random.nextInt(userIds.size());
+            write(userController.getAllUsers());
+            write(userController.getUserById(Long.toString(userIds.get(user))));
+            write(userController.getUsersByIds(Arrays.asList(userIds.get(user), pick(userIds), -1L)));
+            write(userController.getUserByEmail(userEmails.get(user)));
+            write(userController.getUsersByRole(ROLES[random.nextInt(ROLES.length)]));
+            write(userController.getUserChanges(0, 100));
+            ResponseEntity<?> createdUser = userController.createUser(roundTrip(user(), User.class));
+            write(createdUser);
+            long createdUserId = ((User) createdUser.getBody()).getId();
+            write(userController.updateUser(createdUserId, roundTrip(user(), User.class)));
+            write(userController.createUser(roundTrip(new User("Duplicate", userEmails.get(user), "USER"), User.class)));
+            write(userController.deleteUser(createdUserId));
+        }
+
+        @Override
+        public void close() {
+            productService.shutdown();
+            try {
+                pipeline.shutdown();
+            } catch (InterruptedException e) {
+                // Startup is being cancelled; leave the flag for the caller to act on
+                Thread.currentThread().interrupt();
+            } finally {
+                productRepository.close();
+            }
+        }
+
+        private Product product() {
+            long i = serial++;
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            return new Product(name, "Warm-up product " + i + " for " + WORDS[random.nextInt(WORDS.length)] + " use",
+                    price(), 5 + random.nextInt(50));
+        }
+
+        private User user() {
+            long i = serial++;
+            return new User("Warm-up User " + i, "warmup-" + i + "@example.invalid", ROLES[(int) (i & 1)]);
+        }
+
+        private BigDecimal price() {
+            return BigDecimal.valueOf(100 + random.nextInt(99_900), 2);
+        }
+
+        private long pick(List<Long> ids) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+
+        /**
+         * Serialize a response body the way Spring MVC would, with the first converter that accepts it.
+         */
+        private void write(ResponseEntity<?> response) throws IOException {
+            calls++;
+            Object body = response.getBody();
+            if (body != null) {
+                writeBody(body);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeBody(Object body) throws IOException {
+            Type type = body instanceof List<?> list && !list.isEmpty()
+                    ? ResolvableType.forClassWithGenerics(List.class, list.get(0).getClass()).getType()
+                    : body.getClass();
+            sink.reset();
+            for (HttpMessageConverter<?> converter : converters) {
+                if (converter instanceof GenericHttpMessageConverter<?> generic
+                        && generic.canWrite(type, body.getClass(), MediaType.APPLICATION_JSON)) {
+                    ((GenericHttpMessageConverter<Object>) generic).write(body, type, MediaType.APPLICATION_JSON, sink);
+                    return;
+                }
+                if (!(converter instanceof GenericHttpMessageConverter<?>)
+                        && converter.canWrite(body.getClass(), MediaType.APPLICATION_JSON)) {
+                    ((HttpMessageConverter<Object>) converter).write(body, MediaType.APPLICATION_JSON, sink);
+                    return;
+                }
+            }
+            throw new IllegalStateException("No JSON converter for " + body.getClass().getName());
+        }
+
+        /**
+         * Write a request body to JSON and read it back as a controller argument.
+         */
+        @SuppressWarnings("unchecked")
+        private <T> T roundTrip(T value, Type type) throws IOException {
+            writeBody(value);
+            HttpInputMessage request = sink.toRequest();
+            for (HttpMessageConverter<?> converter : converters) {
+                if (converter instanceof GenericHttpMessageConverter<?> generic
+                        && generic.canRead(type, null, MediaType.APPLICATION_JSON)) {
+                    return (T) generic.read(type, null, request);
+                }
+            }
+            throw new IllegalStateException("No JSON converter for " + type.getTypeName());
+        }
+    }
+
+    /**
+     * In-memory response body for the message converters.
+     */
+    private static final class BodySink implements HttpOutputMessage {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        private HttpHeaders headers = new HttpHeaders();
+
+        void reset() {
+            body.reset();
+            headers = new HttpHeaders();
+        }
+
+        /**
+         * @return The written body as a JSON request body
+         */
+        HttpInputMessage toRequest() {
+            HttpHeaders requestHeaders = new HttpHeaders();
+            requestHeaders.setContentType(MediaType.APPLICATION_JSON);
+            byte[] bytes = body.toByteArray();
+            return new HttpInputMessage() {
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(bytes);
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return requestHeaders;
+                }
+            };
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.warmup;
+
+/**
+ * Outcome of the JIT warm-up.
+ *
+ * @param rounds            Rounds of calls run
+ * @param calls             Controller calls made against the sandbox
+ * @param millis            Wall-clock duration of the warm-up
+ * @param compilationMillis JIT compilation time accumulated during the warm-up, or -1 if the JVM does not report it
+ * @param settled           Whether compilation settled before the time budget ran out
+ */
+public record WarmupReport(int rounds, long calls, long millis, long compilationMillis, boolean settled) {
+
+    public String outcome() {
+        return settled ? "settled" : "budget";
+    }
+}
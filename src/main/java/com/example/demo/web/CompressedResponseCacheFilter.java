@@ -0,0 +1,232 @@
+package com.example.demo.web;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.footprint.MemoryFootprintSource;
+import com.example.demo.footprint.StructureFootprint;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.UserRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches gzip-compressed bodies of the list endpoints.
+ * Entries are tagged with the repositories' modification counters, so a repeated GET
+ * is answered with the stored compressed bytes until a product or user changes. Search
+ * responses are also tagged with the search index's progress, since the index trails writes.
+ * Responses that are not cached are left to the servlet container's own compression.
+ * A hit is not written here but by {@link CompressedResponseCacheInterceptor}, registered
+ * after admission control and the replica's staleness check, so cached reads are shed and
+ * refused like any other. Requests with an {@code Origin} are not cached, so every
+ * cross-origin response passes Spring's CORS processing.
+ * Multi-gets ({@code ids}) and projections ({@code fields}) are not cached: their keys are
+ * open-ended and would crowd the repeated full lists out of the bounded cache.
+ * In sharded mode product lists are merged from peers whose writes these counters do not
+ * see, so product paths are never cached there.
+ */
+@Component
+public class CompressedResponseCacheFilter extends OncePerRequestFilter implements MemoryFootprintSource {
+
+    // Hash map node and Entry record, besides the key string and body
+    private static final long ENTRY_BYTES = MemoryEstimates.object(3 * MemoryEstimates.REFERENCE + 4)
+            + MemoryEstimates.object(Long.BYTES + 2 * MemoryEstimates.REFERENCE);
+
+    private static final String PRODUCTS_PATH = "/api/products";
+    private static final String PRODUCT_SEARCH_PATH = "/api/products/search";
+    private static final List<String> UNCACHED_PARAMETERS = List.of("ids", "fields");
+    private static final String HIT_ATTRIBUTE = CompressedResponseCacheFilter.class.getName() + ".hit";
+    private static final String SERVED_ATTRIBUTE = CompressedResponseCacheFilter.class.getName() + ".served";
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final boolean sharding;
+    private final Set<String> paths;
+    private final int minResponseSize;
+    private final int compressionLevel;
+    private final int maxEntries;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    // Constructor-based dependency injection
+    public CompressedResponseCacheFilter(ProductRepository productRepository,
+                                         UserRepository userRepository,
+                                         @Value("${app.compression.cache.enabled:true}") boolean enabled,
+                                         @Value("${app.sharding.enabled:false}") boolean sharding,
+                                         @Value("${app.compression.cache.paths:/api/products,/api/products/search,/api/products/instock,/api/users,/api/users/search/role}") Set<String> paths,
+                                         @Value("${app.compression.cache.min-response-size:2048}") int minResponseSize,
+                                         @Value("${app.compression.cache.level:1}") int compressionLevel,
+                                         @Value("${app.compression.cache.max-entries:256}") int maxEntries) {
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.sharding = sharding;
+        this.paths = paths;
+        this.minResponseSize = minResponseSize;
+        this.compressionLevel = compressionLevel;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!enabled || !"GET".equals(request.getMethod()) || !paths.contains(path)) {
+            return true;
+        }
+        if (sharding && path.startsWith(PRODUCTS_PATH)) {
+            return true;
+        }
+        if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+            return true;
+        }
+        for (String parameter : UNCACHED_PARAMETERS) {
+            if (request.getParameter(parameter) != null) {
+                return true;
+            }
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding == null || !acceptEncoding.contains("gzip");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = cacheKey(request);
+        // Read before the handler runs: a concurrent mutation then invalidates what we store
+        long version = currentVersion(request.getRequestURI());
+
+        Entry entry = cache.get(key);
+        if (entry != null && entry.version == version) {
+            request.setAttribute(HIT_ATTRIBUTE, entry);
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        if (request.getAttribute(SERVED_ATTRIBUTE) != null
+                || wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentSize() < minResponseSize) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        entry = new Entry(version, wrapper.getContentType(), compress(wrapper.getContentAsByteArray(), compressionLevel));
+        store(key, entry);
+        wrapper.resetBuffer();
+        writeCompressed(response, entry);
+    }
+
+    /**
+     * Writes the cached body found for this request, if any, in place of the handler's response.
+     *
+     * @return whether a cached body was written
+     */
+    boolean serveHit(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!(request.getAttribute(HIT_ATTRIBUTE) instanceof Entry entry)) {
+            return false;
+        }
+        request.removeAttribute(HIT_ATTRIBUTE);
+        request.setAttribute(SERVED_ATTRIBUTE, Boolean.TRUE);
+        writeCompressed(response, entry);
+        return true;
+    }
+
+    /**
+     * Walks the entries, which are bounded by {@code maxEntries}.
+     */
+    @Override
+    public List<StructureFootprint> footprint() {
+        long bytes = 0;
+        int entries = 0;
+        for (Map.Entry<String, Entry> cached : cache.entrySet()) {
+            // Content type strings are short and left out
+            bytes += ENTRY_BYTES + MemoryEstimates.string(cached.getKey())
+                    + MemoryEstimates.array(cached.getValue().body.length, 1);
+            entries++;
+        }
+        return List.of(StructureFootprint.heap("compressed-response-cache", entries, bytes, null));
+    }
+
+    private String cacheKey(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + '?' + (query == null ? "" : query) + '|' + (accept == null ? "" : accept);
+    }
+
+    private long currentVersion(String path) {
+        // The counters only grow, so their sum changes on every mutation
+        long products = PRODUCT_SEARCH_PATH.equals(path)
+                ? productRepository.searchVersion() : productRepository.modificationCount();
+        return products + userRepository.modificationCount();
+    }
+
+    private void store(String key, Entry entry) {
+        if (cache.size() >= maxEntries && !cache.containsKey(key)) {
+            cache.values().removeIf(cached -> cached.version != entry.version);
+            if (cache.size() >= maxEntries) {
+                return;
+            }
+        }
+        cache.put(key, entry);
+    }
+
+    static byte[] compress(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(buffer, level)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    private void writeCompressed(HttpServletResponse response, Entry entry) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        if (entry.contentType != null) {
+            response.setContentType(entry.contentType);
+        }
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // The key includes Accept, so shared caches must tell the representations apart too
+        addVary(response, HttpHeaders.ACCEPT_ENCODING);
+        addVary(response, HttpHeaders.ACCEPT);
+        response.setContentLength(entry.body.length);
+        response.getOutputStream().write(entry.body);
+    }
+
+    private static void addVary(HttpServletResponse response, String header) {
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            for (String name : vary.split(",")) {
+                if (name.trim().equalsIgnoreCase(header)) {
+                    return;
+                }
+            }
+        }
+        response.addHeader(HttpHeaders.VARY, header);
+    }
+
+    private record Entry(long version, String contentType, byte[] body) {
+    }
+
+    /**
+     * GZIP stream with a configurable deflate level; level 1 trades a little ratio for much less CPU.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION
+                    ? Deflater.BEST_SPEED : level);
+        }
+    }
+}
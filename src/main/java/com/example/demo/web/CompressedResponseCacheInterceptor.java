@@ -0,0 +1,25 @@
+package com.example.demo.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers a request from {@link CompressedResponseCacheFilter}'s cache instead of running
+ * the handler. Registered after the interceptors that may refuse the request, so a cached
+ * body is only served once they have let it through.
+ */
+public class CompressedResponseCacheInterceptor implements HandlerInterceptor {
+
+    private final CompressedResponseCacheFilter cache;
+
+    public CompressedResponseCacheInterceptor(CompressedResponseCacheFilter cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        return !cache.serveHit(request, response);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * A compiled subset of an entity's JSON properties.
+ * Writes the selected properties straight from the entity's getters in declaration order,
+ * with property names encoded once when the projection is built.
+ */
+final class FieldProjection {
+
+    private final Class<?> type;
+    private final SerializedString[] names;
+    private final AnnotatedMember[] accessors;
+    private final boolean skipNulls;
+
+    FieldProjection(Class<?> type, SerializedString[] names, AnnotatedMember[] accessors, boolean skipNulls) {
+        this.type = type;
+        this.names = names;
+        this.accessors = accessors;
+        this.skipNulls = skipNulls;
+    }
+
+    /**
+     * Whether the value is an entity of the projected type; anything else is written whole.
+     */
+    boolean appliesTo(Object value) {
+        return type.isInstance(value);
+    }
+
+    void write(Object entity, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+            Object value = accessors[i].getValue(entity);
+            if (value == null && skipNulls) {
+                continue;
+            }
+            generator.writeFieldName(names[i]);
+            writeValue(value, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeValue(Object value, JsonGenerator generator) throws IOException {
+        // Entity properties are simple values; only other types go through a Jackson serializer
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String string) {
+            generator.writeString(string);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof BigDecimal number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+}
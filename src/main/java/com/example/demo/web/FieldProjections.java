@@ -0,0 +1,115 @@
+package com.example.demo.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles and caches {@link FieldProjection}s.
+ * Properties are taken from the same Jackson introspection that serializes whole entities,
+ * so names, order and ignored properties match the full representation. A projection is
+ * keyed by the set of properties it selects, not by how the request spelled it, which also
+ * bounds the cache to the subsets of each entity's properties.
+ */
+final class FieldProjections {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Schema> schemas = new ConcurrentHashMap<>();
+    private final Map<Key, FieldProjection> projections = new ConcurrentHashMap<>();
+
+    FieldProjections(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get the projection of an entity type onto a comma-separated list of properties.
+     *
+     * @throws IllegalArgumentException if the list names no property or an unknown one
+     */
+    FieldProjection get(Class<?> type, String fields) {
+        Schema schema = schemas.computeIfAbsent(type, this::introspect);
+        long selected = 0;
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Integer index = schema.indexByName.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "', expected any of "
+                        + String.join(",", schema.indexByName.keySet()));
+            }
+            selected |= 1L << index;
+        }
+        if (selected == 0) {
+            throw new IllegalArgumentException("Fields must name at least one property");
+        }
+        return projections.computeIfAbsent(new Key(type, selected), key -> schema.project(key.selected));
+    }
+
+    private Schema introspect(Class<?> type) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        BeanDescription description = config.introspect(objectMapper.constructType(type));
+        List<SerializedString> names = new ArrayList<>();
+        List<AnnotatedMember> accessors = new ArrayList<>();
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            if (property.couldSerialize()) {
+                names.add(new SerializedString(property.getName()));
+                accessors.add(property.getAccessor());
+            }
+        }
+        if (names.size() > Long.SIZE) {
+            throw new IllegalStateException(type.getSimpleName() + " has too many properties to project");
+        }
+        JsonInclude.Include inclusion = config.getDefaultPropertyInclusion(type).getValueInclusion();
+        return new Schema(type, names, accessors, inclusion == JsonInclude.Include.NON_NULL);
+    }
+
+    private record Key(Class<?> type, long selected) {
+    }
+
+    private static final class Schema {
+
+        private final Class<?> type;
+        private final List<SerializedString> names;
+        private final List<AnnotatedMember> accessors;
+        private final boolean skipNulls;
+        private final Map<String, Integer> indexByName = new LinkedHashMap<>();
+
+        private Schema(Class<?> type, List<SerializedString> names, List<AnnotatedMember> accessors,
+                       boolean skipNulls) {
+            this.type = type;
+            this.names = names;
+            this.accessors = accessors;
+            this.skipNulls = skipNulls;
+            for (int i = 0; i < names.size(); i++) {
+                indexByName.put(names.get(i).getValue(), i);
+            }
+        }
+
+        private FieldProjection project(long selected) {
+            int count = Long.bitCount(selected);
+            SerializedString[] selectedNames = new SerializedString[count];
+            AnnotatedMember[] selectedAccessors = new AnnotatedMember[count];
+            int next = 0;
+            for (int i = 0; i < names.size(); i++) {
+                if ((selected & (1L << i)) != 0) {
+                    selectedNames[next] = names.get(i);
+                    selectedAccessors[next] = accessors.get(i);
+                    next++;
+                }
+            }
+            return new FieldProjection(type, selectedNames, selectedAccessors, skipNulls);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.web;
+
+import com.example.demo.model.JsonCacheable;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes entities and collections of entities as JSON by copying their cached
+ * UTF-8 byte form straight to the response body.
+ * Only the first response after a mutation pays for Jackson serialization;
+ * reading is left to the regular Jackson converter. Bodies projected by
+ * {@link SparseFieldsetAdvice} are streamed through a generator instead, one selected
+ * property at a time.
+ */
+public class PreSerializedJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte ARRAY_START = '[';
+    private static final byte ARRAY_END = ']';
+    private static final byte SEPARATOR = ',';
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final ObjectMapper objectMapper;
+
+    public PreSerializedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonCacheable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (supports(clazz)) {
+            return true;
+        }
+        if (type == null || !Collection.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> elementType = ResolvableType.forType(type).asCollection().resolveGeneric();
+        return elementType != null && JsonCacheable.class.isAssignableFrom(elementType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        OutputStream body = outputMessage.getBody();
+        if (object instanceof ProjectedBody projected) {
+            writeProjected(projected, body);
+        } else if (object instanceof Collection<?> collection) {
+            body.write(ARRAY_START);
+            boolean first = true;
+            for (Object element : collection) {
+                if (!first) {
+                    body.write(SEPARATOR);
+                }
+                body.write(element == null ? NULL : toJson((JsonCacheable) element));
+                first = false;
+            }
+            body.write(ARRAY_END);
+        } else {
+            body.write(toJson((JsonCacheable) object));
+        }
+        body.flush();
+    }
+
+    private void writeProjected(ProjectedBody projected, OutputStream body) throws IOException {
+        FieldProjection projection = projected.projection();
+        try (JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(body))) {
+            if (projected.value() instanceof Collection<?> collection) {
+                generator.writeStartArray();
+                for (Object element : collection) {
+                    writeProjected(element, projection, generator);
+                }
+                generator.writeEndArray();
+            } else {
+                writeProjected(projected.value(), projection, generator);
+            }
+        }
+    }
+
+    private static void writeProjected(Object element, FieldProjection projection, JsonGenerator generator)
+            throws IOException {
+        if (projection.appliesTo(element)) {
+            projection.write(element, generator);
+        } else {
+            // Not-found markers and nulls keep their full form
+            generator.writeObject(element);
+        }
+    }
+
+    @Override
+    protected Long getContentLength(Object object, @Nullable MediaType contentType) throws IOException {
+        // Known up front for single entities, which lets the container skip chunking and small-body compression
+        if (object instanceof JsonCacheable entity) {
+            return (long) toJson(entity).length;
+        }
+        return null;
+    }
+
+    /**
+     * Get the JSON bytes of an entity, serializing it only if the cached form is stale.
+     */
+    public byte[] toJson(JsonCacheable entity) throws IOException {
+        return entity.json().get(() -> objectMapper.writeValueAsBytes(entity));
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-serialized JSON converter is write-only", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Pre-serialized JSON converter is write-only", inputMessage);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.web;
+
+/**
+ * A response body of entities to be written through a projection instead of their
+ * cached JSON.
+ *
+ * @param value      An entity or a collection of entities
+ * @param projection The properties to write
+ */
+record ProjectedBody(Object value, FieldProjection projection) {
+}
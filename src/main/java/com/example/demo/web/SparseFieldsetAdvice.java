@@ -0,0 +1,54 @@
+package com.example.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Applies {@code ?fields=} to GET responses of {@link SparseFieldsets} controllers.
+ * Only entity bodies written by {@link PreSerializedJsonHttpMessageConverter} are
+ * projected; error bodies, delta-sync change sets and binary formats are written whole.
+ * An unknown field surfaces as {@link IllegalArgumentException} to the controller's
+ * exception handler.
+ */
+@ControllerAdvice
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String FIELDS_PARAMETER = "fields";
+
+    private final FieldProjections projections;
+
+    // Constructor-based dependency injection
+    public SparseFieldsetAdvice(ObjectMapper objectMapper) {
+        this.projections = new FieldProjections(objectMapper);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return PreSerializedJsonHttpMessageConverter.class.isAssignableFrom(converterType)
+                && returnType.getContainingClass().isAnnotationPresent(SparseFieldsets.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || request.getMethod() != HttpMethod.GET
+                || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (fields == null || fields.isBlank()) {
+            return body;
+        }
+        Class<?> type = returnType.getContainingClass().getAnnotation(SparseFieldsets.class).value();
+        return new ProjectedBody(body, projections.get(type, fields));
+    }
+}
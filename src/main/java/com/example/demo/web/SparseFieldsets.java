@@ -0,0 +1,26 @@
+package com.example.demo.web;
+
+import com.example.demo.model.JsonCacheable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lets clients of a controller's GET endpoints request only some properties of its
+ * entity with {@code ?fields=id,price}.
+ *
+ * @see SparseFieldsetAdvice
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFieldsets {
+
+    /**
+     * The entity returned by the controller, whose JSON properties {@code fields} may name.
+     */
+    Class<? extends JsonCacheable> value();
+}
@@ -0,0 +1,95 @@
+package com.example.demo.footprint;
+
+import com.example.demo.model.Product;
+import com.example.demo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.openjdk.jol.vm.VM;
+import org.openjdk.jol.vm.VirtualMachine;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the estimates with the layouts JOL measures on the running JVM. The estimates
+ * assume compressed references and class pointers, so other layouts are skipped.
+ */
+class MemoryEstimatesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void requireCompressedLayout() {
+        // Unsafe reports no field offsets for records such as the JSON snapshot; JOL can find them itself
+        System.setProperty("jol.magicFieldOffset", "true");
+        VirtualMachine vm = VM.current();
+        assumeTrue(vm.objectHeaderSize() == MemoryEstimates.OBJECT_HEADER, "12-byte object headers");
+        assumeTrue(vm.arrayHeaderSize() == MemoryEstimates.ARRAY_HEADER, "16-byte array headers");
+        assumeTrue(vm.sizeOfField("oop") == MemoryEstimates.REFERENCE, "compressed references");
+        assumeTrue(vm.objectAlignment() == 8, "8-byte alignment");
+    }
+
+    @Test
+    void objectsAndArrays() {
+        assertThat(MemoryEstimates.object(0)).isEqualTo(size(new Object()));
+        assertThat(MemoryEstimates.array(0, Long.BYTES)).isEqualTo(size(new long[0]));
+        assertThat(MemoryEstimates.array(5, Integer.BYTES)).isEqualTo(size(new int[5]));
+        assertThat(MemoryEstimates.array(13, 1)).isEqualTo(size(new byte[13]));
+        assertThat(MemoryEstimates.array(7, MemoryEstimates.REFERENCE)).isEqualTo(size(new Object[7]));
+    }
+
+    @Test
+    void strings() {
+        String latin1 = new String("Noise-canceling headphones");
+        String utf16 = new String("Kopfhörer – kabellos");
+
+        assertThat(MemoryEstimates.string(latin1)).isEqualTo(size(latin1));
+        assertThat(MemoryEstimates.string(utf16)).isEqualTo(size(utf16));
+        assertThat(MemoryEstimates.string(new String(""))).isEqualTo(size(new String(new char[0])));
+    }
+
+    @Test
+    void boxedNumbers() {
+        assertThat(MemoryEstimates.boxed(1_000_000L)).isEqualTo(size(Long.valueOf(1_000_000L)));
+        assertThat(MemoryEstimates.boxed(1_000)).isEqualTo(size(Integer.valueOf(1_000)));
+        assertThat(MemoryEstimates.boxed(42)).isZero();
+    }
+
+    @Test
+    void bigDecimals() {
+        BigDecimal compact = new BigDecimal("999.99");
+        BigDecimal inflated = new BigDecimal("123456789012345678901234567890.12");
+        // The estimate counts the cached string, which serializing fills in
+        compact.toString();
+        inflated.toString();
+
+        assertThat(MemoryEstimates.bigDecimal(compact)).isEqualTo(size(compact));
+        assertThat(MemoryEstimates.bigDecimal(inflated)).isEqualTo(size(inflated));
+    }
+
+    @Test
+    void productWithItsJsonSnapshot() throws Exception {
+        Product product = new Product(123_456L, "Wireless keyboard", "Low-profile mechanical keyboard",
+                new BigDecimal("89.99"), 300);
+        product.json().get(() -> objectMapper.writeValueAsBytes(product));
+
+        assertThat((long) MemoryEstimates.product(product)).isEqualTo(size(product));
+    }
+
+    @Test
+    void userWithItsJsonSnapshot() throws Exception {
+        User user = new User("Ada Lovelace", "ada@example.com", "ADMIN");
+        user.setId(123_456L);
+        user.json().get(() -> objectMapper.writeValueAsBytes(user));
+
+        assertThat((long) MemoryEstimates.user(user)).isEqualTo(size(user));
+    }
+
+    private static long size(Object root) {
+        return GraphLayout.parseInstance(root).totalSize();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrentLongMapTest {
+
+    // Segment and slot are taken from the low bits of small keys: 6 bits of segment, then the slot
+    private static final long SLOT = 64;
+
+    @Test
+    void putGetRemove() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(0);
+
+        assertThat(map.put(7, "a")).isNull();
+        assertThat(map.put(7, "b")).isEqualTo("a");
+        assertThat(map.get(7)).isEqualTo("b");
+        assertThat(map.containsKey(8)).isFalse();
+        assertThat(map.remove(7)).isEqualTo("b");
+        assertThat(map.remove(7)).isNull();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void rejectsNullValues() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(0);
+
+        assertThatThrownBy(() -> map.put(1, null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void backwardShiftKeepsWrappedProbeSequencesReachable() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(0);
+        // Same segment, all homed on the last of its 16 slots, so the cluster wraps to the front
+        long[] colliding = {15 * SLOT, 31 * SLOT, 47 * SLOT};
+        for (long key : colliding) {
+            map.put(key, "v" + key);
+        }
+        map.put(0, "zero");
+
+        assertThat(map.remove(15 * SLOT)).isEqualTo("v" + 15 * SLOT);
+
+        assertThat(map.get(31 * SLOT)).isEqualTo("v" + 31 * SLOT);
+        assertThat(map.get(47 * SLOT)).isEqualTo("v" + 47 * SLOT);
+        assertThat(map.get(0)).isEqualTo("zero");
+        assertThat(map.remove(31 * SLOT)).isNotNull();
+        assertThat(map.get(47 * SLOT)).isEqualTo("v" + 47 * SLOT);
+        assertThat(map.get(0)).isEqualTo("zero");
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void resizeKeepsEveryEntryAndValueSizes() {
+        ConcurrentLongMap<String> map = new ConcurrentLongMap<>(0, String::length);
+        for (long key = 1; key <= 20_000; key++) {
+            map.put(key, "value-" + key);
+        }
+        long withValues = map.footprint("map").get(0).retainedBytes();
+        for (long key = 1; key <= 20_000; key++) {
+            map.put(key, "v");
+        }
+
+        assertThat(map.size()).isEqualTo(20_000);
+        assertThat(map.values()).hasSize(20_000);
+        assertThat(map.footprint("map").get(0).retainedBytes()).isLessThan(withValues);
+        for (long key = 1; key <= 20_000; key++) {
+            assertThat(map.get(key)).isEqualTo("v");
+        }
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        ConcurrentLongMap<Long> map = new ConcurrentLongMap<>(0);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(4_000) * SLOT;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                long value = random.nextInt(1_000);
+                assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        assertThat(map.values()).containsExactlyInAnyOrderElementsOf(expected.values());
+        for (long key = 0; key < 4_000 * SLOT; key += SLOT) {
+            assertThat(map.get(key)).isEqualTo(expected.get(key));
+        }
+    }
+
+    @Test
+    void readersNeverMissStableKeysWhileWritersChurn() throws Exception {
+        ConcurrentLongMap<long[]> map = new ConcurrentLongMap<>(0);
+        // Even keys stay put; odd keys in the same segments are added and removed, forcing
+        // backward shifts and resizes around the stable ones
+        int stable = 2_000;
+        for (long key = 0; key < stable; key++) {
+            map.put(key * 2 * SLOT, new long[]{key * 2 * SLOT});
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                Random random = new Random(7);
+                while (running.get()) {
+                    long key = (random.nextInt(20_000) * 2L + 1) * SLOT;
+                    if (random.nextBoolean()) {
+                        map.put(key, new long[]{key});
+                    } else {
+                        map.remove(key);
+                    }
+                }
+            });
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(executor.submit(() -> {
+                    long reads = 0;
+                    Random random = new Random();
+                    while (running.get()) {
+                        long key = random.nextInt(stable) * 2L * SLOT;
+                        long[] value = map.get(key);
+                        assertThat(value).as("stable key %d", key).isNotNull();
+                        assertThat(value[0]).isEqualTo(key);
+                        long churned = (random.nextInt(20_000) * 2L + 1) * SLOT;
+                        long[] other = map.get(churned);
+                        if (other != null) {
+                            assertThat(other[0]).isEqualTo(churned);
+                        }
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            Thread.sleep(1_000);
+            running.set(false);
+            writer.get(10, TimeUnit.SECONDS);
+            for (Future<Long> reader : readers) {
+                assertThat(reader.get(10, TimeUnit.SECONDS)).isPositive();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+        assertThat(map.filter(value -> value[0] % (2 * SLOT) == 0)).hasSize(stable);
+    }
+}
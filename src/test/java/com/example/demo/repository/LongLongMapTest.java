@@ -0,0 +1,113 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongLongMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        LongLongMap map = new LongLongMap(16);
+
+        assertThat(map.put(7, 70)).isZero();
+        assertThat(map.put(7, 71)).isEqualTo(70);
+
+        assertThat(map.get(7)).isEqualTo(71);
+        assertThat(map.get(8)).isZero();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsValuesThatMarkEmptySlots() {
+        LongLongMap map = new LongLongMap(16);
+
+        assertThatThrownBy(() -> map.put(1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.put(1, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void removeOnlyMatchingValue() {
+        LongLongMap map = new LongLongMap(16);
+        map.put(1, 10);
+
+        assertThat(map.remove(1, 11)).isFalse();
+        assertThat(map.remove(2, 10)).isFalse();
+        assertThat(map.get(1)).isEqualTo(10);
+        assertThat(map.remove(1, 10)).isTrue();
+        assertThat(map.get(1)).isZero();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void backwardShiftKeepsWrappedProbeSequencesReachable() {
+        LongLongMap map = new LongLongMap(0);
+        assertThat(map.capacity()).isEqualTo(16);
+        // Small keys hash to themselves: all three start at the last slot and wrap to the front
+        long[] colliding = {15, 31, 47};
+        for (long key : colliding) {
+            map.put(key, key + 1);
+        }
+        map.put(0, 1);
+
+        assertThat(map.remove(15, 16)).isTrue();
+
+        assertThat(map.get(31)).isEqualTo(32);
+        assertThat(map.get(47)).isEqualTo(48);
+        assertThat(map.get(0)).isEqualTo(1);
+        assertThat(map.remove(31, 32)).isTrue();
+        assertThat(map.get(47)).isEqualTo(48);
+        assertThat(map.get(0)).isEqualTo(1);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void resizeKeepsEveryEntry() {
+        LongLongMap map = new LongLongMap(0);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 31, key);
+        }
+
+        assertThat(map.capacity()).isGreaterThanOrEqualTo(10_000 * 4 / 3);
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key * 31)).isEqualTo(key);
+        }
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        LongLongMap map = new LongLongMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // A narrow key range keeps the table dense, so removals shift long clusters
+            long key = random.nextInt(2_000) * 16L;
+            if (random.nextInt(3) == 0) {
+                Long value = expected.get(key);
+                assertThat(map.remove(key, value == null ? 1 : value)).isEqualTo(value != null);
+                expected.remove(key);
+            } else {
+                long value = 1 + random.nextInt(1_000);
+                Long previous = expected.put(key, value);
+                assertThat(map.put(key, value)).isEqualTo(previous == null ? 0 : previous);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach((key, value) -> {
+            visited.put(key, value);
+            return true;
+        });
+        assertThat(visited).isEqualTo(expected);
+        for (long key = 0; key < 2_000 * 16L; key += 16) {
+            assertThat(map.get(key)).isEqualTo(expected.getOrDefault(key, 0L));
+        }
+    }
+}
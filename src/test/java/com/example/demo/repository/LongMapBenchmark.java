@@ -0,0 +1,217 @@
+package com.example.demo.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the primitive-keyed maps against the boxed JDK maps they replace.
+ * {@code get} and {@code put} touch 4096 random existing keys, so the numbers include cache
+ * misses on large maps; {@code put} replaces values and keeps the map at {@code size}.
+ * {@code iterate} sums every value once. Each map lives in its own state, so a run only
+ * builds the map it measures; at 50M entries the boxed maps need most of the 6 GB heap.
+ * Run with {@code scripts/map-benchmark.sh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class LongMapBenchmark {
+
+    private static final int LOOKUPS = 1 << 12;
+    private static final Long VALUE = 7L;
+
+    @Param({"1000000", "10000000", "50000000"})
+    int size;
+
+    private long[] lookups;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        lookups = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ConcurrentLongMapState {
+        ConcurrentLongMap<Long> map;
+
+        @Setup(Level.Trial)
+        public void setUp(LongMapBenchmark benchmark) {
+            map = new ConcurrentLongMap<>(benchmark.size);
+            for (long key = 1; key <= benchmark.size; key++) {
+                map.put(key, key);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ConcurrentHashMapState {
+        ConcurrentHashMap<Long, Long> map;
+
+        @Setup(Level.Trial)
+        public void setUp(LongMapBenchmark benchmark) {
+            map = new ConcurrentHashMap<>(benchmark.size);
+            for (long key = 1; key <= benchmark.size; key++) {
+                Long boxed = key;
+                map.put(boxed, boxed);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongLongMapState {
+        LongLongMap map;
+
+        @Setup(Level.Trial)
+        public void setUp(LongMapBenchmark benchmark) {
+            map = new LongLongMap(benchmark.size);
+            for (long key = 1; key <= benchmark.size; key++) {
+                map.put(key, key);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HashMapState {
+        Map<Long, Long> map;
+
+        @Setup(Level.Trial)
+        public void setUp(LongMapBenchmark benchmark) {
+            map = new HashMap<>(benchmark.size);
+            for (long key = 1; key <= benchmark.size; key++) {
+                Long boxed = key;
+                map.put(boxed, boxed);
+            }
+        }
+    }
+
+    @Benchmark
+    public long concurrentLongMapGet(ConcurrentLongMapState state) {
+        long sum = 0;
+        for (long key : lookups) {
+            sum += state.map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long concurrentHashMapGet(ConcurrentHashMapState state) {
+        long sum = 0;
+        for (long key : lookups) {
+            sum += state.map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long longLongMapGet(LongLongMapState state) {
+        long sum = 0;
+        for (long key : lookups) {
+            sum += state.map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long hashMapGet(HashMapState state) {
+        long sum = 0;
+        for (long key : lookups) {
+            sum += state.map.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ConcurrentLongMap<Long> concurrentLongMapPut(ConcurrentLongMapState state) {
+        for (long key : lookups) {
+            state.map.put(key, VALUE);
+        }
+        return state.map;
+    }
+
+    @Benchmark
+    public ConcurrentHashMap<Long, Long> concurrentHashMapPut(ConcurrentHashMapState state) {
+        for (long key : lookups) {
+            state.map.put(key, VALUE);
+        }
+        return state.map;
+    }
+
+    @Benchmark
+    public LongLongMap longLongMapPut(LongLongMapState state) {
+        for (long key : lookups) {
+            state.map.put(key, VALUE);
+        }
+        return state.map;
+    }
+
+    @Benchmark
+    public Map<Long, Long> hashMapPut(HashMapState state) {
+        for (long key : lookups) {
+            state.map.put(key, VALUE);
+        }
+        return state.map;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long concurrentLongMapIterate(ConcurrentLongMapState state) {
+        long sum = 0;
+        for (Long value : state.map.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long concurrentHashMapIterate(ConcurrentHashMapState state) {
+        long sum = 0;
+        for (Long value : state.map.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long longLongMapIterate(LongLongMapState state) {
+        long[] sum = new long[1];
+        state.map.forEach((key, value) -> {
+            sum[0] += value;
+            return true;
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long hashMapIterate(HashMapState state) {
+        long sum = 0;
+        for (Long value : state.map.values()) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private static final String[] WORDS = {"kettle", "teapot", "steel", "copper", "glass", "red", "blue",
+            "boils", "water", "lid", "handle", "spout"};
+    private static final List<String> QUERIES = List.of("kettle", "steel copper", "te*", "blue glass lid", "handle*");
+
+    @Test
+    void reindexingUnchangedTextKeepsTheDocument() {
+        TextIndex index = new TextIndex();
+        index.index(1, "Red kettle", "Boils water");
+        long before = index.footprint("index").retainedBytes();
+
+        index.index(1, new String("Red kettle"), new String("Boils water"));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.footprint("index").retainedBytes()).isEqualTo(before);
+        assertThat(index.search("kettle", 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void reindexingChangedTextReplacesTheDocument() {
+        TextIndex index = new TextIndex();
+        index.index(1, "Red kettle", "Boils water");
+
+        index.index(1, "Blue teapot", "Boils water");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("kettle", 10).ids()).isEmpty();
+        assertThat(index.search("teapot", 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void digestSeparatesNameFromDescription() {
+        assertThat(TextIndex.digest("ab", "c")).isNotEqualTo(TextIndex.digest("a", "bc"));
+        assertThat(TextIndex.digest(null, "x")).isNotEqualTo(TextIndex.digest("", "x"));
+        assertThat(TextIndex.digest("a", null)).isNotEqualTo(TextIndex.digest("a", ""));
+    }
+
+    @Test
+    void rarerTermOutranksCommonTerm() {
+        TextIndex index = new TextIndex();
+        for (long id = 1; id <= 9; id++) {
+            index.index(id, "Steel pan", "Cast steel");
+        }
+        index.index(10, "Copper pan", "Cast copper");
+
+        TextIndex.Hits hits = index.search("steel copper", 10);
+
+        assertThat(hits.ids()).hasSize(10);
+        assertThat(hits.ids()[0]).isEqualTo(10L);
+        assertThat(hits.scores()[0]).isGreaterThan(hits.scores()[1]);
+    }
+
+    @Test
+    void prefixQueryMatchesLongerTerms() {
+        TextIndex index = new TextIndex();
+        index.index(1, "Kettle", null);
+        index.index(2, "Kettlebell", null);
+        index.index(3, "Ket", null);
+
+        assertThat(index.search("kettle*", 10).ids()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("kettle", 10).ids()).containsExactly(1L);
+    }
+
+    @Test
+    void removedDocumentIsNotFound() {
+        TextIndex index = new TextIndex();
+        index.index(1, "Red kettle", null);
+        index.index(2, "Blue kettle", null);
+
+        index.remove(1);
+        index.index(3, "Green kettle", null);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("kettle", 10).ids()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("red", 10).ids()).isEmpty();
+    }
+
+    @Test
+    void searchReturnsTheBestHitsUpToTheLimit() {
+        TextIndex index = new TextIndex();
+        for (long id = 1; id <= 20; id++) {
+            // Longer descriptions dilute the term, so lower ids rank higher
+            index.index(id, "Kettle", "water ".repeat((int) id));
+        }
+
+        TextIndex.Hits all = index.search("kettle", 20);
+        TextIndex.Hits top = index.search("kettle", 5);
+
+        assertThat(top.ids()).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(top.ids()).containsExactly(Arrays.copyOf(all.ids(), 5));
+        assertThat(top.scores()).isSortedAccordingTo((a, b) -> Float.compare(b, a));
+    }
+
+    @Test
+    void compactionKeepsSearchResults() {
+        int documents = 3000;
+        String[][] texts = texts(documents);
+        TextIndex index = new TextIndex();
+        for (int id = 1; id <= documents; id++) {
+            index.index(id, texts[id][0], texts[id][1]);
+        }
+
+        // Just short of the point where deleted documents outnumber live ones
+        LongStream.rangeClosed(1, documents / 2 - 1).forEach(id -> index.remove(id * 2));
+        long uncompacted = index.footprint("index").retainedBytes();
+        assertSameResults(index, reference(texts, id -> id % 2 == 1 || id == documents));
+
+        index.remove(documents);
+        assertThat(index.footprint("index").retainedBytes()).isLessThan(uncompacted);
+        assertSameResults(index, reference(texts, id -> id % 2 == 1));
+    }
+
+    private static void assertSameResults(TextIndex index, TextIndex reference) {
+        assertThat(index.size()).isEqualTo(reference.size());
+        for (String query : QUERIES) {
+            TextIndex.Hits actual = index.search(query, 50);
+            TextIndex.Hits expected = reference.search(query, 50);
+            assertThat(actual.ids()).as(query).containsExactly(expected.ids());
+            assertThat(actual.scores()).as(query).containsExactly(expected.scores());
+        }
+    }
+
+    /**
+     * A fresh index that never held the documents the compaction test removes.
+     */
+    private static TextIndex reference(String[][] texts, IntPredicate kept) {
+        TextIndex reference = new TextIndex();
+        for (int id = 1; id < texts.length; id++) {
+            if (kept.test(id)) {
+                reference.index(id, texts[id][0], texts[id][1]);
+            }
+        }
+        return reference;
+    }
+
+    private static String[][] texts(int documents) {
+        Random random = new Random(42);
+        String[][] texts = new String[documents + 1][];
+        for (int id = 1; id <= documents; id++) {
+            texts[id] = new String[]{word(random) + " " + word(random),
+                    word(random) + " " + word(random) + " " + word(random)};
+        }
+        return texts;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.repository;
+
+import com.example.demo.footprint.MemoryEstimates;
+import com.example.demo.model.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredStoreTest {
+
+    private static final int HOT_CAPACITY = 4;
+    private static final int CHUNK_BYTES = 1024;
+    // The first keys fill the hot tier; later new keys are no more frequent than any victim and go cold
+    private static final long HOT = 1;
+    private static final long COLD = HOT_CAPACITY + 1;
+
+    @TempDir
+    Path directory;
+
+    private MeterRegistry meterRegistry;
+    private TieredStore<Product> store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new TieredStore<>(new ProductCodec(), MemoryEstimates::product, HOT_CAPACITY, directory,
+                CHUNK_BYTES, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void newKeysBeyondHotCapacityGoCold() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, product(id, "v1"));
+        }
+
+        assertThat(entries("hot")).isEqualTo(HOT_CAPACITY);
+        assertThat(entries("cold")).isEqualTo(10 - HOT_CAPACITY);
+        assertThat(store.size()).isEqualTo(10);
+        for (long id = 1; id <= 10; id++) {
+            assertThat(store.get(id).getName()).isEqualTo("product-" + id + "-v1");
+        }
+    }
+
+    @Test
+    void frequentlyReadColdKeyIsPromotedAndVictimEvicted() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, product(id, "v1"));
+        }
+        long cold = COLD;
+
+        for (int i = 0; i < 10; i++) {
+            store.get(cold);
+        }
+
+        assertThat(counter("app.repository.tier.promotions")).isGreaterThanOrEqualTo(1);
+        assertThat(counter("app.repository.tier.evictions")).isGreaterThanOrEqualTo(1);
+        assertThat(entries("hot")).isEqualTo(HOT_CAPACITY);
+        assertThat(entries("cold")).isEqualTo(10 - HOT_CAPACITY);
+        assertThat(store.size()).isEqualTo(10);
+        assertThat(store.get(cold).getId()).isEqualTo(cold);
+    }
+
+    @Test
+    void removeDropsEntriesFromEitherTier() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, product(id, "v1"));
+        }
+        long cold = COLD;
+        long hot = HOT;
+
+        assertThat(store.remove(cold).getId()).isEqualTo(cold);
+        assertThat(store.remove(hot).getId()).isEqualTo(hot);
+
+        assertThat(store.get(cold)).isNull();
+        assertThat(store.get(hot)).isNull();
+        assertThat(store.containsKey(cold)).isFalse();
+        assertThat(store.size()).isEqualTo(8);
+        assertThat(store.values()).hasSize(8);
+    }
+
+    @Test
+    void rewritesCompactTheColdFileAndKeepLatestValues() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, product(id, "v0"));
+        }
+        for (int round = 1; round <= 50; round++) {
+            for (long id = 1; id <= 10; id++) {
+                store.put(id, product(id, "v" + round));
+            }
+        }
+
+        assertThat(counter("app.repository.tier.compactions")).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("app.repository.tier.cold.file.bytes").gauge().value())
+                .isLessThanOrEqualTo(2.0 * CHUNK_BYTES);
+        assertThat(store.size()).isEqualTo(10);
+        for (long id = 1; id <= 10; id++) {
+            assertThat(store.peek(id).getName()).isEqualTo("product-" + id + "-v50");
+        }
+    }
+
+    @Test
+    void coldValueIsDecodedOncePerHolder() {
+        for (long id = 1; id <= 10; id++) {
+            store.put(id, product(id, "v1"));
+        }
+        long cold = COLD;
+
+        Product first = store.peek(cold);
+        assertThat(store.peek(cold)).isSameAs(first);
+        assertThat(store.values()).anySatisfy(value -> assertThat(value).isSameAs(first));
+        assertThat(store.filter(value -> value.getId() == cold)).singleElement().isSameAs(first);
+        assertThat(store.findAny(value -> value.getId() == cold)).isSameAs(first);
+
+        first.setStock(42);
+        store.put(cold, first);
+        assertThat(store.peek(cold)).isSameAs(first);
+        assertThat(store.peek(cold).getStock()).isEqualTo(42);
+    }
+
+    @Test
+    void evictedValueStaysTheSameInstance() {
+        for (long id = 1; id <= HOT_CAPACITY; id++) {
+            store.put(id, product(id, "v1"));
+        }
+        List<Product> held = store.values();
+
+        // New keys read often enough push every original key out of the hot tier
+        for (long id = 100; id < 100 + 4 * HOT_CAPACITY; id++) {
+            store.put(id, product(id, "v1"));
+            for (int i = 0; i < 12; i++) {
+                store.get(id);
+            }
+        }
+
+        assertThat(counter("app.repository.tier.evictions")).isGreaterThanOrEqualTo(HOT_CAPACITY);
+        for (Product product : held) {
+            assertThat(store.peek(product.getId())).isSameAs(product);
+        }
+    }
+
+    private double entries(String tier) {
+        return meterRegistry.get("app.repository.tier.entries").tag("tier", tier).gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double counter(String name, String tier) {
+        return meterRegistry.get(name).tag("tier", tier).counter().count();
+    }
+
+    private static Product product(long id, String version) {
+        return new Product(id, "product-" + id + "-" + version, "description of " + id,
+                BigDecimal.valueOf(id), (int) id);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.events.ChangeFeed;
+import com.example.demo.events.ChangeListener;
+import com.example.demo.events.MutationPipeline;
+import com.example.demo.model.Product;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.SearchHit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private MutationPipeline pipeline;
+    private ProductServiceImpl productService;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pipeline = new MutationPipeline(new ChangeFeed(1024),
+                new StaticListableBeanFactory().getBeanProvider(ChangeListener.class), meterRegistry, 1024, 16, 1);
+        ProductRepository productRepository = new ProductRepository(pipeline, 1000, true, false, 16, false, 16,
+                directory.toString(), 1, meterRegistry);
+        pipeline.afterSingletonsInstantiated();
+        productService = new ProductServiceImpl(productRepository, meterRegistry, 2000, 1000, 1000, 100, 300, 900, 3600);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        productService.shutdown();
+        pipeline.shutdown();
+    }
+
+    @Test
+    void sharedQueryResultsCannotBeModified() throws InterruptedException {
+        Product extra = new Product("Spare mouse", "Wired mouse", new BigDecimal("9.99"), 1);
+
+        assertReadOnly(productService.searchProductsByName("mouse"), extra);
+        assertReadOnly(productService.getProductsByPriceRange(BigDecimal.ZERO, new BigDecimal("100")), extra);
+        assertReadOnly(productService.getInStockProducts(), extra);
+        assertReadOnly(awaitSearch("mouse"), new SearchHit<>(extra, 1));
+    }
+
+    /**
+     * Waits for the write pipeline to index the sample data.
+     */
+    private List<SearchHit<Product>> awaitSearch(String query) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        List<SearchHit<Product>> hits = productService.searchProducts(query, 10);
+        while (hits.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            hits = productService.searchProducts(query, 10);
+        }
+        return hits;
+    }
+
+    private static <E> void assertReadOnly(List<E> shared, E element) {
+        assertThat(shared).isNotEmpty();
+        assertThatThrownBy(() -> shared.add(element)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> shared.set(0, element)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> shared.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(shared::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight("test", 10_000, new SimpleMeterRegistry());
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            return "own";
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void interruptedWaiterThrowsAndKeepsItsInterruptFlag() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return "result";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                singleFlight.execute("key", () -> "own");
+            } catch (RuntimeException e) {
+                thrown.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join(5_000);
+
+        assertThat(thrown.get()).isInstanceOf(QueryInterruptedException.class)
+                .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(interrupted).isTrue();
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+    }
+
+    @Test
+    void listResultsAreSharedReadOnly() {
+        List<String> shared = singleFlight.executeList("key", () -> new ArrayList<>(List.of("a", "b")));
+
+        assertThat(shared).containsExactly("a", "b");
+        assertThatThrownBy(() -> shared.add("c")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> shared.set(0, "c")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
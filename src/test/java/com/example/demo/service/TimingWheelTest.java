@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final long START = 1_000_000;
+
+    @Test
+    void firesNothingBeforeItsDeadlineAndEverythingWithinTwoTicks() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        Random random = new Random(42);
+        Map<Long, Long> deadlines = new HashMap<>();
+        // Spread over three levels, so timeouts cascade down before they fire
+        long horizon = 70_000 * TICK;
+        for (long item = 0; item < 20_000; item++) {
+            long deadline = START + (long) (random.nextDouble() * horizon);
+            deadlines.put(item, deadline);
+            wheel.schedule(item, deadline);
+        }
+
+        Set<Long> fired = new HashSet<>();
+        for (long now = START; now <= START + horizon + 2 * TICK; now += TICK) {
+            for (long item : wheel.advance(now)) {
+                long deadline = deadlines.get(item);
+                assertThat(now).as("item %d fired at %d", item, now).isGreaterThanOrEqualTo(deadline);
+                assertThat(now - deadline).as("lateness of item %d", item).isLessThan(2 * TICK);
+                assertThat(fired.add(item)).as("item %d fired twice", item).isTrue();
+            }
+        }
+
+        assertThat(fired).hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesOnLevelBoundariesFireOnTime() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+        long[] offsets = {1, 254, 255, 256, 257, 511, 512, 65_535, 65_536, 65_537, 131_072, 16_777_216};
+        for (long offset : offsets) {
+            wheel.schedule(offset, offset);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 16_777_216; now++) {
+            for (long item : wheel.advance(now)) {
+                assertThat(item).as("fired at %d", now).isEqualTo(now);
+                fired.add(item);
+            }
+        }
+
+        assertThat(fired).containsExactly(1L, 254L, 255L, 256L, 257L, 511L, 512L, 65_535L, 65_536L, 65_537L,
+                131_072L, 16_777_216L);
+    }
+
+    @Test
+    void largeJumpFiresEverythingDueInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        long[] offsets = {70_000, 300, 5, 2_600, 300_000};
+        for (long offset : offsets) {
+            wheel.schedule(offset, START + offset * TICK);
+        }
+
+        assertThat(wheel.advance(START + 3_000 * TICK)).containsExactly(5L, 300L, 2_600L);
+        assertThat(wheel.advance(START + 300_000 * TICK)).containsExactly(70_000L, 300_000L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineInThePastFiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.advance(START + 100 * TICK);
+
+        wheel.schedule("late", START);
+
+        // The current tick has been processed already
+        assertThat(wheel.advance(START + 100 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 101 * TICK)).containsExactly("late");
+    }
+
+    @Test
+    void deadlineIsRoundedUpToWholeTicks() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.schedule("due", START + 5 * TICK + 1);
+
+        assertThat(wheel.advance(START + 5 * TICK)).isEmpty();
+        assertThat(wheel.advance(START + 6 * TICK)).containsExactly("due");
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timeout<String> near = wheel.schedule("near", START + 3 * TICK);
+        TimingWheel.Timeout<String> far = wheel.schedule("far", START + 1_000 * TICK);
+        wheel.schedule("kept", START + 1_000 * TICK);
+
+        assertThat(wheel.cancel(near)).isTrue();
+        assertThat(wheel.cancel(near)).isFalse();
+        // Cancelled after being placed on a higher level, then cascaded past
+        assertThat(wheel.advance(START + 500 * TICK)).isEmpty();
+        assertThat(wheel.cancel(far)).isTrue();
+
+        assertThat(wheel.advance(START + 2_000 * TICK)).containsExactly("kept");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancellingAFiredTimeoutReportsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        TimingWheel.Timeout<String> timeout = wheel.schedule("due", START + TICK);
+        wheel.advance(START + TICK);
+
+        assertThat(wheel.cancel(timeout)).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveTick() {
+        assertThatThrownBy(() -> new TimingWheel<>(0, START)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.service;
+
+import com.example.demo.events.ChangeFeed;
+import com.example.demo.events.ChangeListener;
+import com.example.demo.events.MutationPipeline;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserServiceImplTest {
+
+    private MutationPipeline pipeline;
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pipeline = new MutationPipeline(new ChangeFeed(1024),
+                new StaticListableBeanFactory().getBeanProvider(ChangeListener.class), meterRegistry, 1024, 16, 1);
+        userService = new UserServiceImpl(new UserRepository(pipeline, 1000, true, 16), meterRegistry, 2000, 1000);
+        pipeline.afterSingletonsInstantiated();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void sharedRoleResultsCannotBeModified() {
+        List<User> admins = userService.getUsersByRole("admin");
+
+        assertThat(admins).isNotEmpty();
+        assertThatThrownBy(() -> admins.add(new User("Extra", "extra@example.com", "ADMIN")))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> admins.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of gzip-compressing a product list body against the bytes it saves.
+ * Times the compression {@link CompressedResponseCacheFilter} does on a cache miss at the
+ * given deflate level, and prints the uncompressed and compressed sizes for each trial.
+ * A cache hit writes the stored bytes and pays none of this.
+ * Run with {@code scripts/map-benchmark.sh CompressionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int products;
+
+    @Param({"1", "6", "9"})
+    int level;
+
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body = new ObjectMapper().writeValueAsBytes(SampleProducts.list(products));
+        int compressed = CompressedResponseCacheFilter.compress(body, level).length;
+        System.out.printf("%n%d products: %d bytes JSON, %d bytes gzip level %d (%.1f%% saved)%n",
+                products, body.length, compressed, level, 100.0 * (body.length - compressed) / body.length);
+    }
+
+    @Benchmark
+    public byte[] compress() throws IOException {
+        return CompressedResponseCacheFilter.compress(body, level);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.web;
+
+import com.example.demo.model.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Catalogue-like products for the serialization benchmarks: short repetitive names and
+ * descriptions, two-decimal prices and small stock counts, as in the sample data.
+ */
+final class SampleProducts {
+
+    private static final String[] WORDS = {"laptop", "mouse", "keyboard", "monitor", "cable", "wireless",
+            "ergonomic", "portable", "gaming", "office", "charger", "stand"};
+
+    private SampleProducts() {
+    }
+
+    static List<Product> list(int count) {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            String name = word(random) + " " + word(random) + " " + id;
+            Product product = new Product(id, name, "High-quality " + word(random) + " for " + word(random) + " use",
+                    BigDecimal.valueOf(100 + random.nextInt(99_900), 2), random.nextInt(100));
+            product.setReserved(random.nextInt(3));
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}